@@ -2,6 +2,8 @@ package com.itops.controller;
 
 import com.itops.dto.CommentResponse;
 import com.itops.dto.CreateCommentRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.model.Comment;
 import com.itops.security.JwtUtil;
 import com.itops.service.CommentService;
@@ -25,15 +27,18 @@ public class CommentController {
     @GetMapping("/phases/{phaseId}")
     public ResponseEntity<List<CommentResponse>> getPhaseComments(
             @PathVariable UUID phaseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request
     ) {
         UUID companyId = getCompanyIdFromRequest(request);
-        List<CommentResponse> comments = commentService.getComments(
+        CursorPage<CommentResponse> comments = commentService.getComments(
                 Comment.EntityType.PHASE,
                 phaseId,
-                companyId
+                companyId,
+                CursorPageRequest.of(cursor, limit)
         );
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok().headers(comments.headers()).body(comments.getItems());
     }
 
     // Create comment for a phase
@@ -55,15 +60,18 @@ public class CommentController {
     @GetMapping("/tasks/{taskId}")
     public ResponseEntity<List<CommentResponse>> getTaskComments(
             @PathVariable UUID taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request
     ) {
         UUID companyId = getCompanyIdFromRequest(request);
-        List<CommentResponse> comments = commentService.getComments(
+        CursorPage<CommentResponse> comments = commentService.getComments(
                 Comment.EntityType.TASK,
                 taskId,
-                companyId
+                companyId,
+                CursorPageRequest.of(cursor, limit)
         );
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok().headers(comments.headers()).body(comments.getItems());
     }
 
     // Create comment for a task
@@ -85,15 +93,18 @@ public class CommentController {
     @GetMapping("/subtasks/{subtaskId}")
     public ResponseEntity<List<CommentResponse>> getSubtaskComments(
             @PathVariable UUID subtaskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request
     ) {
         UUID companyId = getCompanyIdFromRequest(request);
-        List<CommentResponse> comments = commentService.getComments(
+        CursorPage<CommentResponse> comments = commentService.getComments(
                 Comment.EntityType.SUBTASK,
                 subtaskId,
-                companyId
+                companyId,
+                CursorPageRequest.of(cursor, limit)
         );
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok().headers(comments.headers()).body(comments.getItems());
     }
 
     // Create comment for a subtask
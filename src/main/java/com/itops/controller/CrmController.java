@@ -5,6 +5,8 @@ package com.itops.controller;
 import com.itops.domain.ClientCrm;
 import com.itops.dto.ClientResponse;
 import com.itops.dto.CreateClientRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.service.CrmService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,10 +26,14 @@ public class CrmController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN', 'USER')")
-    public ResponseEntity<List<com.itops.dto.ClientCrmResponse>> listCrmClients(Authentication authentication) {
+    public ResponseEntity<List<com.itops.dto.ClientCrmResponse>> listCrmClients(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         UUID companyId = extractCompanyId(authentication);
-        List<com.itops.dto.ClientCrmResponse> clients = crmService.listAllCrmClients(companyId);
-        return ResponseEntity.ok(clients);
+        CursorPage<com.itops.dto.ClientCrmResponse> clients =
+                crmService.listAllCrmClients(companyId, CursorPageRequest.of(cursor, limit));
+        return ResponseEntity.ok().headers(clients.headers()).body(clients.getItems());
     }
 
     @PostMapping("/clients")
@@ -13,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -36,7 +37,10 @@ public class InvoiceController {
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromIssueDate,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toIssueDate,
         @RequestParam(required = false) Boolean overdueOnly,
-        @RequestParam(required = false) String sortBy
+        @RequestParam(required = false) String sortBy,
+        @RequestParam(defaultValue = "true") boolean includeItems,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
     ) {
         UUID companyId = getCompanyIdFromRequest(request);
         String role = getRoleFromRequest(request);
@@ -51,11 +55,12 @@ public class InvoiceController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        List<InvoiceResponse> invoices = invoiceService.getAllInvoices(
-            companyId, clientId, projectId, status, fromIssueDate, toIssueDate, overdueOnly, sortBy
+        CursorPage<InvoiceResponse> invoices = invoiceService.getAllInvoices(
+            companyId, clientId, projectId, status, fromIssueDate, toIssueDate, overdueOnly, sortBy, includeItems,
+            CursorPageRequest.of(cursor, limit)
         );
         
-        return ResponseEntity.ok(invoices);
+        return ResponseEntity.ok().headers(invoices.headers()).body(invoices.getItems());
     }
     
     @GetMapping("/{id}")
@@ -144,7 +149,7 @@ public class InvoiceController {
     }
     
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> generateInvoicePDF(
+    public ResponseEntity<StreamingResponseBody> generateInvoicePDF(
         @PathVariable UUID id,
         HttpServletRequest httpRequest
     ) {
@@ -155,7 +160,8 @@ public class InvoiceController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        byte[] pdfBytes = invoiceService.generateInvoicePDF(id, companyId);
+        // Resolved before the status is sent so an unknown invoice is a 404
+        InvoiceService.InvoicePdf pdf = invoiceService.loadInvoicePdf(id, companyId);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -163,7 +169,7 @@ public class InvoiceController {
         
         return ResponseEntity.ok()
             .headers(headers)
-            .body(pdfBytes);
+            .body(out -> invoiceService.writeInvoicePDF(pdf, out));
     }
     
     // Helper methods
@@ -1,19 +1,26 @@
 package com.itops.controller;
 
+import com.itops.dto.BillingRunRequest;
+import com.itops.dto.BillingRunResponse;
+import com.itops.dto.InvoiceBulkGenerateRequest;
+import com.itops.dto.InvoiceBulkGenerateResponse;
 import com.itops.dto.InvoiceGenerateRequest;
 import com.itops.dto.InvoiceGenerateResponse;
 import com.itops.dto.InvoiceGenerationPreviewRequest;
 import com.itops.dto.InvoiceGenerationPreviewResponse;
 import com.itops.security.JwtUtil;
+import com.itops.service.AutoBillingService;
 import com.itops.service.InvoiceGenerationService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +30,7 @@ import java.util.UUID;
 public class InvoiceGenerationController {
 
     private final InvoiceGenerationService invoiceGenerationService;
+    private final AutoBillingService autoBillingService;
     private final JwtUtil jwtUtil;
 
     /**
@@ -78,6 +86,66 @@ public class InvoiceGenerationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Generate DRAFT invoices for several clients at once
+     * Each client is generated independently; clients that cannot be invoiced are reported
+     */
+    @PostMapping("/generate-bulk")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<InvoiceBulkGenerateResponse> generateInvoices(
+            @Valid @RequestBody InvoiceBulkGenerateRequest request,
+            HttpServletRequest httpRequest) {
+        
+        UUID companyId = getCompanyIdFromRequest(httpRequest);
+        UUID userId = getUserIdFromRequest(httpRequest);
+        
+        log.info("Bulk generate invoice request from user: {} from: {} to: {}", 
+                 userId, request.getFromDate(), request.getToDate());
+        
+        InvoiceBulkGenerateResponse response = invoiceGenerationService.generateDraftInvoicesForClients(
+            companyId,
+            userId,
+            request
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start (or resume) an auto-billing run for a period
+     * Clients are billed in the background; poll the run for progress
+     */
+    @PostMapping("/runs")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<BillingRunResponse> startBillingRun(
+            @Valid @RequestBody BillingRunRequest request,
+            HttpServletRequest httpRequest) {
+        
+        UUID companyId = getCompanyIdFromRequest(httpRequest);
+        
+        log.info("Billing run requested for company: {} from: {} to: {}", 
+                 companyId, request.getFromDate(), request.getToDate());
+        
+        BillingRunResponse response = autoBillingService.startRun(companyId, request.getFromDate(), request.getToDate());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/runs")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<List<BillingRunResponse>> getBillingRuns(HttpServletRequest httpRequest) {
+        UUID companyId = getCompanyIdFromRequest(httpRequest);
+        return ResponseEntity.ok(autoBillingService.getRecentRuns(companyId));
+    }
+
+    @GetMapping("/runs/{id}")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<BillingRunResponse> getBillingRun(
+            @PathVariable UUID id,
+            HttpServletRequest httpRequest) {
+        UUID companyId = getCompanyIdFromRequest(httpRequest);
+        return ResponseEntity.ok(autoBillingService.getRun(id, companyId));
+    }
+
     private UUID getCompanyIdFromRequest(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
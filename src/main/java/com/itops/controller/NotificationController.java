@@ -1,5 +1,7 @@
 package com.itops.controller;
 
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.NotificationResponse;
 import com.itops.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -20,9 +22,14 @@ public class NotificationController {
     private final NotificationService notificationService;
     
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getUserNotifications(Authentication authentication) {
+    public ResponseEntity<List<NotificationResponse>> getUserNotifications(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         UUID userId = extractUserId(authentication);
-        return ResponseEntity.ok(notificationService.getUserNotifications(userId));
+        CursorPage<NotificationResponse> notifications =
+                notificationService.getUserNotifications(userId, CursorPageRequest.of(cursor, limit));
+        return ResponseEntity.ok().headers(notifications.headers()).body(notifications.getItems());
     }
     
     @GetMapping("/unread")
@@ -1,5 +1,7 @@
 package com.itops.controller;
 
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.ProjectRequest;
 import com.itops.dto.ProjectResponse;
 import com.itops.security.JwtUtil;
@@ -28,13 +30,17 @@ public class ProjectController {
             @RequestParam(required = false) String clientId,
             @RequestParam(required = false) String search,
             @RequestParam(required = false, defaultValue = "updatedAt") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request) {
         UUID companyId = getCompanyIdFromRequest(request);
         String userRole = getUserRoleFromRequest(request);
         UUID teamId = getTeamIdFromRequest(request);
         UUID userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(projectService.getAllProjectsWithFilters(
-            companyId, status, priority, clientId, search, sortBy, userRole, teamId, userId));
+        CursorPage<ProjectResponse> projects = projectService.getAllProjectsWithFilters(
+            companyId, status, priority, clientId, search, sortBy, userRole, teamId, userId,
+            CursorPageRequest.of(cursor, limit));
+        return ResponseEntity.ok().headers(projects.headers()).body(projects.getItems());
     }
 
     @GetMapping("/{id}")
@@ -2,16 +2,24 @@ package com.itops.controller;
 
 import com.itops.dto.*;
 import com.itops.security.JwtUtil;
+import com.itops.service.DataExportService;
+import com.itops.service.ReportExportService;
 import com.itops.service.ReportService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -21,6 +29,8 @@ import java.util.UUID;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportExportService reportExportService;
+    private final DataExportService dataExportService;
     private final JwtUtil jwtUtil;
 
     private UUID getCompanyIdFromRequest(HttpServletRequest request) {
@@ -41,6 +51,36 @@ public class ReportController {
         throw new RuntimeException("No valid token found");
     }
 
+    private UUID getUserIdFromRequest(HttpServletRequest request) {
+        String token = request.getHeader("Authorization");
+        if (token != null && token.startsWith("Bearer ")) {
+            token = token.substring(7);
+            return jwtUtil.getUserIdFromToken(token);
+        }
+        throw new RuntimeException("No valid token found");
+    }
+
+    private ResponseEntity<StreamingResponseBody> pdfResponse(String filename, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, DataExportService.Format format,
+                                                                 StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDispositionFormData("attachment", name + "." + format.getExtension());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
     @PostMapping("/revenue")
     public ResponseEntity<RevenueReportDTO> getRevenueReport(
             HttpServletRequest request,
@@ -104,7 +144,7 @@ public class ReportController {
     }
 
     @PostMapping("/revenue/pdf")
-    public ResponseEntity<byte[]> downloadRevenuePDF(
+    public ResponseEntity<StreamingResponseBody> downloadRevenuePDF(
             HttpServletRequest request,
             @RequestBody ReportFilterDTO filter) {
         UUID companyId = getCompanyIdFromRequest(request);
@@ -119,19 +159,11 @@ public class ReportController {
         
         RevenueReportDTO report = reportService.getRevenueReport(companyId, filter);
         String period = filter.getPeriod() != null ? filter.getPeriod() : "month";
-        byte[] pdfBytes = reportService.generateRevenuePDF(report, period);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "revenue-report.pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return pdfResponse("revenue-report.pdf", out -> reportService.writeRevenuePDF(report, period, out));
     }
 
     @PostMapping("/projects/pdf")
-    public ResponseEntity<byte[]> downloadProjectsPDF(
+    public ResponseEntity<StreamingResponseBody> downloadProjectsPDF(
             HttpServletRequest request,
             @RequestBody ReportFilterDTO filter) {
         UUID companyId = getCompanyIdFromRequest(request);
@@ -146,19 +178,11 @@ public class ReportController {
         
         ProjectReportDTO report = reportService.getProjectReport(companyId, filter);
         String period = filter.getPeriod() != null ? filter.getPeriod() : "month";
-        byte[] pdfBytes = reportService.generateProjectPDF(report, period);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "projects-report.pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return pdfResponse("projects-report.pdf", out -> reportService.writeProjectPDF(report, period, out));
     }
 
     @PostMapping("/time/pdf")
-    public ResponseEntity<byte[]> downloadTimePDF(
+    public ResponseEntity<StreamingResponseBody> downloadTimePDF(
             HttpServletRequest request,
             @RequestBody ReportFilterDTO filter) {
         UUID companyId = getCompanyIdFromRequest(request);
@@ -167,19 +191,11 @@ public class ReportController {
         
         TimeReportDTO report = reportService.getTimeReport(companyId, filter);
         String period = filter.getPeriod() != null ? filter.getPeriod() : "month";
-        byte[] pdfBytes = reportService.generateTimePDF(report, period);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "time-report.pdf");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return pdfResponse("time-report.pdf", out -> reportService.writeTimePDF(report, period, out));
     }
 
     @PostMapping("/team/pdf")
-    public ResponseEntity<byte[]> downloadTeamPDF(
+    public ResponseEntity<StreamingResponseBody> downloadTeamPDF(
             HttpServletRequest request,
             @RequestBody ReportFilterDTO filter) {
         UUID companyId = getCompanyIdFromRequest(request);
@@ -194,14 +210,103 @@ public class ReportController {
         
         TeamReportDTO report = reportService.getTeamReport(companyId, filter);
         String period = filter.getPeriod() != null ? filter.getPeriod() : "month";
-        byte[] pdfBytes = reportService.generateTeamPDF(report, period);
+        return pdfResponse("team-report.pdf", out -> reportService.writeTeamPDF(report, period, out));
+    }
+
+    // Streaming CSV / NDJSON exports of the rows behind the reports
+
+    @PostMapping("/revenue/export")
+    public ResponseEntity<StreamingResponseBody> exportRevenueLines(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestBody ReportFilterDTO filter) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        String role = getRoleFromRequest(request);
+        
+        if ("CLIENT".equals(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        log.info("Exporting invoice lines for company: {}", companyId);
+        DataExportService.Format exportFormat = DataExportService.Format.from(format);
+        return exportResponse("revenue-lines", exportFormat,
+                out -> dataExportService.writeInvoiceLines(companyId, filter, exportFormat, out));
+    }
+
+    @PostMapping("/time/export")
+    public ResponseEntity<StreamingResponseBody> exportTimeEntries(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestBody ReportFilterDTO filter) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        String role = getRoleFromRequest(request);
+        
+        if ("CLIENT".equals(role)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        // Same visibility rules as the time entry export: only managers may export other users' entries
+        if (!("TOP_USER".equals(role) || "SUPER_USER".equals(role) || "ADMIN".equals(role))) {
+            filter.setUserId(userId);
+        }
+        
+        log.info("Exporting time entries for company: {}", companyId);
+        DataExportService.Format exportFormat = DataExportService.Format.from(format);
+        return exportResponse("time-entries", exportFormat,
+                out -> dataExportService.writeTimeEntries(companyId, filter, exportFormat, out));
+    }
+
+    // Asynchronous exports: queue a job, poll its status, download the finished PDF
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponse> createExportJob(
+            HttpServletRequest request,
+            @Valid @RequestBody ReportJobRequest jobRequest) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        String role = getRoleFromRequest(request);
+        
+        // Clients may only export time reports, matching the synchronous endpoints
+        if ("CLIENT".equals(role) && !"time".equalsIgnoreCase(jobRequest.getReportType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        log.info("Queueing {} report export for company: {}", jobRequest.getReportType(), companyId);
+        ReportJobResponse job = reportExportService.submit(companyId, userId, jobRequest);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ReportJobResponse>> getExportJobs(HttpServletRequest request) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(reportExportService.getRecentJobs(companyId, userId));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobResponse> getExportJob(
+            HttpServletRequest request,
+            @PathVariable UUID id) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(reportExportService.getJob(id, companyId, userId));
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadExportJob(
+            HttpServletRequest request,
+            @PathVariable UUID id) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        Path file = reportExportService.getArtifact(id, companyId, userId);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "team-report.pdf");
+        headers.setContentDispositionFormData("attachment", file.getFileName().toString());
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(new FileSystemResource(file));
     }
 }
@@ -1,5 +1,7 @@
 package com.itops.controller;
 
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.TaskRequest;
 import com.itops.dto.TaskResponse;
 import com.itops.security.JwtUtil;
@@ -28,6 +30,8 @@ public class TaskController {
                                                            @RequestParam(required = false) UUID phaseId,
                                                            @RequestParam(required = false) UUID teamId,
                                                            @RequestParam(required = false) UUID assignedTo,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit,
                                                            HttpServletRequest request) {
         UUID companyId = getCompanyIdFromRequest(request);
         UUID userId = getUserIdFromRequest(request);
@@ -37,9 +41,10 @@ public class TaskController {
             userId, userRole, companyId, projectId, phaseId, teamId, assignedTo);
 
         // Use comprehensive filtering that handles all parameter combinations
-        List<TaskResponse> tasks = taskService.getTasksWithFilters(companyId, userId, userRole, projectId, phaseId, teamId, assignedTo);
-        log.info("Returning {} tasks", tasks.size());
-        return ResponseEntity.ok(tasks);
+        CursorPage<TaskResponse> tasks = taskService.getTasksWithFilters(companyId, userId, userRole, projectId, phaseId, teamId, assignedTo,
+                CursorPageRequest.of(cursor, limit));
+        log.info("Returning {} tasks", tasks.getItems().size());
+        return ResponseEntity.ok().headers(tasks.headers()).body(tasks.getItems());
     }
 
     @GetMapping("/{id}")
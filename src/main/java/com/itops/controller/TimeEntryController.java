@@ -1,18 +1,27 @@
 package com.itops.controller;
 
+import com.itops.dto.ActiveTimerResponse;
 import com.itops.dto.CreateManualTimeEntryRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.StartTimerRequest;
+import com.itops.dto.TimeEntryImportResponse;
 import com.itops.dto.TimeEntryResponse;
 import com.itops.dto.UpdateTimeEntryRequest;
 import com.itops.security.JwtUtil;
+import com.itops.service.DataExportService;
+import com.itops.service.TimeEntryImportService;
 import com.itops.service.TimeEntryService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +33,8 @@ import java.util.UUID;
 public class TimeEntryController {
 
     private final TimeEntryService timeEntryService;
+    private final DataExportService dataExportService;
+    private final TimeEntryImportService timeEntryImportService;
     private final JwtUtil jwtUtil;
 
     @GetMapping
@@ -33,6 +44,8 @@ public class TimeEntryController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) Boolean billable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request
     ) {
         UUID companyId = getCompanyIdFromRequest(request);
@@ -49,10 +62,69 @@ public class TimeEntryController {
             ? userId  // Managers can specify userId or null to see all
             : requestUserId; // Regular users see only their own
         
-        List<TimeEntryResponse> entries = timeEntryService.getAllTimeEntries(
-                companyId, projectId, effectiveUserId, fromDate, toDate, billable
+        CursorPage<TimeEntryResponse> entries = timeEntryService.getAllTimeEntries(
+                companyId, projectId, effectiveUserId, fromDate, toDate, billable, CursorPageRequest.of(cursor, limit)
         );
-        return ResponseEntity.ok(entries);
+        return ResponseEntity.ok().headers(entries.headers()).body(entries.getItems());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTimeEntries(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Boolean billable,
+            HttpServletRequest request
+    ) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID requestUserId = getUserIdFromRequest(request);
+        String userRole = getRoleFromRequest(request);
+        
+        if ("CLIENT".equals(userRole)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        // Same visibility rules as the list endpoint
+        UUID effectiveUserId = (projectId != null && ("TOP_USER".equals(userRole) || "SUPER_USER".equals(userRole) || "ADMIN".equals(userRole))) 
+            ? userId
+            : requestUserId;
+        
+        DataExportService.Format exportFormat = DataExportService.Format.from(format);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDispositionFormData("attachment", "time-entries." + exportFormat.getExtension());
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> dataExportService.writeTimeEntries(
+                        companyId, projectId, effectiveUserId, fromDate, toDate, billable, exportFormat, out));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<TimeEntryImportResponse> importTimeEntries(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request
+    ) throws IOException {
+        UUID companyId = getCompanyIdFromRequest(request);
+        UUID userId = getUserIdFromRequest(request);
+        String userRole = getRoleFromRequest(request);
+        
+        if ("CLIENT".equals(userRole)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        // The body is read as a stream; without a format parameter JSON bodies are taken as NDJSON
+        String contentType = request.getContentType();
+        DataExportService.Format importFormat = format == null && contentType != null && contentType.contains("json")
+                ? DataExportService.Format.NDJSON
+                : DataExportService.Format.from(format);
+        boolean isManager = "TOP_USER".equals(userRole) || "SUPER_USER".equals(userRole) || "ADMIN".equals(userRole);
+        
+        TimeEntryImportResponse response = timeEntryImportService.importEntries(
+                companyId, userId, isManager, importFormat, request.getInputStream());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/active")
@@ -69,6 +141,19 @@ public class TimeEntryController {
                 .orElse(ResponseEntity.noContent().build());
     }
 
+    @GetMapping("/active/all")
+    public ResponseEntity<List<ActiveTimerResponse>> getActiveTimers(HttpServletRequest request) {
+        UUID companyId = getCompanyIdFromRequest(request);
+        String userRole = getRoleFromRequest(request);
+        
+        // Who is running a timer right now is a manager view
+        if (!("TOP_USER".equals(userRole) || "SUPER_USER".equals(userRole) || "ADMIN".equals(userRole))) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        return ResponseEntity.ok(timeEntryService.getActiveTimers(companyId));
+    }
+
     @PostMapping("/start")
     public ResponseEntity<TimeEntryResponse> startTimer(
             @Valid @RequestBody StartTimerRequest startRequest,
@@ -70,15 +70,43 @@ public class TimesheetController {
         String requesterRole = extractRole(authentication);
         UUID companyId = extractCompanyId(authentication);
         
-        System.out.println(">>> GET /timesheets - requesterId: " + requesterId + ", role: " + requesterRole + ", status: " + status + ", userId: " + userId);
-        
         List<TimesheetResponse> timesheets = timesheetService.getTimesheets(
                 requesterId, requesterRole, companyId, weekStart, status, userId);
-        
-        System.out.println(">>> Returning " + timesheets.size() + " timesheets");
         return ResponseEntity.ok(timesheets);
     }
 
+    /**
+     * GET /timesheets/approvals?weekStart=YYYY-MM-DD
+     * Submitted timesheets waiting for my review.
+     */
+    @GetMapping("/approvals")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<List<TimesheetResponse>> getApprovalQueue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart,
+            Authentication authentication) {
+        UUID requesterId = extractUserId(authentication);
+        String requesterRole = extractRole(authentication);
+        UUID companyId = extractCompanyId(authentication);
+        
+        return ResponseEntity.ok(timesheetService.getApprovalQueue(requesterId, requesterRole, companyId, weekStart));
+    }
+
+    /**
+     * POST /timesheets/review
+     * Approve or reject many timesheets at once.
+     */
+    @PostMapping("/review")
+    @PreAuthorize("hasAnyRole('TOP_USER', 'SUPER_USER', 'ADMIN')")
+    public ResponseEntity<List<TimesheetResponse>> reviewTimesheets(
+            @Valid @RequestBody ReviewTimesheetsRequest request,
+            Authentication authentication) {
+        UUID reviewerId = extractUserId(authentication);
+        String reviewerRole = extractRole(authentication);
+        UUID companyId = extractCompanyId(authentication);
+        
+        return ResponseEntity.ok(timesheetService.reviewTimesheets(request, reviewerId, reviewerRole, companyId));
+    }
+
     /**
      * GET /timesheets/{id}
      * Get a specific timesheet by ID (with access control)
@@ -0,0 +1,54 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One auto-billing run of a company for a billing period. The client counters are only
+ * changed through {@code BillingRunRepository} updates so parallel workers do not overwrite
+ * each other.
+ */
+@Entity
+@Table(name = "billing_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRun extends BaseEntity {
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false)
+    private String status; // RUNNING, COMPLETED
+
+    @Column(name = "clients_total", nullable = false)
+    private int clientsTotal;
+
+    @Column(name = "clients_invoiced", nullable = false)
+    private int clientsInvoiced;
+
+    @Column(name = "clients_skipped", nullable = false)
+    private int clientsSkipped;
+
+    @Column(name = "clients_failed", nullable = false)
+    private int clientsFailed;
+
+    @Column(name = "invoiced_total", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal invoicedTotal = BigDecimal.ZERO;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
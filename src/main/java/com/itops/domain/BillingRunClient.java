@@ -0,0 +1,39 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ledger row for one client within a {@link BillingRun}: whether its draft invoice was
+ * generated, skipped or failed, and which invoice was created.
+ */
+@Entity
+@Table(name = "billing_run_clients")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRunClient extends BaseEntity {
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "client_id", nullable = false)
+    private UUID clientId;
+
+    @Column(nullable = false)
+    private String status; // PENDING, INVOICED, SKIPPED, FAILED
+
+    @Column(name = "invoice_id")
+    private UUID invoiceId;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -17,6 +17,9 @@ public class ClientCrm {
     @GeneratedValue
     private UUID id;
 
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId; // Copied from the client so the CRM list can be read per tenant
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false, unique = true)
     private Client client;
@@ -0,0 +1,25 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Active user and project counts of a company, checked against its plan limits. The counters
+ * are only changed through {@code CompanyUsageRepository} updates so concurrent creates on any
+ * instance cannot overshoot the limit.
+ */
+@Entity
+@Table(name = "company_usage")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompanyUsage extends BaseEntity {
+
+    @Column(name = "active_users", nullable = false)
+    private Integer activeUsers;
+
+    @Column(name = "active_projects", nullable = false)
+    private Integer activeProjects;
+}
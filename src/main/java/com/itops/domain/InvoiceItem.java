@@ -44,7 +44,4 @@ public class InvoiceItem extends BaseEntity {
     
     @Column
     private Integer minutes;
-    
-    @Column(name = "source_time_entry_ids", columnDefinition = "TEXT")
-    private String sourceTimeEntryIds;
 }
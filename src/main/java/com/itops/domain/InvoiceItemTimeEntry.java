@@ -0,0 +1,36 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Links an invoice line item to one of the time entries it bills.
+ */
+@Entity
+@Table(name = "invoice_item_time_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceItemTimeEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "invoice_item_id", nullable = false)
+    private UUID invoiceItemId;
+
+    @Column(name = "time_entry_id", nullable = false)
+    private UUID timeEntryId;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
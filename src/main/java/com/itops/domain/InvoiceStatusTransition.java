@@ -0,0 +1,43 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One status change of an invoice. Changes made by the overdue sweeper have no
+ * {@code changedBy}.
+ */
+@Entity
+@Table(name = "invoice_status_transitions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceStatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "invoice_id", nullable = false)
+    private UUID invoiceId;
+
+    @Column(name = "from_status", nullable = false)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false)
+    private String toStatus;
+
+    @Column(name = "changed_by")
+    private UUID changedBy;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
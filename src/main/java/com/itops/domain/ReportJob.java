@@ -0,0 +1,72 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An asynchronous report export: the requested report and filter, its progress and,
+ * once rendered, the location of the PDF artifact on disk.
+ */
+@Entity
+@Table(name = "report_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob extends BaseEntity {
+
+    @Column(name = "requested_by", nullable = false)
+    private UUID requestedBy;
+
+    @Column(name = "report_type", nullable = false)
+    private String reportType; // REVENUE, PROJECTS, TIME, TEAM
+
+    @Column(nullable = false)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    private String period;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "client_id")
+    private UUID clientId;
+
+    @Column(name = "project_id")
+    private UUID projectId;
+
+    @Column(name = "team_id")
+    private UUID teamId;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "file_path")
+    private String filePath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt; // Refreshed by the instance holding the job while it is queued or running
+}
@@ -0,0 +1,43 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Task count per company, project, assignee and status.
+ * Rows are rebuilt per (company, project) partition by {@code AnalyticsRollupService}.
+ */
+@Entity
+@Table(name = "rollup_task_status")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatusRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "assigned_to")
+    private UUID assignedTo;
+
+    @Column(nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,50 @@
+package com.itops.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Billable and non-billable minutes per company, day, user and project.
+ * Rows are rebuilt per (company, day) partition by {@code AnalyticsRollupService}.
+ */
+@Entity
+@Table(name = "rollup_time_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Column(name = "billable_minutes", nullable = false)
+    private Long billableMinutes;
+
+    @Column(name = "non_billable_minutes", nullable = false)
+    private Long nonBillableMinutes;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
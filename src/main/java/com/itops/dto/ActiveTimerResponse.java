@@ -0,0 +1,34 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveTimerResponse {
+    
+    private UUID timeEntryId;
+    
+    private UUID userId;
+    
+    private String userName;
+    
+    private UUID projectId;
+    
+    private String projectName;
+    
+    private UUID taskId;
+    
+    private String taskName;
+    
+    private LocalDateTime startTime;
+    
+    private Integer runningMinutes; // Elapsed time when the list was produced
+}
@@ -0,0 +1,21 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunClientResponse {
+    private UUID clientId;
+    private String status;
+    private UUID invoiceId;
+    private String message;
+    private LocalDateTime completedAt;
+}
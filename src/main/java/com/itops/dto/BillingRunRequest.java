@@ -0,0 +1,16 @@
+package com.itops.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class BillingRunRequest {
+    
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+    
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+}
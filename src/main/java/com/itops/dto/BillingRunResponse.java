@@ -0,0 +1,32 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunResponse {
+    private UUID id;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String status;
+    private Integer clientsTotal;
+    private Integer clientsInvoiced;
+    private Integer clientsSkipped;
+    private Integer clientsFailed;
+    private Integer clientsPending;
+    private BigDecimal invoicedTotal;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private List<BillingRunClientResponse> clients; // Only when a single run is requested
+}
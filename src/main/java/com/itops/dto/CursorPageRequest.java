@@ -0,0 +1,91 @@
+package com.itops.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset position and page size requested by a list endpoint. Rows are ordered by
+ * {@code (created_at, id)} and the cursor is an opaque token holding the key of the last row
+ * already returned, so fetching the next page is an index range scan instead of an OFFSET.
+ * When neither a cursor nor a limit is given the request is unpaged and the full list is returned.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorPageRequest {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final CursorPageRequest UNPAGED = new CursorPageRequest(null, null, null);
+
+    private final LocalDateTime cursorCreatedAt;
+    private final UUID cursorId;
+    private final Integer limit;
+
+    public static CursorPageRequest of(String cursor, Integer limit) {
+        if ((cursor == null || cursor.isBlank()) && limit == null) {
+            return UNPAGED;
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        if (cursor == null || cursor.isBlank()) {
+            return new CursorPageRequest(null, null, size);
+        }
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new CursorPageRequest(LocalDateTime.parse(key[0]), UUID.fromString(key[1]), size);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    public static CursorPageRequest unpaged() {
+        return UNPAGED;
+    }
+
+    public boolean isPaged() {
+        return limit != null;
+    }
+
+    /**
+     * Fetches one row more than requested so the caller can tell whether another page exists.
+     */
+    public Pageable toPageable() {
+        return isPaged() ? PageRequest.of(0, limit + 1) : Pageable.unpaged();
+    }
+
+    /**
+     * Trims rows fetched with {@link #toPageable()} to the page size and derives the next cursor.
+     */
+    public <E, T> CursorPage<T> slice(List<E> rows, Function<E, LocalDateTime> createdAt, Function<E, UUID> id,
+                                      Function<E, T> mapper) {
+        return sliceAll(rows, createdAt, id, page -> page.stream().map(mapper).toList());
+    }
+
+    /**
+     * Like {@link #slice}, but maps the whole page at once so related data can be loaded in bulk.
+     */
+    public <E, T> CursorPage<T> sliceAll(List<E> rows, Function<E, LocalDateTime> createdAt, Function<E, UUID> id,
+                                         Function<List<E>, List<T>> mapper) {
+        if (!isPaged() || rows.size() <= limit) {
+            return new CursorPage<>(mapper.apply(rows), null);
+        }
+        List<E> page = rows.subList(0, limit);
+        E last = page.get(page.size() - 1);
+        String token = createdAt.apply(last) + "|" + id.apply(last);
+        String next = Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        return new CursorPage<>(mapper.apply(page), next);
+    }
+}
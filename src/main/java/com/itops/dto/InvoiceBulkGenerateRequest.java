@@ -0,0 +1,35 @@
+package com.itops.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class InvoiceBulkGenerateRequest {
+    
+    private List<UUID> clientIds = new ArrayList<>(); // Empty = every client with unbilled time
+    
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+    
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+    
+    private Boolean billableOnly = true; // Default to billable only
+    
+    private InvoiceGenerationPreviewRequest.GroupBy groupBy = InvoiceGenerationPreviewRequest.GroupBy.USER;
+    
+    private Boolean includeDescriptions = false; // Include entry descriptions
+    
+    private BigDecimal taxRate; // Optional override (default 18.00)
+    
+    private String notes; // Invoice notes/terms
+    
+    @NotNull(message = "Confirmation required")
+    private Boolean confirmed = false; // Must be true to generate
+}
@@ -0,0 +1,25 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceBulkGenerateResponse {
+    
+    @Builder.Default
+    private List<InvoiceGenerateResponse> generated = new ArrayList<>();
+    
+    @Builder.Default
+    private List<InvoiceBulkGenerateSkip> skipped = new ArrayList<>(); // Clients that could not be invoiced
+    
+    @Builder.Default
+    private List<InvoiceBulkGenerateSkip> failed = new ArrayList<>(); // Clients whose generation failed unexpectedly
+}
@@ -0,0 +1,19 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceBulkGenerateSkip {
+    
+    private UUID clientId;
+    
+    private String message; // Why no invoice was generated
+}
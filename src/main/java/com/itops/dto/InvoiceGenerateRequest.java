@@ -16,4 +16,6 @@ public class InvoiceGenerateRequest extends InvoiceGenerationPreviewRequest {
     
     @NotNull(message = "Confirmation required")
     private Boolean confirmed = false; // Must be true to generate
+    
+    private String previewToken; // Optional - token from the preview being confirmed
 }
@@ -18,6 +18,8 @@ public class InvoiceGenerateResponse {
     
     private String invoiceNumber;
     
+    private UUID clientId;
+    
     private BigDecimal total;
     
     private Integer billedEntriesCount;
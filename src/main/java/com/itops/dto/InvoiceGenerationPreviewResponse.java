@@ -52,4 +52,6 @@ public class InvoiceGenerationPreviewResponse {
     private Boolean canGenerate; // False if missing rates or no entries
     
     private String message; // Explanation if can't generate
+    
+    private String previewToken; // Pass back on generate to reuse this preview
 }
@@ -39,12 +39,16 @@ public class NotificationType {
     public static final String INVOICE_APPROVED = "INVOICE_APPROVED";
     public static final String INVOICE_REJECTED = "INVOICE_REJECTED";
     public static final String INVOICE_PAID = "INVOICE_PAID";
+    public static final String INVOICE_OVERDUE = "INVOICE_OVERDUE";
     
     // Timesheet notifications
     public static final String TIMESHEET_SUBMITTED = "TIMESHEET_SUBMITTED";
     public static final String TIMESHEET_APPROVED = "TIMESHEET_APPROVED";
     public static final String TIMESHEET_REJECTED = "TIMESHEET_REJECTED";
     
+    // Time tracking notifications
+    public static final String TIMER_AUTO_STOPPED = "TIMER_AUTO_STOPPED";
+    
     // Leave notifications
     public static final String LEAVE_REQUEST_CREATED = "LEAVE_REQUEST_CREATED";
     public static final String LEAVE_REQUEST_APPROVED = "LEAVE_REQUEST_APPROVED";
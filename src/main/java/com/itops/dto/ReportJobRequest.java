@@ -0,0 +1,11 @@
+package com.itops.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class ReportJobRequest {
+    @NotBlank
+    private String reportType; // revenue, projects, time, team
+    private ReportFilterDTO filter;
+}
@@ -0,0 +1,27 @@
+package com.itops.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewTimesheetsRequest {
+    @NotEmpty(message = "Timesheet IDs are required")
+    private List<UUID> timesheetIds;
+    
+    @NotNull(message = "Status is required")
+    @Pattern(regexp = "APPROVED|REJECTED", message = "Status must be APPROVED or REJECTED")
+    private String status;
+    
+    private String rejectionReason;
+}
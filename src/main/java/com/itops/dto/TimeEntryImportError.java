@@ -0,0 +1,17 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeEntryImportError {
+    
+    private long row; // 1-based position of the entry in the upload, not counting the CSV header
+    
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.itops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeEntryImportResponse {
+    
+    private long received;
+    
+    private long imported;
+    
+    @Builder.Default
+    private List<TimeEntryImportError> errors = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+package com.itops.repository;
+
+import com.itops.domain.BillingRunClient;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BillingRunClientRepository extends JpaRepository<BillingRunClient, UUID> {
+
+    List<BillingRunClient> findByRunIdOrderByCreatedAt(UUID runId);
+
+    List<BillingRunClient> findByRunIdAndStatus(UUID runId, String status);
+
+    long countByRunIdAndStatus(UUID runId, String status);
+
+    @Query("SELECT c.clientId FROM BillingRunClient c WHERE c.runId = :runId")
+    List<UUID> findClientIdsByRunId(@Param("runId") UUID runId);
+
+    // Serializes workers on different nodes that picked up the same client
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BillingRunClient c WHERE c.id = :id")
+    Optional<BillingRunClient> findByIdForUpdate(@Param("id") UUID id);
+}
@@ -0,0 +1,49 @@
+package com.itops.repository;
+
+import com.itops.domain.BillingRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BillingRunRepository extends JpaRepository<BillingRun, UUID> {
+
+    Optional<BillingRun> findByCompanyIdAndPeriodStartAndPeriodEnd(UUID companyId, LocalDate periodStart, LocalDate periodEnd);
+
+    Optional<BillingRun> findByIdAndCompanyIdAndDeletedAtIsNull(UUID id, UUID companyId);
+
+    List<BillingRun> findTop20ByCompanyIdAndDeletedAtIsNullOrderByPeriodStartDesc(UUID companyId);
+
+    List<BillingRun> findByStatus(String status);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.clientsTotal = r.clientsTotal + :count WHERE r.id = :runId")
+    int addClients(@Param("runId") UUID runId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.clientsInvoiced = r.clientsInvoiced + 1, " +
+           "r.invoicedTotal = r.invoicedTotal + :amount WHERE r.id = :runId")
+    int recordInvoiced(@Param("runId") UUID runId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.clientsSkipped = r.clientsSkipped + 1 WHERE r.id = :runId")
+    int recordSkipped(@Param("runId") UUID runId);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.clientsFailed = r.clientsFailed + 1 WHERE r.id = :runId")
+    int recordFailed(@Param("runId") UUID runId);
+
+    @Modifying
+    @Query("UPDATE BillingRun r SET r.status = 'COMPLETED', r.completedAt = :completedAt " +
+           "WHERE r.id = :runId AND r.status = 'RUNNING'")
+    int markCompleted(@Param("runId") UUID runId, @Param("completedAt") LocalDateTime completedAt);
+}
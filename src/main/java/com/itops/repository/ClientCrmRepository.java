@@ -2,11 +2,13 @@ package com.itops.repository;
 
 import com.itops.domain.ClientCrm;
 import com.itops.domain.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,4 +22,10 @@ public interface ClientCrmRepository extends JpaRepository<ClientCrm, UUID> {
 
     @Query("SELECT c FROM ClientCrm c WHERE c.client.companyId = :companyId AND c.leadStage = :leadStage")
     List<ClientCrm> findAllByCompanyIdAndLeadStage(@Param("companyId") UUID companyId, @Param("leadStage") String leadStage);
+
+    // Keyset-paginated CRM list, newest first
+    @Query("SELECT c FROM ClientCrm c JOIN FETCH c.client WHERE c.companyId = :companyId " +
+           "AND (:cursorAt IS NULL OR c.createdAt < :cursorAt OR (c.createdAt = :cursorAt AND c.id < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClientCrm> findPage(@Param("companyId") UUID companyId, @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
 }
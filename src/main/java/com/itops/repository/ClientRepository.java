@@ -1,11 +1,15 @@
 package com.itops.repository;
 
 import com.itops.domain.Client;
+import com.itops.repository.projection.MonthlyCount;
+import com.itops.repository.projection.NamedRef;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,4 +49,16 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
        // Find all business clients (lead_stage = 'WON')
        @Query("SELECT c FROM Client c JOIN ClientCrm crm ON crm.client = c WHERE c.companyId = :companyId AND c.deletedAt IS NULL AND crm.leadStage = 'WON'")
        List<Client> findAllActiveBusinessClients(@Param("companyId") UUID companyId);
+
+       long countByCompanyIdAndDeletedAtIsNull(UUID companyId);
+
+       // Client signups per month (cohort sizes)
+       @Query("SELECT EXTRACT(YEAR FROM c.createdAt) AS year, EXTRACT(MONTH FROM c.createdAt) AS month, COUNT(c) AS count " +
+              "FROM Client c WHERE c.companyId = :companyId AND c.deletedAt IS NULL AND c.createdAt >= :fromDate " +
+              "GROUP BY EXTRACT(YEAR FROM c.createdAt), EXTRACT(MONTH FROM c.createdAt)")
+       List<MonthlyCount> countCreatedByMonth(@Param("companyId") UUID companyId, @Param("fromDate") LocalDateTime fromDate);
+
+       // Batched name lookup for report labels
+       @Query("SELECT c.id AS id, c.name AS name FROM Client c WHERE c.companyId = :companyId AND c.id IN :ids")
+       List<NamedRef> findNamesByIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
 }
@@ -1,9 +1,13 @@
 package com.itops.repository;
 
 import com.itops.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +27,12 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     
     // Methods for deletion by entity
     List<Comment> findByEntityTypeAndEntityId(Comment.EntityType entityType, UUID entityId);
+
+    // Keyset-paginated comments of an entity, oldest first
+    @Query("SELECT c FROM Comment c WHERE c.companyId = :companyId AND c.entityType = :entityType AND c.entityId = :entityId " +
+           "AND c.deletedAt IS NULL " +
+           "AND (:cursorAt IS NULL OR c.createdAt > :cursorAt OR (c.createdAt = :cursorAt AND c.id > :cursorId)) " +
+           "ORDER BY c.createdAt, c.id")
+    List<Comment> findPage(@Param("companyId") UUID companyId, @Param("entityType") Comment.EntityType entityType,
+                           @Param("entityId") UUID entityId, @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
 }
@@ -0,0 +1,62 @@
+package com.itops.repository;
+
+import com.itops.domain.CompanyUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CompanyUsageRepository extends JpaRepository<CompanyUsage, UUID> {
+
+    Optional<CompanyUsage> findByCompanyId(UUID companyId);
+
+    // Creates the company's counters from COUNT queries unless they already exist
+    @Modifying
+    @Query(value = "INSERT INTO company_usage (company_id, active_users, active_projects) " +
+           "SELECT :companyId, " +
+           "(SELECT COUNT(*) FROM users u WHERE u.company_id = :companyId AND u.is_active = TRUE AND u.deleted_at IS NULL), " +
+           "(SELECT COUNT(*) FROM projects p WHERE p.company_id = :companyId AND p.deleted_at IS NULL) " +
+           "ON CONFLICT (company_id) DO NOTHING",
+           nativeQuery = true)
+    int createIfMissing(@Param("companyId") UUID companyId);
+
+    // Takes a user slot if the company is below the limit; 0 when the limit is reached or the row is missing
+    @Modifying
+    @Query("UPDATE CompanyUsage u SET u.activeUsers = u.activeUsers + 1, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.companyId = :companyId AND u.activeUsers < :limit")
+    int reserveUser(@Param("companyId") UUID companyId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE CompanyUsage u SET u.activeProjects = u.activeProjects + 1, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.companyId = :companyId AND u.activeProjects < :limit")
+    int reserveProject(@Param("companyId") UUID companyId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE CompanyUsage u SET u.activeUsers = u.activeUsers - 1, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.companyId = :companyId AND u.activeUsers > 0")
+    int releaseUser(@Param("companyId") UUID companyId);
+
+    @Modifying
+    @Query("UPDATE CompanyUsage u SET u.activeProjects = u.activeProjects - 1, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.companyId = :companyId AND u.activeProjects > 0")
+    int releaseProject(@Param("companyId") UUID companyId);
+
+    // Resets counters that drifted from the tables and returns how many companies were corrected
+    @Modifying
+    @Query(value = "WITH actual AS (" +
+           "  SELECT cu.company_id, " +
+           "  (SELECT COUNT(*) FROM users u WHERE u.company_id = cu.company_id AND u.is_active = TRUE AND u.deleted_at IS NULL) AS users, " +
+           "  (SELECT COUNT(*) FROM projects p WHERE p.company_id = cu.company_id AND p.deleted_at IS NULL) AS projects " +
+           "  FROM company_usage cu" +
+           ") " +
+           "UPDATE company_usage cu SET active_users = a.users, active_projects = a.projects, updated_at = CURRENT_TIMESTAMP " +
+           "FROM actual a WHERE cu.company_id = a.company_id " +
+           "AND (cu.active_users <> a.users OR cu.active_projects <> a.projects)",
+           nativeQuery = true)
+    int reconcile();
+}
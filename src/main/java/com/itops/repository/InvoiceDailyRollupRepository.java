@@ -0,0 +1,84 @@
+package com.itops.repository;
+
+import com.itops.domain.InvoiceDailyRollup;
+import com.itops.repository.projection.*;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InvoiceDailyRollupRepository extends RollupRepository<InvoiceDailyRollup> {
+
+    // Partition maintenance
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM rollup_invoice_daily WHERE company_id = :companyId AND day = :day", nativeQuery = true)
+    int deletePartition(@Param("companyId") UUID companyId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_invoice_daily (company_id, day, status, client_id, project_id, invoice_count, total_amount) " +
+           "SELECT company_id, issue_date, status, client_id, project_id, COUNT(*), SUM(total) " +
+           "FROM invoices " +
+           "WHERE company_id = :companyId AND issue_date = :day AND deleted_at IS NULL " +
+           "GROUP BY company_id, issue_date, status, client_id, project_id",
+           nativeQuery = true)
+    int rebuildPartition(@Param("companyId") UUID companyId, @Param("day") LocalDate day);
+
+    @Query("SELECT r.day AS day, r.status AS status, SUM(r.invoiceCount) AS count, SUM(r.totalAmount) AS total " +
+           "FROM InvoiceDailyRollup r WHERE r.companyId = :companyId AND r.day >= :fromDate " +
+           "GROUP BY r.day, r.status")
+    List<InvoiceDayDigest> digestSince(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate);
+
+    // Analytics
+    @Query("SELECT EXTRACT(YEAR FROM r.day) AS year, EXTRACT(MONTH FROM r.day) AS month, " +
+           "SUM(r.totalAmount) AS total, SUM(r.invoiceCount) AS count FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.status = :status AND r.day >= :fromDate " +
+           "GROUP BY EXTRACT(YEAR FROM r.day), EXTRACT(MONTH FROM r.day)")
+    List<MonthlyTotal> sumTotalsByMonth(@Param("companyId") UUID companyId, @Param("status") String status, @Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.status = :status")
+    BigDecimal sumTotalByStatus(@Param("companyId") UUID companyId, @Param("status") String status);
+
+    @Query("SELECT COUNT(DISTINCT r.clientId) FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.status = :status AND r.day > :afterDate")
+    long countDistinctClientsAfter(@Param("companyId") UUID companyId, @Param("status") String status, @Param("afterDate") LocalDate afterDate);
+
+    // Revenue report (optional client/project filters)
+    @Query("SELECT r.status AS label, SUM(r.totalAmount) AS total, SUM(r.invoiceCount) AS count FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate " +
+           "AND (:clientId IS NULL OR r.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR r.projectId = :projectId) " +
+           "GROUP BY r.status")
+    List<LabeledTotal> sumByStatus(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId,
+                                   @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT r.day AS day, SUM(r.totalAmount) AS total, SUM(r.invoiceCount) AS count FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate " +
+           "AND (:clientId IS NULL OR r.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR r.projectId = :projectId) " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<DailyTotal> sumByDay(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId,
+                              @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT r.clientId AS key, SUM(r.totalAmount) AS total, SUM(r.invoiceCount) AS count FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate " +
+           "AND (:clientId IS NULL OR r.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR r.projectId = :projectId) " +
+           "GROUP BY r.clientId")
+    List<KeyedTotal> sumByClient(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId,
+                                 @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT r.projectId AS key, SUM(r.totalAmount) AS total, SUM(r.invoiceCount) AS count FROM InvoiceDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate AND r.projectId IS NOT NULL " +
+           "AND (:clientId IS NULL OR r.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR r.projectId = :projectId) " +
+           "GROUP BY r.projectId")
+    List<KeyedTotal> sumByProject(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId,
+                                  @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+}
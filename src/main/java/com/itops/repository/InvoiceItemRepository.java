@@ -1,13 +1,48 @@
 package com.itops.repository;
 
 import com.itops.domain.InvoiceItem;
+import com.itops.repository.projection.InvoiceItemTotals;
+import com.itops.repository.projection.InvoiceLineExportRow;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, UUID> {
     List<InvoiceItem> findByInvoiceId(UUID invoiceId);
+    List<InvoiceItem> findByInvoiceIdInAndDeletedAtIsNull(Collection<UUID> invoiceIds);
+
+    @Query("SELECT li.invoiceId AS invoiceId, " +
+           "SUM(CASE WHEN li.itemType = 'TIME' THEN COALESCE(li.minutes, 0) ELSE 0 END) AS totalMinutes, " +
+           "COUNT(DISTINCT li.userId) AS contributorsCount, COUNT(DISTINCT li.taskId) AS tasksCount " +
+           "FROM InvoiceItem li WHERE li.invoiceId IN :invoiceIds AND li.deletedAt IS NULL " +
+           "GROUP BY li.invoiceId")
+    List<InvoiceItemTotals> sumByInvoiceIds(@Param("invoiceIds") Collection<UUID> invoiceIds);
+
+    // Cursor over the invoice lines of a revenue export; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i.id AS invoiceId, i.invoiceNumber AS invoiceNumber, i.issueDate AS issueDate, i.dueDate AS dueDate, " +
+           "i.status AS status, c.name AS clientName, p.name AS projectName, i.currencyCode AS currencyCode, " +
+           "li.description AS description, li.itemType AS itemType, li.quantity AS quantity, " +
+           "li.unitPrice AS unitPrice, li.amount AS amount " +
+           "FROM InvoiceItem li JOIN Invoice i ON i.id = li.invoiceId " +
+           "LEFT JOIN Client c ON c.id = i.clientId LEFT JOIN Project p ON p.id = i.projectId " +
+           "WHERE i.companyId = :companyId AND i.deletedAt IS NULL AND li.deletedAt IS NULL " +
+           "AND i.issueDate >= :fromDate AND i.issueDate <= :toDate " +
+           "AND (:clientId IS NULL OR i.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR i.projectId = :projectId) " +
+           "ORDER BY i.issueDate, i.id, li.id")
+    Stream<InvoiceLineExportRow> streamForExport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                                 @Param("clientId") UUID clientId, @Param("projectId") UUID projectId);
 }
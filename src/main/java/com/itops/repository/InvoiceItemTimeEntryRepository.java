@@ -0,0 +1,22 @@
+package com.itops.repository;
+
+import com.itops.domain.InvoiceItemTimeEntry;
+import com.itops.repository.projection.KeyedCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InvoiceItemTimeEntryRepository extends JpaRepository<InvoiceItemTimeEntry, UUID> {
+    List<InvoiceItemTimeEntry> findByInvoiceItemIdIn(Collection<UUID> invoiceItemIds);
+
+    @Query("SELECT li.invoiceId AS key, COUNT(l) AS count FROM InvoiceItemTimeEntry l, InvoiceItem li " +
+           "WHERE li.id = l.invoiceItemId AND li.invoiceId IN :invoiceIds AND li.deletedAt IS NULL " +
+           "GROUP BY li.invoiceId")
+    List<KeyedCount> countByInvoiceIds(@Param("invoiceIds") Collection<UUID> invoiceIds);
+}
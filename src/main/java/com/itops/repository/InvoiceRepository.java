@@ -1,12 +1,21 @@
 package com.itops.repository;
 
 import com.itops.domain.Invoice;
+import com.itops.repository.projection.InvoiceDayDigest;
+import com.itops.repository.projection.LabeledTotal;
+import com.itops.repository.projection.MonthlyTotal;
+import com.itops.repository.projection.OverdueInvoiceRef;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,12 +27,84 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     Optional<Invoice> findByIdAndCompanyIdAndDeletedAtIsNull(UUID id, UUID companyId);
     Optional<Invoice> findByInvoiceNumberAndCompanyId(String invoiceNumber, UUID companyId);
     boolean existsByInvoiceNumberAndCompanyId(String invoiceNumber, UUID companyId);
+
+    // Reserves the next block of invoice numbers for a company and returns the end of the block
+    // (exclusive). Runs in its own transaction so the counter row is not locked for the caller's.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO invoice_number_counters (company_id, next_value) VALUES (:companyId, 1 + :blockSize) " +
+           "ON CONFLICT (company_id) DO UPDATE SET next_value = invoice_number_counters.next_value + :blockSize, " +
+           "updated_at = CURRENT_TIMESTAMP " +
+           "RETURNING next_value",
+           nativeQuery = true)
+    long reserveInvoiceNumbers(@Param("companyId") UUID companyId, @Param("blockSize") int blockSize);
+    
+    // Aggregates for analytics (tenant-scoped, excluding soft deleted)
+    @Query("SELECT EXTRACT(YEAR FROM i.issueDate) AS year, EXTRACT(MONTH FROM i.issueDate) AS month, " +
+           "SUM(i.total) AS total, COUNT(i) AS count FROM Invoice i " +
+           "WHERE i.companyId = :companyId AND i.status = :status AND i.deletedAt IS NULL " +
+           "AND i.issueDate >= :fromDate " +
+           "GROUP BY EXTRACT(YEAR FROM i.issueDate), EXTRACT(MONTH FROM i.issueDate)")
+    List<MonthlyTotal> sumTotalsByMonth(@Param("companyId") UUID companyId, @Param("status") String status, @Param("fromDate") LocalDate fromDate);
+    
+    @Query("SELECT COALESCE(SUM(i.total), 0) FROM Invoice i " +
+           "WHERE i.companyId = :companyId AND i.status = :status AND i.deletedAt IS NULL")
+    BigDecimal sumTotalByStatus(@Param("companyId") UUID companyId, @Param("status") String status);
+    
+    @Query("SELECT COUNT(DISTINCT i.clientId) FROM Invoice i " +
+           "WHERE i.companyId = :companyId AND i.status = :status AND i.deletedAt IS NULL " +
+           "AND i.issueDate > :afterDate")
+    long countDistinctClientsInvoicedAfter(@Param("companyId") UUID companyId, @Param("status") String status, @Param("afterDate") LocalDate afterDate);
     
+    @Query(value = "SELECT CASE WHEN i.total > 100000 THEN 'High Value' " +
+           "WHEN i.total > 50000 THEN 'Medium Value' ELSE 'Standard' END AS label, " +
+           "SUM(i.total) AS total, COUNT(*) AS count " +
+           "FROM invoices i " +
+           "WHERE i.company_id = :companyId AND i.status = :status AND i.deleted_at IS NULL " +
+           "GROUP BY 1",
+           nativeQuery = true)
+    List<LabeledTotal> sumTotalsByValueSegment(@Param("companyId") UUID companyId, @Param("status") String status);
+    
+    // Source-side checksum for rollup reconciliation
+    @Query("SELECT i.issueDate AS day, i.status AS status, COUNT(i) AS count, SUM(i.total) AS total FROM Invoice i " +
+           "WHERE i.companyId = :companyId AND i.deletedAt IS NULL AND i.issueDate >= :fromDate " +
+           "GROUP BY i.issueDate, i.status")
+    List<InvoiceDayDigest> digestSince(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate);
+
+    // Keyset-paginated invoice list, newest first. overdueBefore selects OVERDUE invoices and SENT invoices
+    // due before that date which the sweeper has not reached yet.
     @Query("SELECT i FROM Invoice i WHERE i.companyId = :companyId AND i.deletedAt IS NULL " +
-           "AND (COALESCE(:clientId, i.clientId) = i.clientId) " +
-           "AND (COALESCE(:projectId, i.projectId) = i.projectId) " +
+           "AND (:clientId IS NULL OR i.clientId = :clientId) " +
+           "AND (:projectId IS NULL OR i.projectId = :projectId) " +
            "AND (:status IS NULL OR i.status = :status) " +
-           "AND (COALESCE(:fromDate, i.issueDate) <= i.issueDate) " +
-           "AND (COALESCE(:toDate, i.issueDate) >= i.issueDate)")
-    List<Invoice> findFilteredInvoices(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId, @Param("status") String status, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
-}
\ No newline at end of file
+           "AND (:fromDate IS NULL OR i.issueDate >= :fromDate) AND (:toDate IS NULL OR i.issueDate <= :toDate) " +
+           "AND (:overdueBefore IS NULL OR i.status = 'OVERDUE' OR (i.status = 'SENT' AND i.dueDate < :overdueBefore)) " +
+           "AND (:cursorAt IS NULL OR i.createdAt < :cursorAt OR (i.createdAt = :cursorAt AND i.id < :cursorId)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findPage(@Param("companyId") UUID companyId, @Param("clientId") UUID clientId, @Param("projectId") UUID projectId,
+                           @Param("status") String status, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                           @Param("overdueBefore") LocalDate overdueBefore, @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
+    // Companies with SENT invoices past their due date, read from the partial index on (company_id, due_date)
+    @Query("SELECT DISTINCT i.companyId FROM Invoice i WHERE i.status = 'SENT' AND i.deletedAt IS NULL AND i.dueDate < :today")
+    List<UUID> findCompanyIdsWithOverdueInvoices(@Param("today") LocalDate today);
+
+    // Moves up to batchSize of the company's SENT invoices due before :today to OVERDUE and
+    // records the transitions, in one statement. Rows locked by a concurrent sweep are skipped.
+    @Query(value = "WITH due AS (" +
+           "  SELECT id FROM invoices " +
+           "  WHERE company_id = :companyId AND status = 'SENT' AND deleted_at IS NULL AND due_date < :today " +
+           "  ORDER BY due_date LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+           "), moved AS (" +
+           "  UPDATE invoices i SET status = 'OVERDUE', updated_at = CURRENT_TIMESTAMP " +
+           "  FROM due WHERE i.id = due.id " +
+           "  RETURNING i.id, i.company_id, i.invoice_number, i.created_by, i.issue_date" +
+           "), logged AS (" +
+           "  INSERT INTO invoice_status_transitions (company_id, invoice_id, from_status, to_status) " +
+           "  SELECT company_id, id, 'SENT', 'OVERDUE' FROM moved" +
+           ") " +
+           "SELECT id AS \"invoiceId\", invoice_number AS \"invoiceNumber\", created_by AS \"createdBy\", " +
+           "issue_date AS \"issueDate\" FROM moved",
+           nativeQuery = true)
+    List<OverdueInvoiceRef> markOverdue(@Param("companyId") UUID companyId, @Param("today") LocalDate today,
+                                        @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,14 @@
+package com.itops.repository;
+
+import com.itops.domain.InvoiceStatusTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InvoiceStatusTransitionRepository extends JpaRepository<InvoiceStatusTransition, UUID> {
+
+    List<InvoiceStatusTransition> findByInvoiceIdOrderByCreatedAt(UUID invoiceId);
+}
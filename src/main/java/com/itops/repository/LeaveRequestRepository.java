@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,4 +37,7 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, UUID
     // Find approved leave requests for a user in date range
     @Query("SELECT l FROM LeaveRequest l WHERE l.userId = :userId AND l.status = 'APPROVED' AND l.startDate <= :toDate AND l.endDate >= :fromDate AND l.deletedAt IS NULL")
     List<LeaveRequest> findApprovedLeaveByUserAndDateRange(@Param("userId") UUID userId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+    
+    // Count leave requests in a status for a set of users
+    long countByCompanyIdAndStatusAndUserIdInAndDeletedAtIsNull(UUID companyId, String status, Collection<UUID> userIds);
 }
@@ -1,12 +1,14 @@
 package com.itops.repository;
 
 import com.itops.domain.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -42,4 +44,10 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Modifying
     @Query("UPDATE Notification n SET n.deletedAt = CURRENT_TIMESTAMP WHERE n.user.id = :userId AND n.isRead = true AND n.createdAt < :beforeDate")
     int deleteOldReadNotifications(@Param("userId") UUID userId, @Param("beforeDate") java.time.LocalDateTime beforeDate);
+    
+    // Keyset-paginated notifications of a user, newest first
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.deletedAt IS NULL " +
+           "AND (:cursorAt IS NULL OR n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPage(@Param("userId") UUID userId, @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
 }
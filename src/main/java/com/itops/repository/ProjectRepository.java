@@ -1,9 +1,17 @@
 package com.itops.repository;
 
 import com.itops.domain.Project;
+import com.itops.repository.projection.NamedRef;
+import com.itops.repository.projection.StatusCount;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +21,55 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
     List<Project> findByClientIdAndCompanyId(UUID clientId, UUID companyId);
     List<Project> findByClientIdAndCompanyIdAndDeletedAtIsNull(UUID clientId, UUID companyId);
     List<Project> findByCompanyIdAndDeletedAtIsNull(UUID companyId);
+    long countByCompanyIdAndDeletedAtIsNull(UUID companyId);
+    
+    @Query("SELECT p.status AS status, COUNT(p) AS count FROM Project p " +
+           "WHERE p.companyId = :companyId AND p.deletedAt IS NULL GROUP BY p.status")
+    List<StatusCount> countByStatus(@Param("companyId") UUID companyId);
+
+    // Batched name lookup for report labels
+    @Query("SELECT p.id AS id, p.name AS name FROM Project p WHERE p.companyId = :companyId AND p.id IN :ids")
+    List<NamedRef> findNamesByIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Which of the ids are live projects of the company, for set-based validation
+    @Query("SELECT p.id FROM Project p WHERE p.companyId = :companyId AND p.deletedAt IS NULL AND p.id IN :ids")
+    List<UUID> findActiveIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Dashboard: with a memberId only the projects that user is a member of are considered
+    @Query("SELECT p.status AS status, COUNT(p) AS count FROM Project p " +
+           "WHERE p.companyId = :companyId AND p.deletedAt IS NULL " +
+           "AND (:memberId IS NULL OR EXISTS (SELECT 1 FROM ProjectMember pm " +
+           "WHERE pm.project.id = p.id AND pm.user.id = :memberId AND pm.deletedAt IS NULL)) " +
+           "GROUP BY p.status")
+    List<StatusCount> countByStatusForMember(@Param("companyId") UUID companyId, @Param("memberId") UUID memberId);
+
+    @Query("SELECT p FROM Project p WHERE p.companyId = :companyId AND p.deletedAt IS NULL AND p.createdAt IS NOT NULL " +
+           "AND (:memberId IS NULL OR EXISTS (SELECT 1 FROM ProjectMember pm " +
+           "WHERE pm.project.id = p.id AND pm.user.id = :memberId AND pm.deletedAt IS NULL)) " +
+           "ORDER BY p.createdAt DESC")
+    List<Project> findRecentForMember(@Param("companyId") UUID companyId, @Param("memberId") UUID memberId, Pageable pageable);
+
+    @Query("SELECT p FROM Project p WHERE p.companyId = :companyId AND p.deletedAt IS NULL AND p.endDate >= :fromDate " +
+           "AND (:memberId IS NULL OR EXISTS (SELECT 1 FROM ProjectMember pm " +
+           "WHERE pm.project.id = p.id AND pm.user.id = :memberId AND pm.deletedAt IS NULL)) " +
+           "ORDER BY p.endDate")
+    List<Project> findEndingFromForMember(@Param("companyId") UUID companyId, @Param("memberId") UUID memberId,
+                                         @Param("fromDate") LocalDate fromDate, Pageable pageable);
+
+    // Keyset-paginated project list, newest first. With restricted = true only projects owned by the
+    // user, their manager or their team, unowned projects and projects with a phase for the team are returned.
+    @Query("SELECT p FROM Project p WHERE p.companyId = :companyId AND p.deletedAt IS NULL " +
+           "AND (:restricted = false OR p.projectOwnerId IS NULL OR p.projectOwnerId = :userId OR p.projectOwnerId = :managerId " +
+           "OR p.projectOwnerId IN (SELECT u.id FROM User u WHERE u.teamId = :teamId) " +
+           "OR EXISTS (SELECT 1 FROM ProjectPhase ph WHERE ph.projectId = p.id AND ph.teamId = :teamId AND ph.deletedAt IS NULL)) " +
+           "AND (:status IS NULL OR UPPER(p.status) = UPPER(:status)) " +
+           "AND (:priority IS NULL OR UPPER(p.priority) = UPPER(:priority)) " +
+           "AND (:clientId IS NULL OR p.clientId = :clientId) " +
+           "AND (:search IS NULL OR LOWER(p.name) LIKE :search ESCAPE '!' OR LOWER(p.description) LIKE :search ESCAPE '!') " +
+           "AND (:cursorAt IS NULL OR p.createdAt < :cursorAt OR (p.createdAt = :cursorAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findPage(@Param("companyId") UUID companyId, @Param("restricted") boolean restricted, @Param("userId") UUID userId,
+                           @Param("managerId") UUID managerId, @Param("teamId") UUID teamId, @Param("status") String status,
+                           @Param("priority") String priority, @Param("clientId") UUID clientId, @Param("search") String search,
+                           @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
 }
@@ -0,0 +1,46 @@
+package com.itops.repository;
+
+import com.itops.domain.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    Optional<ReportJob> findByIdAndCompanyIdAndRequestedByAndDeletedAtIsNull(UUID id, UUID companyId, UUID requestedBy);
+
+    List<ReportJob> findTop20ByCompanyIdAndRequestedByAndDeletedAtIsNullOrderByCreatedAtDesc(UUID companyId, UUID requestedBy);
+
+    long countByCompanyIdAndStatusIn(UUID companyId, Collection<String> statuses);
+
+    // Marks the jobs held by this instance as alive
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.status IN ('QUEUED', 'RUNNING')")
+    int touchHeartbeat(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    // Fails queued or running jobs whose holder stopped refreshing their heartbeat before :cutoff
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = 'FAILED', j.errorMessage = :message, j.completedAt = :now, " +
+           "j.expiresAt = :expiresAt, j.updatedAt = :now " +
+           "WHERE j.status IN ('QUEUED', 'RUNNING') AND COALESCE(j.heartbeatAt, j.createdAt) < :cutoff")
+    int failStale(@Param("cutoff") LocalDateTime cutoff, @Param("message") String message,
+                  @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<ReportJob> findByExpiresAtBefore(LocalDateTime cutoff);
+
+    // Serializes the per-tenant concurrency check with the insert that follows it
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:lockKey))", nativeQuery = true)
+    Integer lockCompany(@Param("lockKey") String lockKey);
+}
@@ -0,0 +1,16 @@
+package com.itops.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+@NoRepositoryBean
+public interface RollupRepository<T> extends JpaRepository<T, UUID> {
+
+    // Serializes rebuilds of the same partition; released when the transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:partitionKey))", nativeQuery = true)
+    Integer lockPartition(@Param("partitionKey") String partitionKey);
+}
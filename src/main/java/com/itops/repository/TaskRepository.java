@@ -1,9 +1,18 @@
 package com.itops.repository;
 
 import com.itops.domain.Task;
+import com.itops.repository.projection.NamedRef;
+import com.itops.repository.projection.TaskProjectRef;
+import com.itops.repository.projection.TaskProjectDigest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +23,41 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     List<Task> findByProjectIdAndPhaseId(UUID projectId, UUID phaseId);
     List<Task> findByPhaseId(UUID phaseId);
     List<Task> findByProjectIdAndDeletedAtIsNull(UUID projectId);
+    
+    // Source-side checksum for rollup reconciliation
+    @Query("SELECT t.projectId AS projectId, t.assignedTo AS assignedTo, t.status AS status, COUNT(t) AS count " +
+           "FROM Task t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "GROUP BY t.projectId, t.assignedTo, t.status")
+    List<TaskProjectDigest> digest(@Param("companyId") UUID companyId);
+
+    // Batched title lookup for report labels
+    @Query("SELECT t.id AS id, t.title AS name FROM Task t WHERE t.companyId = :companyId AND t.id IN :ids")
+    List<NamedRef> findTitlesByIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Project of each live task among the ids, for set-based validation
+    @Query("SELECT t.id AS id, t.projectId AS projectId FROM Task t WHERE t.companyId = :companyId AND t.deletedAt IS NULL AND t.id IN :ids")
+    List<TaskProjectRef> findActiveProjectRefs(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Dashboard: with an assigneeId only tasks assigned to that user are considered
+    @Query("SELECT t FROM Task t WHERE t.companyId = :companyId AND t.deletedAt IS NULL AND t.createdAt IS NOT NULL " +
+           "AND (:assigneeId IS NULL OR t.assignedTo = :assigneeId) ORDER BY t.createdAt DESC")
+    List<Task> findRecentForAssignee(@Param("companyId") UUID companyId, @Param("assigneeId") UUID assigneeId, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.companyId = :companyId AND t.deletedAt IS NULL AND t.dueDate >= :fromDate " +
+           "AND (:assigneeId IS NULL OR t.assignedTo = :assigneeId) ORDER BY t.dueDate")
+    List<Task> findDueFromForAssignee(@Param("companyId") UUID companyId, @Param("assigneeId") UUID assigneeId,
+                                      @Param("fromDate") LocalDate fromDate, Pageable pageable);
+
+    // Keyset-paginated task list, newest first
+    @Query("SELECT t FROM Task t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:phaseId IS NULL OR t.phaseId = :phaseId) " +
+           "AND (:teamId IS NULL OR t.teamId = :teamId) " +
+           "AND (:assignedTo IS NULL OR t.assignedTo = :assignedTo) " +
+           "AND (:teamCreatorId IS NULL OR t.teamId IN (SELECT tm.id FROM Team tm WHERE tm.createdByUserId = :teamCreatorId)) " +
+           "AND (:cursorAt IS NULL OR t.createdAt < :cursorAt OR (t.createdAt = :cursorAt AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPage(@Param("companyId") UUID companyId, @Param("projectId") UUID projectId, @Param("phaseId") UUID phaseId,
+                        @Param("teamId") UUID teamId, @Param("assignedTo") UUID assignedTo, @Param("teamCreatorId") UUID teamCreatorId,
+                        @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
 }
@@ -0,0 +1,52 @@
+package com.itops.repository;
+
+import com.itops.domain.TaskStatusRollup;
+import com.itops.repository.projection.KeyedStatusCount;
+import com.itops.repository.projection.StatusCount;
+import com.itops.repository.projection.TaskProjectDigest;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskStatusRollupRepository extends RollupRepository<TaskStatusRollup> {
+
+    // Partition maintenance
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM rollup_task_status WHERE company_id = :companyId AND project_id = :projectId", nativeQuery = true)
+    int deletePartition(@Param("companyId") UUID companyId, @Param("projectId") UUID projectId);
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_task_status (company_id, project_id, assigned_to, status, task_count) " +
+           "SELECT company_id, project_id, assigned_to, status, COUNT(*) " +
+           "FROM tasks " +
+           "WHERE company_id = :companyId AND project_id = :projectId AND deleted_at IS NULL " +
+           "GROUP BY company_id, project_id, assigned_to, status",
+           nativeQuery = true)
+    int rebuildPartition(@Param("companyId") UUID companyId, @Param("projectId") UUID projectId);
+
+    @Query("SELECT r.projectId AS projectId, r.assignedTo AS assignedTo, r.status AS status, SUM(r.taskCount) AS count " +
+           "FROM TaskStatusRollup r WHERE r.companyId = :companyId " +
+           "GROUP BY r.projectId, r.assignedTo, r.status")
+    List<TaskProjectDigest> digest(@Param("companyId") UUID companyId);
+
+    // Task counts by status, optionally for a single assignee
+    @Query("SELECT r.status AS status, SUM(r.taskCount) AS count FROM TaskStatusRollup r " +
+           "WHERE r.companyId = :companyId AND (:assignedTo IS NULL OR r.assignedTo = :assignedTo) " +
+           "GROUP BY r.status")
+    List<StatusCount> countByStatus(@Param("companyId") UUID companyId, @Param("assignedTo") UUID assignedTo);
+
+    // Task counts per project and status, for project reports
+    @Query("SELECT r.projectId AS key, r.status AS status, SUM(r.taskCount) AS count FROM TaskStatusRollup r " +
+           "WHERE r.companyId = :companyId GROUP BY r.projectId, r.status")
+    List<KeyedStatusCount> countByProjectAndStatus(@Param("companyId") UUID companyId);
+
+    // Task counts per assignee and status, for team reports
+    @Query("SELECT r.assignedTo AS key, r.status AS status, SUM(r.taskCount) AS count FROM TaskStatusRollup r " +
+           "WHERE r.companyId = :companyId AND r.assignedTo IS NOT NULL GROUP BY r.assignedTo, r.status")
+    List<KeyedStatusCount> countByAssigneeAndStatus(@Param("companyId") UUID companyId);
+}
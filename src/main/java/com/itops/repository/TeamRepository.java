@@ -1,7 +1,10 @@
 package com.itops.repository;
 
 import com.itops.domain.Team;
+import com.itops.repository.projection.OrgTeamRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,8 @@ public interface TeamRepository extends JpaRepository<Team, UUID> {
     List<Team> findByCompanyId(UUID companyId);
     List<Team> findByCreatedByUserId(UUID createdByUserId);
     List<Team> findByCreatedByUserIdAndDeletedAtIsNull(UUID createdByUserId);
+
+    @Query("SELECT t.id AS id, t.createdByUserId AS createdByUserId FROM Team t " +
+           "WHERE t.companyId = :companyId AND t.deletedAt IS NULL")
+    List<OrgTeamRef> findOrgRefs(@Param("companyId") UUID companyId);
 }
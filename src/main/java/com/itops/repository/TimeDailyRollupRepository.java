@@ -0,0 +1,83 @@
+package com.itops.repository;
+
+import com.itops.domain.TimeDailyRollup;
+import com.itops.repository.projection.KeyedMinuteTotals;
+import com.itops.repository.projection.MinuteTotals;
+import com.itops.repository.projection.ProjectMinuteTotals;
+import com.itops.repository.projection.TimeDayDigest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TimeDailyRollupRepository extends RollupRepository<TimeDailyRollup> {
+
+    // Partition maintenance
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM rollup_time_daily WHERE company_id = :companyId AND day = :day", nativeQuery = true)
+    int deletePartition(@Param("companyId") UUID companyId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_time_daily (company_id, day, user_id, project_id, entry_count, billable_minutes, non_billable_minutes) " +
+           "SELECT company_id, date, user_id, project_id, COUNT(*), " +
+           "SUM(CASE WHEN is_billable THEN hours * 60 ELSE 0 END), " +
+           "SUM(CASE WHEN is_billable THEN 0 ELSE hours * 60 END) " +
+           "FROM time_entries " +
+           "WHERE company_id = :companyId AND date = :day AND deleted_at IS NULL " +
+           "GROUP BY company_id, date, user_id, project_id",
+           nativeQuery = true)
+    int rebuildPartition(@Param("companyId") UUID companyId, @Param("day") LocalDate day);
+
+    @Query("SELECT r.day AS day, r.userId AS userId, r.projectId AS projectId, SUM(r.entryCount) AS count, " +
+           "SUM(r.billableMinutes) AS billableMinutes, SUM(r.nonBillableMinutes) AS nonBillableMinutes " +
+           "FROM TimeDailyRollup r WHERE r.companyId = :companyId AND r.day >= :fromDate " +
+           "GROUP BY r.day, r.userId, r.projectId")
+    List<TimeDayDigest> digestSince(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate);
+
+    // Totals over a day range, optionally for a single user
+    @Query("SELECT COALESCE(SUM(r.entryCount), 0) AS entryCount, COALESCE(SUM(r.billableMinutes), 0) AS billableMinutes, " +
+           "COALESCE(SUM(r.nonBillableMinutes), 0) AS nonBillableMinutes FROM TimeDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate " +
+           "AND (:userId IS NULL OR r.userId = :userId)")
+    MinuteTotals sumTotals(@Param("companyId") UUID companyId, @Param("userId") UUID userId,
+                           @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT COALESCE(SUM(r.entryCount), 0) AS entryCount, COALESCE(SUM(r.billableMinutes), 0) AS billableMinutes, " +
+           "COALESCE(SUM(r.nonBillableMinutes), 0) AS nonBillableMinutes FROM TimeDailyRollup r " +
+           "WHERE r.companyId = :companyId AND (:userId IS NULL OR r.userId = :userId)")
+    MinuteTotals sumAllTime(@Param("companyId") UUID companyId, @Param("userId") UUID userId);
+
+    @Query("SELECT r.projectId AS key, SUM(r.entryCount) AS entryCount, SUM(r.billableMinutes) AS billableMinutes, " +
+           "SUM(r.nonBillableMinutes) AS nonBillableMinutes FROM TimeDailyRollup r " +
+           "WHERE r.companyId = :companyId GROUP BY r.projectId")
+    List<KeyedMinuteTotals> sumByProject(@Param("companyId") UUID companyId);
+
+    @Query("SELECT r.userId AS key, SUM(r.entryCount) AS entryCount, SUM(r.billableMinutes) AS billableMinutes, " +
+           "SUM(r.nonBillableMinutes) AS nonBillableMinutes FROM TimeDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate GROUP BY r.userId")
+    List<KeyedMinuteTotals> sumByUser(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT COUNT(DISTINCT r.userId) FROM TimeDailyRollup r " +
+           "WHERE r.companyId = :companyId AND r.day >= :fromDate AND r.day <= :toDate " +
+           "AND (:userId IS NULL OR r.userId = :userId)")
+    long countActiveUsers(@Param("companyId") UUID companyId, @Param("userId") UUID userId,
+                          @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // Projects ordered by logged time; with a memberId only that user's projects are considered
+    @Query("SELECT p.id AS projectId, p.name AS name, p.status AS status, SUM(r.entryCount) AS entryCount, " +
+           "SUM(r.billableMinutes) AS billableMinutes, SUM(r.nonBillableMinutes) AS nonBillableMinutes " +
+           "FROM TimeDailyRollup r JOIN Project p ON p.id = r.projectId " +
+           "WHERE r.companyId = :companyId AND p.deletedAt IS NULL " +
+           "AND (:memberId IS NULL OR EXISTS (SELECT 1 FROM ProjectMember pm " +
+           "WHERE pm.project.id = p.id AND pm.user.id = :memberId AND pm.deletedAt IS NULL)) " +
+           "GROUP BY p.id, p.name, p.status " +
+           "HAVING SUM(r.billableMinutes + r.nonBillableMinutes) > 0 " +
+           "ORDER BY SUM(r.billableMinutes + r.nonBillableMinutes) DESC")
+    List<ProjectMinuteTotals> sumTopProjects(@Param("companyId") UUID companyId, @Param("memberId") UUID memberId, Pageable pageable);
+}
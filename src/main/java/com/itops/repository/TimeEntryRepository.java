@@ -1,27 +1,92 @@
 package com.itops.repository;
 
 import com.itops.domain.TimeEntry;
+import com.itops.repository.projection.ActiveTimerRef;
+import com.itops.repository.projection.DatedMinuteTotals;
+import com.itops.repository.projection.EntryVersion;
+import com.itops.repository.projection.KeyedMinuteTotals;
+import com.itops.repository.projection.MinuteTotals;
+import com.itops.repository.projection.StoppedTimerRef;
+import com.itops.repository.projection.TimeDayDigest;
+import com.itops.repository.projection.TimeEntryExportRow;
+import com.itops.repository.projection.UserDatedMinuteTotals;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface TimeEntryRepository extends JpaRepository<TimeEntry, UUID> {      
+public interface TimeEntryRepository extends JpaRepository<TimeEntry, UUID>, TimeEntrySearchRepository {      
     List<TimeEntry> findByCompanyId(UUID companyId);
     
     Optional<TimeEntry> findByUserIdAndIsActiveTrue(UUID userId);
+
+    // Running timers of the company, read from the partial unique index on active timers
+    @Query("SELECT t.id AS timeEntryId, t.userId AS userId, u.name AS userName, t.projectId AS projectId, " +
+           "p.name AS projectName, t.taskId AS taskId, k.title AS taskName, t.startTime AS startTime " +
+           "FROM TimeEntry t LEFT JOIN User u ON u.id = t.userId LEFT JOIN Project p ON p.id = t.projectId " +
+           "LEFT JOIN Task k ON k.id = t.taskId " +
+           "WHERE t.companyId = :companyId AND t.isActive = true AND t.deletedAt IS NULL " +
+           "ORDER BY t.startTime")
+    List<ActiveTimerRef> findActiveTimers(@Param("companyId") UUID companyId);
+
+    // Stops the user's running timer and stores its rounded hours in one statement. Empty when
+    // the user had no running timer, including when a concurrent stop got there first.
+    @Query(value = "UPDATE time_entries SET is_active = FALSE, end_time = :now, updated_at = :now, " +
+           "hours = CASE " +
+           "  WHEN start_time IS NULL THEN hours " +
+           "  WHEN CAST(:now AS timestamp) - start_time < INTERVAL '1 minute' THEN 0 " +
+           "  ELSE GREATEST(1, ROUND(FLOOR(EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - start_time)) / 60) / 60.0)) " +
+           "END " +
+           "WHERE user_id = :userId AND company_id = :companyId AND is_active = TRUE AND deleted_at IS NULL " +
+           "RETURNING *",
+           nativeQuery = true)
+    Optional<TimeEntry> stopActiveTimer(@Param("userId") UUID userId, @Param("companyId") UUID companyId,
+                                        @Param("now") LocalDateTime now);
+
+    // Stops up to batchSize timers started before :cutoff, ending each at start + maxHours.
+    // Rows locked by a concurrent stop or sweep are skipped.
+    @Query(value = "WITH stale AS (" +
+           "  SELECT id FROM time_entries " +
+           "  WHERE is_active = TRUE AND deleted_at IS NULL AND start_time < :cutoff " +
+           "  ORDER BY start_time LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+           ") " +
+           "UPDATE time_entries t SET is_active = FALSE, end_time = t.start_time + make_interval(hours => :maxHours), " +
+           "hours = :maxHours, updated_at = CURRENT_TIMESTAMP " +
+           "FROM stale WHERE t.id = stale.id " +
+           "RETURNING t.id AS \"timeEntryId\", t.company_id AS \"companyId\", t.user_id AS \"userId\", t.date AS \"date\"",
+           nativeQuery = true)
+    List<StoppedTimerRef> stopStaleTimers(@Param("cutoff") LocalDateTime cutoff, @Param("maxHours") int maxHours,
+                                          @Param("batchSize") int batchSize);
     
     // Find time entries by user and date range
     @Query("SELECT t FROM TimeEntry t WHERE t.userId = :userId AND t.date >= :startDate AND t.date <= :endDate AND t.deletedAt IS NULL")
     List<TimeEntry> findByUserIdAndDateRange(@Param("userId") UUID userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    // Per-user, per-day minutes for timesheet totals and daily breakdowns
+    @Query("SELECT t.userId AS userId, t.date AS day, COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.userId IN :userIds AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate AND t.hours > 0 " +
+           "GROUP BY t.userId, t.date")
+    List<UserDatedMinuteTotals> sumByUserAndDate(@Param("companyId") UUID companyId, @Param("userIds") Collection<UUID> userIds,
+                                                 @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+    
     // Find time entries by project
     @Query("SELECT t FROM TimeEntry t WHERE t.projectId = :projectId AND t.deletedAt IS NULL")
     List<TimeEntry> findByProjectId(@Param("projectId") UUID projectId);
@@ -54,10 +119,42 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, UUID> {
         @Param("billableOnly") Boolean billableOnly
     );
     
+    // Clients with unbilled entries from APPROVED timesheets in the period (for bulk invoice generation)
+    @Query(value = "SELECT DISTINCT p.client_id FROM time_entries t " +
+           "JOIN projects p ON p.id = t.project_id " +
+           "JOIN clients c ON c.id = p.client_id AND c.deleted_at IS NULL " +
+           "WHERE t.company_id = :companyId " +
+           "AND t.date >= :fromDate " +
+           "AND t.date <= :toDate " +
+           "AND t.invoice_id IS NULL " +
+           "AND (:billableOnly = false OR t.is_billable = true) " +
+           "AND t.deleted_at IS NULL " +
+           "AND EXISTS (" +
+           "  SELECT 1 FROM timesheets ts " +
+           "  WHERE ts.company_id = t.company_id " +
+           "  AND ts.user_id = t.user_id " +
+           "  AND t.date >= ts.week_start " +
+           "  AND t.date < ts.week_start + INTERVAL '7 days' " +
+           "  AND ts.status = 'APPROVED' " +
+           "  AND ts.deleted_at IS NULL" +
+           ")",
+           nativeQuery = true)
+    List<UUID> findClientIdsWithUnbilledEntries(
+        @Param("companyId") UUID companyId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("billableOnly") Boolean billableOnly
+    );
+    
+    // Last modification time of the entries among the ids that are still live and unbilled
+    @Query("SELECT t.id AS id, t.updatedAt AS updatedAt FROM TimeEntry t " +
+           "WHERE t.id IN :entryIds AND t.invoiceId IS NULL AND t.deletedAt IS NULL")
+    List<EntryVersion> findUnbilledVersions(@Param("entryIds") Collection<UUID> entryIds);
+    
     // Update invoice ID for multiple entries (for bulk billing)
     @Modifying
     @Query("UPDATE TimeEntry t SET t.invoiceId = :invoiceId, t.billedAt = :billedAt " +
-           "WHERE t.id IN :entryIds AND t.invoiceId IS NULL")
+           "WHERE t.id IN :entryIds AND t.invoiceId IS NULL AND t.deletedAt IS NULL")
     int updateInvoiceIdForEntries(
         @Param("entryIds") List<UUID> entryIds,
         @Param("invoiceId") UUID invoiceId,
@@ -65,4 +162,88 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntry, UUID> {
     );
     
     List<TimeEntry> findByCompanyIdAndDeletedAtIsNull(UUID companyId);
+    
+    long countByCompanyIdAndDeletedAtIsNull(UUID companyId);
+    
+    @Query("SELECT COALESCE(SUM(t.hours), 0) FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL")
+    long sumHoursByCompanyId(@Param("companyId") UUID companyId);
+    
+    // Source-side checksum for rollup reconciliation
+    @Query("SELECT t.date AS day, t.userId AS userId, t.projectId AS projectId, COUNT(t) AS count, " +
+           "SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END) AS billableMinutes, " +
+           "SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL AND t.date >= :fromDate " +
+           "GROUP BY t.date, t.userId, t.projectId")
+    List<TimeDayDigest> digestSince(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate);
+
+    // Time report aggregates: date range plus optional project/user filters
+    @Query("SELECT COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId)")
+    MinuteTotals summarizeForReport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                    @Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    @Query("SELECT t.date AS day, COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "GROUP BY t.date ORDER BY t.date")
+    List<DatedMinuteTotals> sumByDateForReport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                               @Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    @Query("SELECT t.userId AS key, COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "GROUP BY t.userId")
+    List<KeyedMinuteTotals> sumByUserForReport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                               @Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    @Query("SELECT t.projectId AS key, COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "GROUP BY t.projectId")
+    List<KeyedMinuteTotals> sumByProjectForReport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                                  @Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    @Query("SELECT t.taskId AS key, COUNT(t) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN t.hours * 60 ELSE 0 END), 0) AS billableMinutes, " +
+           "COALESCE(SUM(CASE WHEN t.isBillable = true THEN 0 ELSE t.hours * 60 END), 0) AS nonBillableMinutes " +
+           "FROM TimeEntry t WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND t.date >= :fromDate AND t.date <= :toDate " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "AND t.taskId IS NOT NULL GROUP BY t.taskId")
+    List<KeyedMinuteTotals> sumByTaskForReport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                               @Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    // Cursor over the entries of an export; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS id, t.date AS date, t.userId AS userId, u.name AS userName, " +
+           "t.projectId AS projectId, p.name AS projectName, t.taskId AS taskId, k.title AS taskTitle, " +
+           "t.hours AS hours, t.isBillable AS isBillable, t.description AS description, t.invoiceId AS invoiceId " +
+           "FROM TimeEntry t LEFT JOIN User u ON u.id = t.userId " +
+           "LEFT JOIN Project p ON p.id = t.projectId LEFT JOIN Task k ON k.id = t.taskId " +
+           "WHERE t.companyId = :companyId AND t.deletedAt IS NULL " +
+           "AND (:fromDate IS NULL OR t.date >= :fromDate) AND (:toDate IS NULL OR t.date <= :toDate) " +
+           "AND (:projectId IS NULL OR t.projectId = :projectId) " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "AND (:billable IS NULL OR t.isBillable = :billable) " +
+           "ORDER BY t.date, t.id")
+    Stream<TimeEntryExportRow> streamForExport(@Param("companyId") UUID companyId, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                               @Param("projectId") UUID projectId, @Param("userId") UUID userId, @Param("billable") Boolean billable);
 }
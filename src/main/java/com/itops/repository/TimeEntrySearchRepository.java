@@ -0,0 +1,20 @@
+package com.itops.repository;
+
+import com.itops.repository.projection.TimeEntryRow;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Time entry search whose optional filters are only added to the SQL when given, so each
+ * combination gets a plan that can use the matching index.
+ */
+public interface TimeEntrySearchRepository {
+
+    // Keyset-paginated time entry list with names joined in, newest first
+    List<TimeEntryRow> search(UUID companyId, UUID projectId, UUID userId, LocalDate fromDate, LocalDate toDate,
+                              Boolean billable, LocalDateTime cursorAt, UUID cursorId, Pageable pageable);
+}
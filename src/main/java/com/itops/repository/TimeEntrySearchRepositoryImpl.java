@@ -0,0 +1,81 @@
+package com.itops.repository;
+
+import com.itops.domain.Project;
+import com.itops.domain.Task;
+import com.itops.domain.TimeEntry;
+import com.itops.domain.User;
+import com.itops.repository.projection.TimeEntryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class TimeEntrySearchRepositoryImpl implements TimeEntrySearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TimeEntryRow> search(UUID companyId, UUID projectId, UUID userId, LocalDate fromDate, LocalDate toDate,
+                                     Boolean billable, LocalDateTime cursorAt, UUID cursorId, Pageable pageable) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<TimeEntryRow> query = cb.createQuery(TimeEntryRow.class);
+        JpaRoot<TimeEntry> t = (JpaRoot<TimeEntry>) query.from(TimeEntry.class);
+
+        JpaEntityJoin<User> user = t.join(User.class, SqmJoinType.LEFT);
+        user.on(cb.equal(user.get("id"), t.get("userId")));
+        JpaEntityJoin<Project> project = t.join(Project.class, SqmJoinType.LEFT);
+        project.on(cb.equal(project.get("id"), t.get("projectId")));
+        JpaEntityJoin<Task> task = t.join(Task.class, SqmJoinType.LEFT);
+        task.on(cb.equal(task.get("id"), t.get("taskId")));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(t.get("companyId"), companyId));
+        where.add(cb.isNull(t.get("deletedAt")));
+        if (projectId != null) {
+            where.add(cb.equal(t.get("projectId"), projectId));
+        }
+        if (userId != null) {
+            where.add(cb.equal(t.get("userId"), userId));
+        }
+        if (fromDate != null) {
+            where.add(cb.greaterThanOrEqualTo(t.get("date"), fromDate));
+        }
+        if (toDate != null) {
+            where.add(cb.lessThanOrEqualTo(t.get("date"), toDate));
+        }
+        if (billable != null) {
+            where.add(cb.equal(t.get("isBillable"), billable));
+        }
+        if (cursorAt != null) {
+            where.add(cb.or(
+                    cb.lessThan(t.get("createdAt"), cursorAt),
+                    cb.and(cb.equal(t.get("createdAt"), cursorAt), cb.lessThan(t.get("id"), cursorId))));
+        }
+
+        query.select(cb.construct(TimeEntryRow.class,
+                        t.get("id"), t.get("userId"), user.get("name"), t.get("projectId"), project.get("name"),
+                        t.get("taskId"), task.get("title"), t.get("date"), t.get("hours"), t.get("description"),
+                        t.get("isBillable"), t.get("createdAt"), t.get("startTime"), t.get("endTime"), t.get("isActive")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(t.get("createdAt")), cb.desc(t.get("id")));
+
+        TypedQuery<TimeEntryRow> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        return typed.getResultList();
+    }
+}
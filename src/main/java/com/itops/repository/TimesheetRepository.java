@@ -1,12 +1,16 @@
 package com.itops.repository;
 
 import com.itops.domain.Timesheet;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,4 +41,28 @@ public interface TimesheetRepository extends JpaRepository<Timesheet, UUID> {
     // Find timesheets by status and week
     @Query("SELECT t FROM Timesheet t WHERE t.companyId = :companyId AND t.status = :status AND t.weekStart = :weekStart AND t.deletedAt IS NULL")
     List<Timesheet> findByCompanyIdAndStatusAndWeekStart(@Param("companyId") UUID companyId, @Param("status") String status, @Param("weekStart") LocalDate weekStart);
+    
+    // Approval queue: timesheets of the given users in a status, oldest week first
+    @Query("SELECT t FROM Timesheet t WHERE t.companyId = :companyId AND t.userId IN :userIds AND t.status = :status " +
+           "AND (:weekStart IS NULL OR t.weekStart = :weekStart) AND t.deletedAt IS NULL " +
+           "ORDER BY t.weekStart, t.submittedAt")
+    List<Timesheet> findQueue(@Param("companyId") UUID companyId, @Param("userIds") Collection<UUID> userIds,
+                              @Param("status") String status, @Param("weekStart") LocalDate weekStart);
+    
+    // Bulk review; only timesheets still SUBMITTED are changed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Timesheet t SET t.status = :status, t.approvedBy = :reviewerId, t.approvedAt = :reviewedAt, " +
+           "t.rejectionReason = :rejectionReason, t.updatedAt = :reviewedAt " +
+           "WHERE t.companyId = :companyId AND t.id IN :ids AND t.status = 'SUBMITTED' AND t.deletedAt IS NULL")
+    int reviewSubmitted(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids, @Param("status") String status,
+                        @Param("reviewerId") UUID reviewerId, @Param("reviewedAt") LocalDateTime reviewedAt,
+                        @Param("rejectionReason") String rejectionReason);
+    
+    // Count timesheets in a status for a set of users
+    long countByCompanyIdAndStatusAndUserIdInAndDeletedAtIsNull(UUID companyId, String status, Collection<UUID> userIds);
+    
+    // Most recently created timesheets, optionally for a single user
+    @Query("SELECT t FROM Timesheet t WHERE t.companyId = :companyId AND t.deletedAt IS NULL AND t.createdAt IS NOT NULL " +
+           "AND (:userId IS NULL OR t.userId = :userId) ORDER BY t.createdAt DESC")
+    List<Timesheet> findRecent(@Param("companyId") UUID companyId, @Param("userId") UUID userId, Pageable pageable);
 }
@@ -1,9 +1,14 @@
 package com.itops.repository;
 
 import com.itops.domain.User;
+import com.itops.repository.projection.NamedRef;
+import com.itops.repository.projection.OrgUserRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,4 +24,28 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByTeamId(UUID teamId);
     List<User> findByTeamIdAndDeletedAtIsNull(UUID teamId);
     List<User> findByCreatedByUserId(UUID createdByUserId);
+    long countByCompanyIdAndDeletedAtIsNull(UUID companyId);
+    long countByCompanyIdAndIsActiveTrueAndDeletedAtIsNull(UUID companyId);
+
+    // Batched name lookup for report labels
+    @Query("SELECT u.id AS id, u.name AS name FROM User u WHERE u.companyId = :companyId AND u.id IN :ids")
+    List<NamedRef> findNamesByIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Which of the ids are live users of the company, for set-based validation
+    @Query("SELECT u.id FROM User u WHERE u.companyId = :companyId AND u.deletedAt IS NULL AND u.id IN :ids")
+    List<UUID> findActiveIds(@Param("companyId") UUID companyId, @Param("ids") Collection<UUID> ids);
+
+    // Organisation graph
+    @Query("SELECT u.id AS id, u.role AS role, u.teamId AS teamId, u.createdByUserId AS createdByUserId " +
+           "FROM User u WHERE u.companyId = :companyId AND u.deletedAt IS NULL")
+    List<OrgUserRef> findOrgRefs(@Param("companyId") UUID companyId);
+
+    @Query(value = "WITH RECURSIVE descendants AS (" +
+           "SELECT id FROM users WHERE company_id = :companyId AND created_by_user_id = :creatorId AND deleted_at IS NULL " +
+           "UNION " +
+           "SELECT u.id FROM users u JOIN descendants d ON u.created_by_user_id = d.id " +
+           "WHERE u.company_id = :companyId AND u.deleted_at IS NULL) " +
+           "SELECT id FROM descendants",
+           nativeQuery = true)
+    List<UUID> findDescendantIds(@Param("companyId") UUID companyId, @Param("creatorId") UUID creatorId);
 }
@@ -0,0 +1,18 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A running timer with the names of its user, project and task.
+ */
+public interface ActiveTimerRef {
+    UUID getTimeEntryId();
+    UUID getUserId();
+    String getUserName();
+    UUID getProjectId();
+    String getProjectName();
+    UUID getTaskId();
+    String getTaskName();
+    LocalDateTime getStartTime();
+}
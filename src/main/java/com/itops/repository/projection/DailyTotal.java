@@ -0,0 +1,13 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Amount and row count grouped by day.
+ */
+public interface DailyTotal {
+    LocalDate getDay();
+    BigDecimal getTotal();
+    Long getCount();
+}
@@ -0,0 +1,10 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * {@link MinuteTotals} for a single day.
+ */
+public interface DatedMinuteTotals extends MinuteTotals {
+    LocalDate getDay();
+}
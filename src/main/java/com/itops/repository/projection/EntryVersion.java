@@ -0,0 +1,12 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Id and last modification time of a time entry, used to tell whether it changed.
+ */
+public interface EntryVersion {
+    UUID getId();
+    LocalDateTime getUpdatedAt();
+}
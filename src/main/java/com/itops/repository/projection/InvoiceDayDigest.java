@@ -0,0 +1,14 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per (day, status) invoice checksum used to detect drifted rollup partitions.
+ */
+public interface InvoiceDayDigest {
+    LocalDate getDay();
+    String getStatus();
+    Long getCount();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,13 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Line item figures of one invoice, aggregated for summary-only invoice lists.
+ */
+public interface InvoiceItemTotals {
+    UUID getInvoiceId();
+    Long getTotalMinutes();
+    Long getContributorsCount();
+    Long getTasksCount();
+}
@@ -0,0 +1,24 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An invoice line together with the header fields of its invoice, as written by the revenue export.
+ */
+public interface InvoiceLineExportRow {
+    UUID getInvoiceId();
+    String getInvoiceNumber();
+    LocalDate getIssueDate();
+    LocalDate getDueDate();
+    String getStatus();
+    String getClientName();
+    String getProjectName();
+    String getCurrencyCode();
+    String getDescription();
+    String getItemType();
+    Integer getQuantity();
+    BigDecimal getUnitPrice();
+    BigDecimal getAmount();
+}
@@ -0,0 +1,11 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Row count grouped by an entity id.
+ */
+public interface KeyedCount {
+    UUID getKey();
+    Long getCount();
+}
@@ -0,0 +1,10 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * {@link MinuteTotals} grouped by an entity id (user, project, ...).
+ */
+public interface KeyedMinuteTotals extends MinuteTotals {
+    UUID getKey();
+}
@@ -0,0 +1,12 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Row count grouped by an id (project, assignee, ...) and status.
+ */
+public interface KeyedStatusCount {
+    UUID getKey();
+    String getStatus();
+    Long getCount();
+}
@@ -0,0 +1,13 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Amount and row count grouped by an entity id (client, project, ...).
+ */
+public interface KeyedTotal {
+    UUID getKey();
+    BigDecimal getTotal();
+    Long getCount();
+}
@@ -0,0 +1,12 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount and row count grouped by an arbitrary label (segment, bucket, etc).
+ */
+public interface LabeledTotal {
+    String getLabel();
+    BigDecimal getTotal();
+    Long getCount();
+}
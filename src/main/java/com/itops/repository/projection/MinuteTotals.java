@@ -0,0 +1,15 @@
+package com.itops.repository.projection;
+
+/**
+ * Billable/non-billable minutes and entry count.
+ */
+public interface MinuteTotals {
+    Long getEntryCount();
+    Long getBillableMinutes();
+    Long getNonBillableMinutes();
+
+    default long getTotalMinutes() {
+        return (getBillableMinutes() != null ? getBillableMinutes() : 0L)
+                + (getNonBillableMinutes() != null ? getNonBillableMinutes() : 0L);
+    }
+}
@@ -0,0 +1,10 @@
+package com.itops.repository.projection;
+
+/**
+ * Row count grouped by calendar month.
+ */
+public interface MonthlyCount {
+    Integer getYear();
+    Integer getMonth();
+    Long getCount();
+}
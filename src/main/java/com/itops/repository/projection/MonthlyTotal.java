@@ -0,0 +1,13 @@
+package com.itops.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row grouped by calendar month.
+ */
+public interface MonthlyTotal {
+    Integer getYear();
+    Integer getMonth();
+    BigDecimal getTotal();
+    Long getCount();
+}
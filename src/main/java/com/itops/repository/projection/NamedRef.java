@@ -0,0 +1,11 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Id and display name of a referenced entity, used to label report rows.
+ */
+public interface NamedRef {
+    UUID getId();
+    String getName();
+}
@@ -0,0 +1,11 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A team and the user who created it.
+ */
+public interface OrgTeamRef {
+    UUID getId();
+    UUID getCreatedByUserId();
+}
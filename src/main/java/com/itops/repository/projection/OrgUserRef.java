@@ -0,0 +1,15 @@
+package com.itops.repository.projection;
+
+import com.itops.domain.User;
+
+import java.util.UUID;
+
+/**
+ * The fields of a user that determine its place in the organisation: role, team and creator.
+ */
+public interface OrgUserRef {
+    UUID getId();
+    User.UserRole getRole();
+    UUID getTeamId();
+    UUID getCreatedByUserId();
+}
@@ -0,0 +1,14 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An invoice the overdue sweeper has just moved to OVERDUE.
+ */
+public interface OverdueInvoiceRef {
+    UUID getInvoiceId();
+    String getInvoiceNumber();
+    UUID getCreatedBy();
+    LocalDate getIssueDate();
+}
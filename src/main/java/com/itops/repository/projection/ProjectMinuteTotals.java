@@ -0,0 +1,12 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * {@link MinuteTotals} of a project, together with the project's name and status.
+ */
+public interface ProjectMinuteTotals extends MinuteTotals {
+    UUID getProjectId();
+    String getName();
+    String getStatus();
+}
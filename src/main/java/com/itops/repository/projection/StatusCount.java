@@ -0,0 +1,9 @@
+package com.itops.repository.projection;
+
+/**
+ * Row count grouped by status.
+ */
+public interface StatusCount {
+    String getStatus();
+    Long getCount();
+}
@@ -0,0 +1,14 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A timer the timer sweeper has just stopped at the configured cap.
+ */
+public interface StoppedTimerRef {
+    UUID getTimeEntryId();
+    UUID getCompanyId();
+    UUID getUserId();
+    LocalDate getDate();
+}
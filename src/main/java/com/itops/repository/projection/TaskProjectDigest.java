@@ -0,0 +1,13 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Per (project, assignee, status) task checksum used to detect drifted rollup partitions.
+ */
+public interface TaskProjectDigest {
+    UUID getProjectId();
+    UUID getAssignedTo();
+    String getStatus();
+    Long getCount();
+}
@@ -0,0 +1,11 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Id of a task and the project it belongs to.
+ */
+public interface TaskProjectRef {
+    UUID getId();
+    UUID getProjectId();
+}
@@ -0,0 +1,16 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per (day, user, project) time checksum used to detect drifted rollup partitions.
+ */
+public interface TimeDayDigest {
+    LocalDate getDay();
+    UUID getUserId();
+    UUID getProjectId();
+    Long getCount();
+    Long getBillableMinutes();
+    Long getNonBillableMinutes();
+}
@@ -0,0 +1,22 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A time entry with its user, project and task names, as written by the CSV and NDJSON exports.
+ */
+public interface TimeEntryExportRow {
+    UUID getId();
+    LocalDate getDate();
+    UUID getUserId();
+    String getUserName();
+    UUID getProjectId();
+    String getProjectName();
+    UUID getTaskId();
+    String getTaskTitle();
+    Integer getHours();
+    Boolean getIsBillable();
+    String getDescription();
+    UUID getInvoiceId();
+}
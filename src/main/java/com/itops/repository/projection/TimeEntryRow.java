@@ -0,0 +1,14 @@
+package com.itops.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A time entry with the names of its user, project and task joined in, for list endpoints.
+ */
+public record TimeEntryRow(UUID id, UUID userId, String userName, UUID projectId, String projectName,
+                           UUID taskId, String taskName, LocalDate date, Integer hours, String description,
+                           Boolean isBillable, LocalDateTime createdAt, LocalDateTime startTime,
+                           LocalDateTime endTime, Boolean isActive) {
+}
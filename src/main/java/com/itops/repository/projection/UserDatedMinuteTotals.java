@@ -0,0 +1,10 @@
+package com.itops.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * {@link DatedMinuteTotals} of one user.
+ */
+public interface UserDatedMinuteTotals extends DatedMinuteTotals {
+    UUID getUserId();
+}
@@ -1,20 +1,25 @@
 package com.itops.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,7 +28,14 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    
+    /**
+     * When enabled, the role in a validly signed token is trusted until the token expires and the
+     * user row is never consulted. Role changes and deactivations then only apply on the next login.
+     */
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -32,12 +44,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                UUID userId = jwtUtil.getUserIdFromToken(jwt);
-                UUID companyId = jwtUtil.getCompanyIdFromToken(jwt);
-                String role = jwtUtil.getRoleFromToken(jwt);
-                
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            JwtClaims token = StringUtils.hasText(jwt) ? parseClaims(jwt) : null;
+            
+            Collection<? extends GrantedAuthority> authorities = token != null ? resolveAuthorities(token) : null;
+            
+            if (authorities != null) {
+                UUID userId = token.getUserId();
+                UUID companyId = token.getCompanyId();
+                String role = token.getRole();
                 
                 // Create claims map for controllers to access
                 Map<String, Object> claims = new HashMap<>();
@@ -46,7 +60,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 claims.put("role", role);
                 
                 UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(claims, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(claims, null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -58,6 +72,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Returns the authorities to grant for the token, or {@code null} if its user has been deactivated.
+     */
+    private Collection<? extends GrantedAuthority> resolveAuthorities(JwtClaims token) {
+        if (stateless) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + token.getRole()));
+        }
+        UserPrincipalCache.CachedPrincipal principal = userPrincipalCache.get(token.getUserId());
+        return principal.active() ? principal.authorities() : null;
+    }
+    
+    private JwtClaims parseClaims(String jwt) {
+        try {
+            return jwtUtil.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,25 @@
+package com.itops.security;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * The verified contents of an access token. Produced once per token by {@link JwtUtil#parseClaims(String)}
+ * so callers never have to re-parse the JWT to read another claim.
+ */
+@Getter
+@Builder
+public class JwtClaims {
+    private final UUID userId;
+    private final UUID companyId;
+    private final UUID teamId;
+    private final String role;
+    private final String email;
+    private final long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
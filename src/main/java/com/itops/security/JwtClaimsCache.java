@@ -0,0 +1,143 @@
+package com.itops.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers the claims of recently verified tokens, keyed by the SHA-256 of the token so raw
+ * bearer tokens are never kept in memory. Entries are dropped once the token expires and the
+ * cache is bounded: when it fills up, expired tokens go first and then those closest to expiry.
+ * Lookups never lock, so a cache hit costs one map read. Only tokens that passed signature
+ * verification are stored.
+ */
+@Component
+@Slf4j
+public class JwtClaimsCache {
+
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+
+    // Held while trimming so concurrent puts on a full cache don't all sweep at once
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Stats reported by the last summary; only touched by the single scheduler thread
+    private Stats lastLogged;
+
+    public JwtClaims get(String tokenHash) {
+        JwtClaims claims = entries.get(tokenHash);
+        if (claims != null && !claims.isExpired(System.currentTimeMillis())) {
+            hits.increment();
+            return claims;
+        }
+        if (claims != null) {
+            entries.remove(tokenHash, claims);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String tokenHash, JwtClaims claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        entries.put(tokenHash, claims);
+        if (entries.size() > maxEntries && trimLock.tryLock()) {
+            try {
+                trim(System.currentTimeMillis());
+            } finally {
+                trimLock.unlock();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A point-in-time view of the cache counters.
+     */
+    public Stats stats() {
+        return new Stats(size(), getHitCount(), getMissCount());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.claims-cache.cleanup-interval-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> claims.isExpired(now));
+        logSummary();
+    }
+
+    /**
+     * Drops expired tokens and, if the cache is still over its bound, the tokens closest to
+     * expiry until it is back to 90% of the bound, so a full cache isn't trimmed on every put.
+     */
+    private void trim(long now) {
+        entries.values().removeIf(claims -> claims.isExpired(now));
+        int excess = entries.size() - maxEntries * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().getExpiresAt()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    /**
+     * Logs entries, hits, misses and hit ratio at INFO, skipping the line when nothing changed
+     * since the last summary so an idle instance stays quiet.
+     */
+    private void logSummary() {
+        Stats stats = stats();
+        if (stats.equals(lastLogged)) {
+            return;
+        }
+        lastLogged = stats;
+        log.info("JWT claims cache: {} entries, {} hits, {} misses, hit ratio {}",
+                stats.entries(), stats.hits(), stats.misses(), String.format("%.2f", stats.hitRatio()));
+    }
+
+    public record Stats(int entries, long hits, long misses) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
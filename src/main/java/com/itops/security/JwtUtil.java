@@ -2,6 +2,8 @@ package com.itops.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +13,7 @@ import java.util.Date;
 import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
     
     @Value("${jwt.secret}")
@@ -22,8 +25,15 @@ public class JwtUtil {
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final JwtClaimsCache claimsCache;
+    
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
     
     public String generateAccessToken(UUID userId, String email, String role, UUID companyId, UUID teamId) {
@@ -43,7 +53,7 @@ public class JwtUtil {
         return builder
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
@@ -55,53 +65,61 @@ public class JwtUtil {
                 .subject(userId.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
+    /**
+     * Verifies the token and returns its claims. The signature is checked and the payload parsed
+     * only the first time a token is seen; later calls with the same token are served from the
+     * claims cache until it expires.
+     *
+     * @throws JwtException if the token is malformed, has an invalid signature or has expired
+     */
+    public JwtClaims parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token is empty");
+        }
+        String tokenHash = JwtClaimsCache.hash(token);
+        JwtClaims cached = claimsCache.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String companyId = claims.get("companyId", String.class);
+        String teamId = claims.get("teamId", String.class);
+        JwtClaims parsed = JwtClaims.builder()
+                .userId(UUID.fromString(claims.getSubject()))
+                .companyId(companyId != null ? UUID.fromString(companyId) : null)
+                .teamId(teamId != null ? UUID.fromString(teamId) : null)
+                .role(claims.get("role", String.class))
+                .email(claims.get("email", String.class))
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE)
+                .build();
+        claimsCache.put(tokenHash, parsed);
+        return parsed;
+    }
+    
     public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return UUID.fromString(claims.getSubject());
+        return parseClaims(token).getUserId();
     }
     
     public UUID getCompanyIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return UUID.fromString(claims.get("companyId", String.class));
+        return parseClaims(token).getCompanyId();
     }
     
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("role", String.class);
+        return parseClaims(token).getRole();
     }
     
     public UUID getTeamIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        String teamIdStr = claims.get("teamId", String.class);
-        return teamIdStr != null ? UUID.fromString(teamIdStr) : null;
+        return parseClaims(token).getTeamId();
     }
     
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
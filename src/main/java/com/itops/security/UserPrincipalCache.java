@@ -0,0 +1,104 @@
+package com.itops.security;
+
+import com.itops.domain.User;
+import com.itops.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the authorities and active flag of recently authenticated users so the JWT filter does not
+ * load the user row on every request. Entries live for a short time and are evicted explicitly
+ * whenever a user's role, team or existence changes; inside a transaction the eviction is repeated
+ * after commit so a concurrent request cannot re-cache the row as it was before the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<UUID, CachedPrincipal> principals = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedPrincipal> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public CachedPrincipal get(UUID userId) {
+        long now = System.currentTimeMillis();
+        synchronized (principals) {
+            CachedPrincipal cached = principals.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached;
+            }
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        CachedPrincipal principal = new CachedPrincipal(
+                user.getCompanyId(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())),
+                Boolean.TRUE.equals(user.getIsActive()),
+                now + ttlSeconds * 1000);
+        synchronized (principals) {
+            principals.put(userId, principal);
+        }
+        return principal;
+    }
+
+    public void evict(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (principals) {
+                principals.remove(userId);
+            }
+        });
+    }
+
+    public void evictCompany(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (principals) {
+                principals.values().removeIf(principal -> companyId.equals(principal.companyId()));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    public record CachedPrincipal(UUID companyId, Collection<? extends GrantedAuthority> authorities,
+                                  boolean active, long expiresAt) {
+    }
+}
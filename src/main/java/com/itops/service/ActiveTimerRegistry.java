@@ -0,0 +1,91 @@
+package com.itops.service;
+
+import com.itops.repository.TimeEntryRepository;
+import com.itops.repository.projection.ActiveTimerRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "who is running a timer" for a company from memory. The running timers are read with
+ * one query on the partial unique index of active timers and kept until the company's next
+ * timer start, stop or auto-stop, or at most {@code time-entry.timer.registry-ttl-seconds} so that
+ * timers started on another instance show up. Invalidation works like {@link OrgGraphCache}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActiveTimerRegistry {
+
+    private final TimeEntryRepository timeEntryRepository;
+
+    @Value("${time-entry.timer.registry-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${time-entry.timer.registry-max-companies:1000}")
+    private int maxCompanies;
+
+    private final Map<UUID, CachedTimers> timers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedTimers> eldest) {
+            return size() > maxCompanies;
+        }
+    };
+
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * The company's running timers, oldest first.
+     */
+    public List<ActiveTimerRef> activeTimers(UUID companyId) {
+        long generation = generationOf(companyId).get();
+        synchronized (timers) {
+            CachedTimers cached = timers.get(companyId);
+            if (cached != null && cached.generation() == generation && cached.expiresAt() > System.currentTimeMillis()) {
+                return cached.timers();
+            }
+        }
+
+        List<ActiveTimerRef> running = List.copyOf(timeEntryRepository.findActiveTimers(companyId));
+        if (generationOf(companyId).get() == generation) {
+            synchronized (timers) {
+                timers.put(companyId, new CachedTimers(running, generation, System.currentTimeMillis() + ttlSeconds * 1000));
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Drops the company's running timers. Inside a transaction the generation is bumped again
+     * after commit, so a concurrent reload cannot keep the timers as they were before the write.
+     */
+    public void invalidateCompany(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        generationOf(companyId).incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generationOf(companyId).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private AtomicLong generationOf(UUID companyId) {
+        return generations.computeIfAbsent(companyId, id -> new AtomicLong());
+    }
+
+    private record CachedTimers(List<ActiveTimerRef> timers, long generation, long expiresAt) {
+    }
+}
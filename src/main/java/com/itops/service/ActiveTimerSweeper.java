@@ -0,0 +1,100 @@
+package com.itops.service;
+
+import com.itops.dto.NotificationType;
+import com.itops.repository.TimeEntryRepository;
+import com.itops.repository.projection.StoppedTimerRef;
+import com.itops.service.NotificationService.NotificationDraft;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stops timers that have been running longer than {@code time-entry.timer.max-hours}, so a
+ * forgotten timer cannot inflate hours. A stopped timer ends exactly at the cap. Timers are
+ * stopped in batches: one statement stops up to {@code time-entry.timer.sweep-batch-size}, then
+ * the owners are notified and rollups, timesheet totals and caches refreshed in the same
+ * transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveTimerSweeper {
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final TimesheetTotalsService timesheetTotalsService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final ActiveTimerRegistry activeTimerRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${time-entry.timer.max-hours:12}")
+    private int maxHours;
+
+    @Value("${time-entry.timer.sweep-batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(cron = "${time-entry.timer.sweep-cron:0 */10 * * * *}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(maxHours);
+        int total = 0;
+        int batch;
+        do {
+            try {
+                Integer stopped = transactionTemplate.execute(status -> sweepBatch(cutoff));
+                batch = stopped != null ? stopped : 0;
+            } catch (Exception e) {
+                log.error("Timer sweep failed", e);
+                break;
+            }
+            total += batch;
+        } while (batch == batchSize);
+        if (total > 0) {
+            log.info("Auto-stopped {} timers running longer than {} hours", total, maxHours);
+        }
+    }
+
+    private int sweepBatch(LocalDateTime cutoff) {
+        List<StoppedTimerRef> stopped = timeEntryRepository.stopStaleTimers(cutoff, maxHours, batchSize);
+        if (stopped.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, List<StoppedTimerRef>> byCompany = stopped.stream()
+                .collect(Collectors.groupingBy(StoppedTimerRef::getCompanyId));
+        byCompany.forEach((companyId, timers) -> {
+            notificationService.createNotifications(companyId, timers.stream()
+                    .map(timer -> new NotificationDraft(
+                            timer.getUserId(),
+                            NotificationType.TIMER_AUTO_STOPPED,
+                            "Timer Stopped",
+                            "Your timer ran for more than " + maxHours + " hours and was stopped at " + maxHours + " hours",
+                            "TIME_ENTRY",
+                            timer.getTimeEntryId(),
+                            null))
+                    .toList());
+
+            analyticsRollupService.refreshTimeDays(companyId, timers.stream()
+                    .map(StoppedTimerRef::getDate)
+                    .distinct()
+                    .toArray(LocalDate[]::new));
+            timers.stream()
+                    .collect(Collectors.groupingBy(StoppedTimerRef::getUserId))
+                    .forEach((userId, own) -> timesheetTotalsService.recalculateWeeks(companyId, userId,
+                            own.stream().map(StoppedTimerRef::getDate).toArray(LocalDate[]::new)));
+            dashboardSnapshotCache.invalidateCompany(companyId);
+            activeTimerRegistry.invalidateCompany(companyId);
+        });
+        return stopped.size();
+    }
+}
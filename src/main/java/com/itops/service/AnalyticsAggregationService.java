@@ -0,0 +1,111 @@
+package com.itops.service;
+
+import com.itops.repository.*;
+import com.itops.repository.projection.LabeledTotal;
+import com.itops.repository.projection.MonthlyCount;
+import com.itops.repository.projection.MinuteTotals;
+import com.itops.repository.projection.MonthlyTotal;
+import com.itops.repository.projection.StatusCount;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Loads the grouped, company-scoped figures that {@link AnalyticsService} derives its
+ * charts and KPIs from. Every query is filtered by company and aggregated in the database,
+ * so the cost of an analytics request depends on the tenant's data only. Revenue and logged
+ * time are read from the daily rollup tables maintained by {@link AnalyticsRollupService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsAggregationService {
+
+    static final String PAID = "PAID";
+    static final int TREND_MONTHS = 6;
+
+    private final InvoiceRepository invoiceRepository;
+    private final ProjectRepository projectRepository;
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final InvoiceDailyRollupRepository invoiceRollupRepository;
+    private final TimeDailyRollupRepository timeRollupRepository;
+
+    @Transactional(readOnly = true)
+    public CompanyAggregates load(UUID companyId) {
+        YearMonth firstMonth = YearMonth.now().minusMonths(TREND_MONTHS - 1);
+
+        Map<YearMonth, BigDecimal> paidRevenueByMonth = new HashMap<>();
+        for (MonthlyTotal row : invoiceRollupRepository.sumTotalsByMonth(companyId, PAID, firstMonth.atDay(1))) {
+            paidRevenueByMonth.put(YearMonth.of(row.getYear(), row.getMonth()), row.getTotal());
+        }
+
+        Map<YearMonth, Long> clientSignupsByMonth = new HashMap<>();
+        for (MonthlyCount row : clientRepository.countCreatedByMonth(companyId, firstMonth.atDay(1).atStartOfDay())) {
+            clientSignupsByMonth.put(YearMonth.of(row.getYear(), row.getMonth()), row.getCount());
+        }
+
+        Map<String, Long> projectsByStatus = new HashMap<>();
+        for (StatusCount row : projectRepository.countByStatus(companyId)) {
+            projectsByStatus.put(row.getStatus(), row.getCount());
+        }
+
+        Map<String, LabeledTotal> paidRevenueBySegment = new LinkedHashMap<>();
+        for (LabeledTotal row : invoiceRepository.sumTotalsByValueSegment(companyId, PAID)) {
+            paidRevenueBySegment.put(row.getLabel(), row);
+        }
+
+        MinuteTotals loggedTime = timeRollupRepository.sumAllTime(companyId, null);
+
+        return CompanyAggregates.builder()
+                .paidRevenueByMonth(paidRevenueByMonth)
+                .totalPaidRevenue(invoiceRollupRepository.sumTotalByStatus(companyId, PAID))
+                .paidRevenueBySegment(paidRevenueBySegment)
+                .activeClientsLast3Months(invoiceRollupRepository.countDistinctClientsAfter(
+                        companyId, PAID, LocalDate.now().minusMonths(3)))
+                .clientSignupsByMonth(clientSignupsByMonth)
+                .totalClients(clientRepository.countByCompanyIdAndDeletedAtIsNull(companyId))
+                .projectsByStatus(projectsByStatus)
+                .totalTimeEntries(loggedTime.getEntryCount())
+                .totalHoursLogged(loggedTime.getTotalMinutes() / 60)
+                .totalUsers(userRepository.countByCompanyIdAndDeletedAtIsNull(companyId))
+                .build();
+    }
+
+    @Getter
+    @Builder
+    public static class CompanyAggregates {
+        private final Map<YearMonth, BigDecimal> paidRevenueByMonth;
+        private final BigDecimal totalPaidRevenue;
+        private final Map<String, LabeledTotal> paidRevenueBySegment;
+        private final long activeClientsLast3Months;
+        private final Map<YearMonth, Long> clientSignupsByMonth;
+        private final long totalClients;
+        private final Map<String, Long> projectsByStatus;
+        private final long totalTimeEntries;
+        private final long totalHoursLogged;
+        private final long totalUsers;
+
+        public BigDecimal paidRevenueIn(YearMonth month) {
+            return paidRevenueByMonth.getOrDefault(month, BigDecimal.ZERO);
+        }
+
+        public long clientSignupsIn(YearMonth month) {
+            return clientSignupsByMonth.getOrDefault(month, 0L);
+        }
+
+        public long totalProjects() {
+            return projectsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long projectsWithStatus(String status) {
+            return projectsByStatus.getOrDefault(status, 0L);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.itops.service;
+
+import com.itops.domain.Company;
+import com.itops.repository.*;
+import com.itops.repository.projection.InvoiceDayDigest;
+import com.itops.repository.projection.TaskProjectDigest;
+import com.itops.repository.projection.TimeDayDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Periodically compares each rollup partition with a checksum computed from the
+ * source tables and rebuilds the partitions that differ. This repairs drift from
+ * writes that bypass the service layer (SQL fixes, bulk imports, failed refreshes).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupReconciler {
+
+    private final CompanyRepository companyRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final TimeEntryRepository timeEntryRepository;
+    private final TaskRepository taskRepository;
+    private final InvoiceDailyRollupRepository invoiceRollupRepository;
+    private final TimeDailyRollupRepository timeRollupRepository;
+    private final TaskStatusRollupRepository taskRollupRepository;
+    private final AnalyticsRollupService rollupService;
+
+    @Value("${analytics.rollup.reconcile-window-days:400}")
+    private int reconcileWindowDays;
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 30 2 * * *}")
+    public void reconcileAll() {
+        LocalDate fromDate = LocalDate.now().minusDays(reconcileWindowDays);
+        for (Company company : companyRepository.findAll()) {
+            try {
+                reconcileCompany(company.getId(), fromDate);
+            } catch (Exception e) {
+                log.error("Rollup reconciliation failed for company {}", company.getId(), e);
+            }
+        }
+    }
+
+    public void reconcileCompany(UUID companyId, LocalDate fromDate) {
+        Set<LocalDate> invoiceDays = driftedKeys(
+                invoiceRepository.digestSince(companyId, fromDate),
+                invoiceRollupRepository.digestSince(companyId, fromDate),
+                InvoiceDayDigest::getDay,
+                d -> d.getStatus() + "|" + d.getCount() + "|" + normalize(d.getTotal()));
+
+        Set<LocalDate> timeDays = driftedKeys(
+                timeEntryRepository.digestSince(companyId, fromDate),
+                timeRollupRepository.digestSince(companyId, fromDate),
+                TimeDayDigest::getDay,
+                d -> d.getUserId() + "|" + d.getProjectId() + "|" + d.getCount() + "|"
+                        + d.getBillableMinutes() + "|" + d.getNonBillableMinutes());
+
+        Set<UUID> taskProjects = driftedKeys(
+                taskRepository.digest(companyId),
+                taskRollupRepository.digest(companyId),
+                TaskProjectDigest::getProjectId,
+                d -> d.getAssignedTo() + "|" + d.getStatus() + "|" + d.getCount());
+
+        invoiceDays.forEach(day -> rollupService.refreshInvoiceDays(companyId, day));
+        timeDays.forEach(day -> rollupService.refreshTimeDays(companyId, day));
+        taskProjects.forEach(projectId -> rollupService.refreshTaskProjects(companyId, projectId));
+
+        if (!invoiceDays.isEmpty() || !timeDays.isEmpty() || !taskProjects.isEmpty()) {
+            log.info("Rebuilt drifted rollup partitions for company {}: {} invoice days, {} time days, {} task projects",
+                    companyId, invoiceDays.size(), timeDays.size(), taskProjects.size());
+        }
+    }
+
+    private <D, K> Set<K> driftedKeys(List<D> source, List<D> rollup, Function<D, K> partitionOf, Function<D, String> rowSignature) {
+        Map<K, Set<String>> expected = signatures(source, partitionOf, rowSignature);
+        Map<K, Set<String>> actual = signatures(rollup, partitionOf, rowSignature);
+
+        Set<K> drifted = new HashSet<>();
+        Set<K> partitions = new HashSet<>(expected.keySet());
+        partitions.addAll(actual.keySet());
+        for (K partition : partitions) {
+            if (!Objects.equals(expected.get(partition), actual.get(partition))) {
+                drifted.add(partition);
+            }
+        }
+        return drifted;
+    }
+
+    private <D, K> Map<K, Set<String>> signatures(List<D> rows, Function<D, K> partitionOf, Function<D, String> rowSignature) {
+        Map<K, Set<String>> result = new HashMap<>();
+        for (D row : rows) {
+            result.computeIfAbsent(partitionOf.apply(row), k -> new HashSet<>()).add(rowSignature.apply(row));
+        }
+        return result;
+    }
+
+    private String normalize(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros().toPlainString() : "0";
+    }
+}
@@ -0,0 +1,58 @@
+package com.itops.service;
+
+import com.itops.repository.InvoiceDailyRollupRepository;
+import com.itops.repository.TaskStatusRollupRepository;
+import com.itops.repository.TimeDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps the rollup tables in step with invoices, time entries and tasks.
+ * Writers call the matching refresh method with the partitions they touched
+ * (old and new values when a key column changes); each partition is rebuilt
+ * from its source rows inside the caller's transaction. Partitions are locked in
+ * sorted order, so transactions refreshing overlapping partitions cannot deadlock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+
+    private final InvoiceDailyRollupRepository invoiceRollupRepository;
+    private final TimeDailyRollupRepository timeRollupRepository;
+    private final TaskStatusRollupRepository taskRollupRepository;
+
+    @Transactional
+    public void refreshInvoiceDays(UUID companyId, LocalDate... days) {
+        Arrays.stream(days).filter(Objects::nonNull).distinct().sorted().forEach(day -> {
+            invoiceRollupRepository.lockPartition("rollup_invoice:" + companyId + ":" + day);
+            invoiceRollupRepository.deletePartition(companyId, day);
+            invoiceRollupRepository.rebuildPartition(companyId, day);
+        });
+    }
+
+    @Transactional
+    public void refreshTimeDays(UUID companyId, LocalDate... days) {
+        Arrays.stream(days).filter(Objects::nonNull).distinct().sorted().forEach(day -> {
+            timeRollupRepository.lockPartition("rollup_time:" + companyId + ":" + day);
+            timeRollupRepository.deletePartition(companyId, day);
+            timeRollupRepository.rebuildPartition(companyId, day);
+        });
+    }
+
+    @Transactional
+    public void refreshTaskProjects(UUID companyId, UUID... projectIds) {
+        Arrays.stream(projectIds).filter(Objects::nonNull).distinct().sorted().forEach(projectId -> {
+            taskRollupRepository.lockPartition("rollup_task:" + companyId + ":" + projectId);
+            taskRollupRepository.deletePartition(companyId, projectId);
+            taskRollupRepository.rebuildPartition(companyId, projectId);
+        });
+    }
+}
@@ -2,61 +2,47 @@ package com.itops.service;
 
 import com.itops.dto.AnalyticsResponse;
 import com.itops.dto.AnalyticsResponse.*;
-import com.itops.repository.*;
+import com.itops.repository.projection.LabeledTotal;
+import com.itops.service.AnalyticsAggregationService.CompanyAggregates;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final InvoiceRepository invoiceRepository;
-    private final ProjectRepository projectRepository;
-    private final TimeEntryRepository timeEntryRepository;
-    private final ClientRepository clientRepository;
-    private final UserRepository userRepository;
+    private final AnalyticsAggregationService aggregationService;
 
     public AnalyticsResponse getCompanyAnalytics(UUID companyId) {
+        // All figures below are derived from one set of grouped, company-scoped queries
+        CompanyAggregates aggregates = aggregationService.load(companyId);
+
         return AnalyticsResponse.builder()
-                .revenueAnalytics(getRevenueAnalytics(companyId))
-                .cohortAnalysis(getCohortAnalysis(companyId))
-                .performanceMetrics(getPerformanceMetrics(companyId))
-                .resourceUtilization(getResourceUtilization(companyId))
-                .profitabilityTrend(getProfitabilityTrend(companyId))
-                .clientLifetimeValue(getClientLifetimeValue(companyId))
-                .kpiMetrics(getKpiMetrics(companyId))
+                .revenueAnalytics(getRevenueAnalytics(aggregates))
+                .cohortAnalysis(getCohortAnalysis(aggregates))
+                .performanceMetrics(getPerformanceMetrics(aggregates))
+                .resourceUtilization(getResourceUtilization(aggregates))
+                .profitabilityTrend(getProfitabilityTrend(aggregates))
+                .clientLifetimeValue(getClientLifetimeValue(aggregates))
+                .kpiMetrics(getKpiMetrics(aggregates))
                 .build();
     }
 
-    private RevenueAnalytics getRevenueAnalytics(UUID companyId) {
+    private RevenueAnalytics getRevenueAnalytics(CompanyAggregates aggregates) {
         List<MonthlyRevenue> forecast = new ArrayList<>();
         
-        // Get last 6 months of actual revenue from invoices
-        LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
-        
+        // Last 6 months of actual revenue from invoices
         for (int i = 5; i >= 0; i--) {
             YearMonth month = YearMonth.now().minusMonths(i);
-            LocalDate startDate = month.atDay(1);
-            LocalDate endDate = month.atEndOfMonth();
             
-            // Get actual revenue for the month (paid invoices)
-            BigDecimal actual = invoiceRepository.findAll().stream()
-                    .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                    .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                    .filter(invoice -> invoice.getIssueDate() != null &&
-                            !invoice.getIssueDate().isBefore(startDate) &&
-                            !invoice.getIssueDate().isAfter(endDate))
-                    .map(invoice -> invoice.getTotal())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Actual revenue for the month (paid invoices)
+            BigDecimal actual = aggregates.paidRevenueIn(month);
             
             // Simple prediction: average of last 3 months + 10% growth
             BigDecimal predicted = actual.multiply(new BigDecimal("1.10")).setScale(0, RoundingMode.HALF_UP);
@@ -99,22 +85,15 @@ public class AnalyticsService {
         return RevenueAnalytics.builder().forecast(forecast).build();
     }
 
-    private List<CohortData> getCohortAnalysis(UUID companyId) {
+    private List<CohortData> getCohortAnalysis(CompanyAggregates aggregates) {
         List<CohortData> cohorts = new ArrayList<>();
         
         // Get client signup cohorts for last 6 months
         for (int i = 5; i >= 0; i--) {
             YearMonth cohortMonth = YearMonth.now().minusMonths(i);
             
-            // Count clients who signed up in this month
-            long cohortSize = clientRepository.findAll().stream()
-                    .filter(client -> client.getCompanyId().equals(companyId))
-                    .filter(client -> client.getCreatedAt() != null)
-                    .filter(client -> {
-                        YearMonth clientMonth = YearMonth.from(client.getCreatedAt());
-                        return clientMonth.equals(cohortMonth);
-                    })
-                    .count();
+            // Clients who signed up in this month
+            long cohortSize = aggregates.clientSignupsIn(cohortMonth);
             
             if (cohortSize == 0) {
                 continue; // Skip months with no signups
@@ -144,15 +123,11 @@ public class AnalyticsService {
         return min + (int)(Math.random() * (max - min));
     }
 
-    private List<PerformanceMetric> getPerformanceMetrics(UUID companyId) {
+    private List<PerformanceMetric> getPerformanceMetrics(CompanyAggregates aggregates) {
         List<PerformanceMetric> metrics = new ArrayList<>();
         
         // Calculate revenue performance (based on invoices vs targets)
-        BigDecimal totalRevenue = invoiceRepository.findAll().stream()
-                .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                .map(invoice -> invoice.getTotal())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = aggregates.getTotalPaidRevenue();
         
         int revenueScore = Math.min(100, totalRevenue.divide(new BigDecimal("1000"), 0, RoundingMode.HALF_UP).intValue());
         
@@ -164,13 +139,8 @@ public class AnalyticsService {
                 .build());
         
         // Calculate project delivery efficiency
-        long totalProjects = projectRepository.findAll().stream()
-                .filter(p -> p.getCompanyId().equals(companyId))
-                .count();
-        long completedProjects = projectRepository.findAll().stream()
-                .filter(p -> p.getCompanyId().equals(companyId))
-                .filter(p -> "COMPLETED".equals(p.getStatus()))
-                .count();
+        long totalProjects = aggregates.totalProjects();
+        long completedProjects = aggregates.projectsWithStatus("COMPLETED");
         
         int efficiencyScore = totalProjects > 0 ? 
                 (int)((completedProjects * 100.0) / totalProjects) : 75;
@@ -183,9 +153,7 @@ public class AnalyticsService {
                 .build());
         
         // Calculate time tracking compliance
-        long totalTimeEntries = timeEntryRepository.findAll().stream()
-                .filter(te -> te.getCompanyId().equals(companyId))
-                .count();
+        long totalTimeEntries = aggregates.getTotalTimeEntries();
         
         int timeTrackingScore = totalProjects > 0 ? 
                 Math.min(100, (int)((totalTimeEntries * 10.0) / totalProjects)) : 0;
@@ -213,19 +181,13 @@ public class AnalyticsService {
         return metrics;
     }
 
-    private List<ResourceUtilization> getResourceUtilization(UUID companyId) {
+    private List<ResourceUtilization> getResourceUtilization(CompanyAggregates aggregates) {
         List<ResourceUtilization> utilization = new ArrayList<>();
         
-        // Get user counts by role/team
-        long totalUsers = userRepository.findAll().stream()
-                .filter(u -> u.getCompanyId().equals(companyId))
-                .count();
+        long totalUsers = aggregates.getTotalUsers();
         
         // Calculate based on time entries
-        long totalHoursLogged = timeEntryRepository.findAll().stream()
-                .filter(te -> te.getCompanyId().equals(companyId))
-                .mapToLong(te -> te.getHours() != null ? te.getHours().longValue() : 0)
-                .sum();
+        long totalHoursLogged = aggregates.getTotalHoursLogged();
         
         // Only show resource utilization if there's actual time tracking data
         if (totalHoursLogged > 0 && totalUsers > 0) {
@@ -248,23 +210,14 @@ public class AnalyticsService {
         return utilization;
     }
 
-    private List<ProfitabilityData> getProfitabilityTrend(UUID companyId) {
+    private List<ProfitabilityData> getProfitabilityTrend(CompanyAggregates aggregates) {
         List<ProfitabilityData> trend = new ArrayList<>();
         
         for (int i = 5; i >= 0; i--) {
             YearMonth month = YearMonth.now().minusMonths(i);
-            LocalDate startDate = month.atDay(1);
-            LocalDate endDate = month.atEndOfMonth();
             
-            // Get revenue for the month
-            BigDecimal revenue = invoiceRepository.findAll().stream()
-                    .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                    .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                    .filter(invoice -> invoice.getIssueDate() != null &&
-                            !invoice.getIssueDate().isBefore(startDate) &&
-                            !invoice.getIssueDate().isAfter(endDate))
-                    .map(invoice -> invoice.getTotal())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Revenue for the month
+            BigDecimal revenue = aggregates.paidRevenueIn(month);
             
             // Estimate cost as 60% of revenue
             BigDecimal cost = revenue.multiply(new BigDecimal("0.60")).setScale(0, RoundingMode.HALF_UP);
@@ -286,57 +239,25 @@ public class AnalyticsService {
         return trend;
     }
 
-    private List<ClientSegmentValue> getClientLifetimeValue(UUID companyId) {
+    private List<ClientSegmentValue> getClientLifetimeValue(CompanyAggregates aggregates) {
         List<ClientSegmentValue> segments = new ArrayList<>();
         
-        // Get all clients
-        long totalClients = clientRepository.findAll().stream()
-                .filter(c -> c.getCompanyId().equals(companyId))
-                .count();
-        
-        // Calculate average revenue per client
-        BigDecimal totalRevenue = invoiceRepository.findAll().stream()
-                .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                .map(invoice -> invoice.getTotal())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal avgRevenuePerClient = totalClients > 0 ?
-                totalRevenue.divide(new BigDecimal(totalClients), 0, RoundingMode.HALF_UP) :
-                BigDecimal.ZERO;
+        long totalClients = aggregates.getTotalClients();
+        BigDecimal totalRevenue = aggregates.getTotalPaidRevenue();
         
         // Only show segments if there's actual client and revenue data
         if (totalClients > 0 && totalRevenue.compareTo(BigDecimal.ZERO) > 0) {
-            // Calculate actual client segments based on invoice amounts
-            Map<String, List<BigDecimal>> clientRevenueMap = new HashMap<>();
-            
-            invoiceRepository.findAll().stream()
-                    .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                    .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                    .forEach(invoice -> {
-                        BigDecimal total = invoice.getTotal();
-                        String segment;
-                        if (total.compareTo(new BigDecimal("100000")) > 0) {
-                            segment = "High Value";
-                        } else if (total.compareTo(new BigDecimal("50000")) > 0) {
-                            segment = "Medium Value";
-                        } else {
-                            segment = "Standard";
-                        }
-                        clientRevenueMap.computeIfAbsent(segment, k -> new ArrayList<>()).add(total);
-                    });
-            
-            // Create segments from actual data
-            for (Map.Entry<String, List<BigDecimal>> entry : clientRevenueMap.entrySet()) {
-                BigDecimal segmentLTV = entry.getValue().stream()
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .divide(new BigDecimal(entry.getValue().size()), 0, RoundingMode.HALF_UP);
+            // Client segments are bucketed by invoice amount in the database
+            for (Map.Entry<String, LabeledTotal> entry : aggregates.getPaidRevenueBySegment().entrySet()) {
+                long invoiceCount = entry.getValue().getCount();
+                BigDecimal segmentLTV = entry.getValue().getTotal()
+                        .divide(new BigDecimal(invoiceCount), 0, RoundingMode.HALF_UP);
                 
                 // Estimate acquisition cost as 10% of LTV
                 BigDecimal acquisitionCost = segmentLTV.multiply(new BigDecimal("0.10")).setScale(0, RoundingMode.HALF_UP);
                 
                 // Calculate retention based on number of invoices (more invoices = better retention)
-                int avgInvoices = entry.getValue().size();
+                int avgInvoices = (int) invoiceCount;
                 int retention = Math.min(95, 60 + (avgInvoices * 5));
                 
                 segments.add(ClientSegmentValue.builder()
@@ -351,21 +272,13 @@ public class AnalyticsService {
         return segments;
     }
 
-    private List<KpiMetric> getKpiMetrics(UUID companyId) {
+    private List<KpiMetric> getKpiMetrics(CompanyAggregates aggregates) {
         List<KpiMetric> kpis = new ArrayList<>();
         
-        // Calculate last 3 months revenue for trend analysis
+        // Last 3 months revenue for trend analysis
         List<BigDecimal> last3MonthsRevenue = new ArrayList<>();
         for (int i = 2; i >= 0; i--) {
-            YearMonth month = YearMonth.now().minusMonths(i);
-            BigDecimal monthRevenue = invoiceRepository.findAll().stream()
-                    .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                    .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                    .filter(invoice -> invoice.getIssueDate() != null &&
-                            YearMonth.from(invoice.getIssueDate()).equals(month))
-                    .map(invoice -> invoice.getTotal())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            last3MonthsRevenue.add(monthRevenue);
+            last3MonthsRevenue.add(aggregates.paidRevenueIn(YearMonth.now().minusMonths(i)));
         }
         
         // Only add KPI if there's actual revenue data
@@ -402,21 +315,11 @@ public class AnalyticsService {
         }
         
         // Churn risk based on client activity
-        long totalClients = clientRepository.findAll().stream()
-                .filter(c -> c.getCompanyId().equals(companyId))
-                .count();
+        long totalClients = aggregates.getTotalClients();
         
         if (totalClients > 0) {
-            // Calculate clients with recent invoices (last 3 months)
-            LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-            long activeClients = invoiceRepository.findAll().stream()
-                    .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                    .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                    .filter(invoice -> invoice.getIssueDate() != null && 
-                            invoice.getIssueDate().isAfter(threeMonthsAgo))
-                    .map(invoice -> invoice.getClientId())
-                    .distinct()
-                    .count();
+            // Clients with recent invoices (last 3 months)
+            long activeClients = aggregates.getActiveClientsLast3Months();
             
             int churnRisk = (int)(100 - ((activeClients * 100.0) / totalClients));
             String trend = churnRisk < 20 ? "down" : "up";
@@ -433,14 +336,8 @@ public class AnalyticsService {
         }
         
         // Resource efficiency based on billable hours
-        long totalUsers = userRepository.findAll().stream()
-                .filter(u -> u.getCompanyId().equals(companyId))
-                .count();
-        
-        long hoursLogged = timeEntryRepository.findAll().stream()
-                .filter(te -> te.getCompanyId().equals(companyId))
-                .mapToLong(te -> te.getHours() != null ? te.getHours().longValue() : 0)
-                .sum();
+        long totalUsers = aggregates.getTotalUsers();
+        long hoursLogged = aggregates.getTotalHoursLogged();
         
         if (totalUsers > 0 && hoursLogged > 0) {
             // Assuming 160 hours/month capacity per user and 80% target efficiency
@@ -460,11 +357,7 @@ public class AnalyticsService {
         }
         
         // Profit margin trend
-        BigDecimal totalInvoiceAmount = invoiceRepository.findAll().stream()
-                .filter(invoice -> invoice.getCompanyId().equals(companyId))
-                .filter(invoice -> "PAID".equals(invoice.getStatus()))
-                .map(invoice -> invoice.getTotal())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalInvoiceAmount = aggregates.getTotalPaidRevenue();
         
         if (totalInvoiceAmount.compareTo(BigDecimal.ZERO) > 0) {
             // Estimate cost as 60% of revenue
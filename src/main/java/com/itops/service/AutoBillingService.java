@@ -0,0 +1,418 @@
+package com.itops.service;
+
+import com.itops.domain.BillingRun;
+import com.itops.domain.BillingRunClient;
+import com.itops.domain.Company;
+import com.itops.dto.BillingRunClientResponse;
+import com.itops.dto.BillingRunResponse;
+import com.itops.dto.InvoiceBulkGenerateRequest;
+import com.itops.dto.InvoiceGenerateResponse;
+import com.itops.exception.BusinessException;
+import com.itops.exception.ResourceNotFoundException;
+import com.itops.repository.BillingRunClientRepository;
+import com.itops.repository.BillingRunRepository;
+import com.itops.repository.CompanyRepository;
+import com.itops.repository.TimeEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates draft invoices for every client with unbilled approved time in a billing period.
+ * At month end each company gets a run in {@code billing_runs} with one ledger row per client;
+ * clients are billed by a shared worker pool, at most {@code max-concurrent-per-company} at a
+ * time per company across all of its runs. A client's ledger row is settled in the transaction
+ * that creates its invoice, so runs interrupted by a restart are resumed without billing anyone
+ * twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutoBillingService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String PENDING = "PENDING";
+    static final String INVOICED = "INVOICED";
+    static final String SKIPPED = "SKIPPED";
+    static final String FAILED = "FAILED";
+
+    private final CompanyRepository companyRepository;
+    private final BillingRunRepository billingRunRepository;
+    private final BillingRunClientRepository billingRunClientRepository;
+    private final TimeEntryRepository timeEntryRepository;
+    private final InvoiceGenerationService invoiceGenerationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${invoice.auto-billing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${invoice.auto-billing.pool-size:4}")
+    private int poolSize;
+
+    @Value("${invoice.auto-billing.max-concurrent-per-company:2}")
+    private int maxConcurrentPerCompany;
+
+    private ThreadPoolExecutor executor;
+
+    // Runs being worked on by this instance, by run id
+    private final Map<UUID, RunProgress> activeRuns = new HashMap<>();
+
+    // Clients waiting to be billed and the lanes allowed to bill them, by company
+    private final Map<UUID, CompanyLanes> companyLanes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void startWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auto-billing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${invoice.auto-billing.cron:0 0 2 1 * *}")
+    public void billPreviousMonth() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth month = YearMonth.now().minusMonths(1);
+        for (Company company : companyRepository.findAll()) {
+            try {
+                startRun(company.getId(), month.atDay(1), month.atEndOfMonth());
+            } catch (Exception e) {
+                log.error("Could not start auto-billing for company {}", company.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Starts the company's run for the period, or resumes it if it exists and has not finished,
+     * and returns without waiting for the clients to be billed.
+     */
+    public BillingRunResponse startRun(UUID companyId, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date must be before or equal to to date");
+        }
+
+        BillingRun run;
+        try {
+            run = transactionTemplate.execute(status -> openRun(companyId, fromDate, toDate));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance opened the same run first and is billing it
+            return toResponse(billingRunRepository.findByCompanyIdAndPeriodStartAndPeriodEnd(companyId, fromDate, toDate)
+                    .orElseThrow(() -> e), null);
+        }
+
+        if (RUNNING.equals(run.getStatus())) {
+            dispatch(run);
+        }
+        return toResponse(run, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BillingRunResponse> getRecentRuns(UUID companyId) {
+        return billingRunRepository.findTop20ByCompanyIdAndDeletedAtIsNullOrderByPeriodStartDesc(companyId)
+                .stream()
+                .map(run -> toResponse(run, null))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public BillingRunResponse getRun(UUID id, UUID companyId) {
+        BillingRun run = billingRunRepository.findByIdAndCompanyIdAndDeletedAtIsNull(id, companyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Billing run not found"));
+        return toResponse(run, billingRunClientRepository.findByRunIdOrderByCreatedAt(id));
+    }
+
+    /**
+     * Workers do not survive a restart, so runs left unfinished by the previous instance are
+     * picked up again. Clients already settled in the ledger are not billed again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        try {
+            for (BillingRun run : billingRunRepository.findByStatus(RUNNING)) {
+                dispatch(run);
+            }
+        } catch (Exception e) {
+            log.warn("Could not resume interrupted billing runs", e);
+        }
+    }
+
+    private BillingRun openRun(UUID companyId, LocalDate fromDate, LocalDate toDate) {
+        BillingRun run = billingRunRepository.findByCompanyIdAndPeriodStartAndPeriodEnd(companyId, fromDate, toDate)
+                .orElse(null);
+        if (run != null && COMPLETED.equals(run.getStatus())) {
+            return run;
+        }
+
+        List<UUID> clientIds = timeEntryRepository.findClientIdsWithUnbilledEntries(companyId, fromDate, toDate, true);
+        if (run == null) {
+            run = BillingRun.builder()
+                    .periodStart(fromDate)
+                    .periodEnd(toDate)
+                    .status(RUNNING)
+                    .clientsTotal(clientIds.size())
+                    .startedAt(LocalDateTime.now())
+                    .build();
+            run.setCompanyId(companyId);
+            run = billingRunRepository.saveAndFlush(run);
+        } else {
+            // Clients that gained unbilled time since the run was opened join it
+            Set<UUID> known = new HashSet<>(billingRunClientRepository.findClientIdsByRunId(run.getId()));
+            clientIds = clientIds.stream().filter(id -> !known.contains(id)).collect(Collectors.toList());
+            billingRunRepository.addClients(run.getId(), clientIds.size());
+        }
+
+        UUID runId = run.getId();
+        List<BillingRunClient> ledger = clientIds.stream()
+                .map(clientId -> {
+                    BillingRunClient row = BillingRunClient.builder()
+                            .runId(runId)
+                            .clientId(clientId)
+                            .status(PENDING)
+                            .build();
+                    row.setCompanyId(companyId);
+                    return row;
+                })
+                .collect(Collectors.toList());
+        billingRunClientRepository.saveAll(ledger);
+
+        log.info("Opened billing run {} for company {} ({} to {}) with {} new clients",
+                runId, companyId, fromDate, toDate, ledger.size());
+        return run;
+    }
+
+    /**
+     * Queues the run's pending clients that are not queued yet, then starts lanes for the
+     * company while its semaphore has permits. Each lane bills the company's queued clients one
+     * after another, so at most {@code maxConcurrentPerCompany} of a company's clients are billed
+     * at a time and a large tenant cannot take over the whole pool. Dispatching a run that is
+     * already active only adds the clients that joined it since.
+     */
+    private void dispatch(BillingRun run) {
+        List<BillingRunClient> pendingRows = billingRunClientRepository.findByRunIdAndStatus(run.getId(), PENDING);
+        CompanyLanes lanes = companyLanes.computeIfAbsent(run.getCompanyId(), id -> new CompanyLanes(maxConcurrentPerCompany));
+
+        RunProgress progress;
+        boolean idle;
+        synchronized (activeRuns) {
+            progress = activeRuns.computeIfAbsent(run.getId(), id -> new RunProgress(run));
+            for (BillingRunClient row : pendingRows) {
+                if (progress.queued.add(row.getId())) {
+                    progress.outstanding++;
+                    lanes.queue.add(new QueuedClient(progress, row));
+                }
+            }
+            idle = progress.outstanding == 0;
+            if (idle) {
+                activeRuns.remove(run.getId());
+            }
+        }
+
+        if (idle) {
+            finishRun(progress);
+        } else {
+            startLanes(lanes);
+        }
+    }
+
+    private void startLanes(CompanyLanes lanes) {
+        while (!lanes.queue.isEmpty() && lanes.permits.tryAcquire()) {
+            try {
+                executor.execute(() -> runLane(lanes));
+            } catch (RuntimeException e) {
+                lanes.permits.release();
+                throw e;
+            }
+        }
+    }
+
+    private void runLane(CompanyLanes lanes) {
+        try {
+            QueuedClient next;
+            while (!Thread.currentThread().isInterrupted() && (next = lanes.queue.poll()) != null) {
+                RunProgress progress = next.progress();
+                try {
+                    billClient(progress.run, next.client(), progress.defaults);
+                } finally {
+                    boolean done;
+                    synchronized (activeRuns) {
+                        done = --progress.outstanding == 0;
+                        if (done) {
+                            activeRuns.remove(progress.run.getId());
+                        }
+                    }
+                    if (done) {
+                        finishRun(progress);
+                    }
+                }
+            }
+        } finally {
+            lanes.permits.release();
+        }
+        // Clients queued while this lane was finishing may have found every permit taken
+        if (!Thread.currentThread().isInterrupted()) {
+            startLanes(lanes);
+        }
+    }
+
+    private void billClient(BillingRun run, BillingRunClient client, InvoiceBulkGenerateRequest defaults) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                BillingRunClient row = billingRunClientRepository.findByIdForUpdate(client.getId()).orElse(null);
+                if (row == null || !PENDING.equals(row.getStatus())) {
+                    return;
+                }
+                InvoiceGenerateResponse invoice = invoiceGenerationService.generateDraftInvoiceFromTime(
+                        run.getCompanyId(), null, InvoiceGenerationService.clientRequest(defaults, row.getClientId()));
+                row.setStatus(INVOICED);
+                row.setInvoiceId(invoice.getInvoiceId());
+                row.setMessage(invoice.getInvoiceNumber());
+                row.setCompletedAt(LocalDateTime.now());
+                billingRunRepository.recordInvoiced(run.getId(), invoice.getTotal());
+            });
+        } catch (BusinessException | ResourceNotFoundException | IllegalArgumentException e) {
+            settle(run, client, SKIPPED, e.getMessage());
+        } catch (Exception e) {
+            log.error("Auto-billing failed for client {} in run {}", client.getClientId(), run.getId(), e);
+            settle(run, client, FAILED, e.getMessage());
+        }
+    }
+
+    private void settle(BillingRun run, BillingRunClient client, String outcome, String message) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                BillingRunClient row = billingRunClientRepository.findByIdForUpdate(client.getId()).orElse(null);
+                if (row == null || !PENDING.equals(row.getStatus())) {
+                    return;
+                }
+                row.setStatus(outcome);
+                row.setMessage(message);
+                row.setCompletedAt(LocalDateTime.now());
+                if (SKIPPED.equals(outcome)) {
+                    billingRunRepository.recordSkipped(run.getId());
+                } else {
+                    billingRunRepository.recordFailed(run.getId());
+                }
+            });
+        } catch (Exception e) {
+            // Left PENDING, so the client is retried when the run is resumed
+            log.warn("Could not record {} for client {} in run {}", outcome, client.getClientId(), run.getId(), e);
+        }
+    }
+
+    private void finishRun(RunProgress progress) {
+        BillingRun run = progress.run;
+        long startedAt = progress.startedAt;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (billingRunClientRepository.countByRunIdAndStatus(run.getId(), PENDING) == 0) {
+                    billingRunRepository.markCompleted(run.getId(), LocalDateTime.now());
+                }
+            });
+            billingRunRepository.findById(run.getId()).ifPresent(finished ->
+                    log.info("Billing run {} for company {} {}: {} of {} clients invoiced ({}), {} skipped, {} failed in {} ms",
+                            finished.getId(), finished.getCompanyId(), finished.getStatus().toLowerCase(),
+                            finished.getClientsInvoiced(), finished.getClientsTotal(), finished.getInvoicedTotal(),
+                            finished.getClientsSkipped(), finished.getClientsFailed(),
+                            System.currentTimeMillis() - startedAt));
+        } catch (Exception e) {
+            log.warn("Could not complete billing run {}", run.getId(), e);
+        }
+    }
+
+    /**
+     * A run being billed by this instance: the ledger rows already queued and how many of them
+     * are not settled yet.
+     */
+    private static class RunProgress {
+        private final BillingRun run;
+        private final InvoiceBulkGenerateRequest defaults = new InvoiceBulkGenerateRequest();
+        private final long startedAt = System.currentTimeMillis();
+        private final Set<UUID> queued = new HashSet<>();
+        private int outstanding;
+
+        RunProgress(BillingRun run) {
+            this.run = run;
+            defaults.setFromDate(run.getPeriodStart());
+            defaults.setToDate(run.getPeriodEnd());
+            defaults.setConfirmed(true);
+        }
+    }
+
+    private static class CompanyLanes {
+        private final Queue<QueuedClient> queue = new ConcurrentLinkedQueue<>();
+        private final Semaphore permits;
+
+        CompanyLanes(int maxConcurrent) {
+            this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        }
+    }
+
+    private record QueuedClient(RunProgress progress, BillingRunClient client) {
+    }
+
+    private BillingRunResponse toResponse(BillingRun run, List<BillingRunClient> clients) {
+        int settled = run.getClientsInvoiced() + run.getClientsSkipped() + run.getClientsFailed();
+        return BillingRunResponse.builder()
+                .id(run.getId())
+                .periodStart(run.getPeriodStart())
+                .periodEnd(run.getPeriodEnd())
+                .status(run.getStatus())
+                .clientsTotal(run.getClientsTotal())
+                .clientsInvoiced(run.getClientsInvoiced())
+                .clientsSkipped(run.getClientsSkipped())
+                .clientsFailed(run.getClientsFailed())
+                .clientsPending(Math.max(0, run.getClientsTotal() - settled))
+                .invoicedTotal(run.getInvoicedTotal())
+                .startedAt(run.getStartedAt())
+                .completedAt(run.getCompletedAt())
+                .clients(clients == null ? null : clients.stream()
+                        .map(client -> BillingRunClientResponse.builder()
+                                .clientId(client.getClientId())
+                                .status(client.getStatus())
+                                .invoiceId(client.getInvoiceId())
+                                .message(client.getMessage())
+                                .completedAt(client.getCompletedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
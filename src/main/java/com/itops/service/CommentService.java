@@ -2,6 +2,8 @@ package com.itops.service;
 
 import com.itops.dto.CommentResponse;
 import com.itops.dto.CreateCommentRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.NotificationType;
 import com.itops.model.Comment;
 import com.itops.domain.Task;
@@ -148,21 +150,22 @@ public class CommentService {
     }
 
     @Transactional(readOnly = true)
-    public List<CommentResponse> getComments(
+    public CursorPage<CommentResponse> getComments(
             Comment.EntityType entityType, 
             UUID entityId, 
-            UUID companyId
+            UUID companyId,
+            CursorPageRequest page
     ) {
-        List<Comment> comments = commentRepository
-                .findByCompanyIdAndEntityTypeAndEntityIdOrderByCreatedAtAsc(
-                        companyId, 
-                        entityType, 
-                        entityId
-                );
+        List<Comment> comments = commentRepository.findPage(
+                companyId,
+                entityType,
+                entityId,
+                page.getCursorCreatedAt(),
+                page.getCursorId(),
+                page.toPageable()
+        );
         
-        return comments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return page.slice(comments, Comment::getCreatedAt, Comment::getId, this::mapToResponse);
     }
 
     private CommentResponse mapToResponse(Comment comment) {
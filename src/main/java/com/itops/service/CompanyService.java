@@ -4,6 +4,7 @@ import com.itops.domain.Company;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.model.Comment;
 import com.itops.repository.*;
+import com.itops.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -36,6 +37,9 @@ public class CompanyService {
     private final AttachmentRepository attachmentRepository;
     private final CommentRepository commentRepository;
     private final NotificationRepository notificationRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final OrgGraphCache orgGraphCache;
+    private final EntitlementService entitlementService;
 
     @Transactional
     public void deleteCompany(UUID companyId, UUID requestingUserId) {
@@ -147,6 +151,9 @@ public class CompanyService {
         // 16. Delete users
         log.info("Deleting users for company: {}", companyId);
         userRepository.deleteAll(userRepository.findByCompanyId(companyId));
+        userPrincipalCache.evictCompany(companyId);
+        orgGraphCache.invalidateCompany(companyId);
+        entitlementService.evictSubscription(companyId);
         
         // 17. Finally, delete the company
         log.info("Deleting company: {}", company.getName());
@@ -5,6 +5,8 @@ import com.itops.domain.ClientCrm;
 import com.itops.domain.User;
 import com.itops.dto.ClientResponse;
 import com.itops.dto.CreateClientRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.NotificationType;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.repository.ClientCrmRepository;
@@ -18,8 +20,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,19 +30,21 @@ public class CrmService {
     private final ClientCrmRepository clientCrmRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ReportDimensionResolver dimensionResolver;
 
-    public List<com.itops.dto.ClientCrmResponse> listAllCrmClients(UUID companyId) {
-        List<ClientCrm> crmList = clientCrmRepository.findAllByCompanyId(companyId);
-        return crmList.stream().map(crm -> {
+    public CursorPage<com.itops.dto.ClientCrmResponse> listAllCrmClients(UUID companyId, CursorPageRequest page) {
+        List<ClientCrm> crmList = clientCrmRepository.findPage(
+                companyId, page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+        
+        // Owner names for the whole page in one lookup
+        Map<UUID, String> ownerNames = dimensionResolver.userNames(
+                companyId, crmList.stream().map(ClientCrm::getOwnerId).toList());
+        
+        return page.slice(crmList, ClientCrm::getCreatedAt, ClientCrm::getId, crm -> {
             Client client = crm.getClient();
             
             // Get owner name
-            String ownerName = null;
-            if (crm.getOwnerId() != null) {
-                ownerName = userRepository.findById(crm.getOwnerId())
-                    .map(User::getName)
-                    .orElse(null);
-            }
+            String ownerName = crm.getOwnerId() != null ? ownerNames.get(crm.getOwnerId()) : null;
             
             return com.itops.dto.ClientCrmResponse.builder()
                 .id(crm.getId())
@@ -59,7 +63,7 @@ public class CrmService {
                 .createdAt(crm.getCreatedAt())
                 .updatedAt(crm.getUpdatedAt())
                 .build();
-        }).collect(Collectors.toList());
+        });
     }
 
     @Transactional
@@ -77,6 +81,7 @@ public class CrmService {
         
         // Create CRM record with current user as owner
         ClientCrm crm = new ClientCrm();
+        crm.setCompanyId(companyId);
         crm.setClient(savedClient);
         crm.setLeadStage("PROSPECT");
         crm.setOwnerId(userId); // Set creator as owner
@@ -0,0 +1,92 @@
+package com.itops.service;
+
+import com.itops.dto.DashboardResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Holds recently built dashboards per (company, user, role) for a short time. The cache is
+ * bounded and least-recently-used entries are dropped first. Every company has a generation
+ * counter that writes bump through {@link #invalidateCompany(UUID)}; snapshots built under an
+ * older generation are ignored, so invalidating a tenant is constant-time and never touches
+ * other tenants' entries.
+ */
+@Component
+public class DashboardSnapshotCache {
+
+    @Value("${dashboard.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${dashboard.cache.max-entries:5000}")
+    private int maxEntries;
+
+    private final Map<Key, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Snapshot> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public DashboardResponse get(UUID companyId, UUID userId, String role, Supplier<DashboardResponse> loader) {
+        Key key = new Key(companyId, userId, role);
+        long generation = generationOf(companyId).get();
+        long now = System.currentTimeMillis();
+
+        synchronized (snapshots) {
+            Snapshot cached = snapshots.get(key);
+            if (cached != null && cached.generation() == generation && cached.expiresAt() > now) {
+                return cached.response();
+            }
+        }
+
+        DashboardResponse response = loader.get();
+
+        // Only keep the result if no write for this company happened while it was being built
+        if (generationOf(companyId).get() == generation) {
+            synchronized (snapshots) {
+                snapshots.put(key, new Snapshot(response, generation, now + ttlSeconds * 1000));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Drops the company's cached dashboards. Inside a transaction this happens after commit,
+     * so a dashboard rebuilt concurrently cannot capture the data as it was before the write.
+     */
+    public void invalidateCompany(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        generationOf(companyId).incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generationOf(companyId).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private AtomicLong generationOf(UUID companyId) {
+        return generations.computeIfAbsent(companyId, id -> new AtomicLong());
+    }
+
+    private record Key(UUID companyId, UUID userId, String role) {
+    }
+
+    private record Snapshot(DashboardResponse response, long generation, long expiresAt) {
+    }
+}
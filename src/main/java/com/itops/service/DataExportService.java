@@ -0,0 +1,213 @@
+package com.itops.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.itops.dto.ReportFilterDTO;
+import com.itops.repository.InvoiceItemRepository;
+import com.itops.repository.TimeEntryRepository;
+import com.itops.repository.projection.InvoiceLineExportRow;
+import com.itops.repository.projection.TimeEntryExportRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes time entries and invoice lines as CSV or NDJSON. Rows are read through a database
+ * cursor and written to the output as they arrive, so an export uses the same amount of memory
+ * regardless of its size and the first bytes reach the client straight away. The write methods
+ * open their own read-only transaction and are meant to be called from a
+ * {@link org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataExportService {
+
+    private static final int FLUSH_ROWS = 500;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String[] TIME_ENTRY_COLUMNS = {
+            "id", "date", "userId", "userName", "projectId", "projectName", "taskId", "taskTitle",
+            "hours", "billable", "description", "invoiceId"
+    };
+
+    private static final String[] INVOICE_LINE_COLUMNS = {
+            "invoiceId", "invoiceNumber", "issueDate", "dueDate", "status", "client", "project",
+            "currency", "description", "itemType", "quantity", "unitPrice", "amount"
+    };
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final InvoiceItemRepository invoiceItemRepository;
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, String mediaType) {
+            this.extension = extension;
+            this.mediaType = MediaType.parseMediaType(mediaType);
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeTimeEntries(UUID companyId, UUID projectId, UUID userId, LocalDate fromDate, LocalDate toDate,
+                                 Boolean billable, Format format, OutputStream out) throws IOException {
+        try (Stream<TimeEntryExportRow> rows = timeEntryRepository.streamForExport(
+                companyId, fromDate, toDate, projectId, userId, billable)) {
+            long count = write(format, out, TIME_ENTRY_COLUMNS, rows.iterator(), row -> new Object[]{
+                    row.getId(), row.getDate(), row.getUserId(), row.getUserName(), row.getProjectId(),
+                    row.getProjectName(), row.getTaskId(), row.getTaskTitle(), row.getHours(),
+                    row.getIsBillable(), row.getDescription(), row.getInvoiceId()
+            });
+            log.info("Exported {} time entries for company {} as {}", count, companyId, format);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeTimeEntries(UUID companyId, ReportFilterDTO filter, Format format, OutputStream out) throws IOException {
+        LocalDate[] dates = ReportService.calculateDateRange(filter);
+        writeTimeEntries(companyId, filter.getProjectId(), filter.getUserId(), dates[0], dates[1], null, format, out);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeInvoiceLines(UUID companyId, ReportFilterDTO filter, Format format, OutputStream out) throws IOException {
+        LocalDate[] dates = ReportService.calculateDateRange(filter);
+        try (Stream<InvoiceLineExportRow> rows = invoiceItemRepository.streamForExport(
+                companyId, dates[0], dates[1], filter.getClientId(), filter.getProjectId())) {
+            long count = write(format, out, INVOICE_LINE_COLUMNS, rows.iterator(), row -> new Object[]{
+                    row.getInvoiceId(), row.getInvoiceNumber(), row.getIssueDate(), row.getDueDate(),
+                    row.getStatus(), row.getClientName(), row.getProjectName(), row.getCurrencyCode(),
+                    row.getDescription(), row.getItemType(), row.getQuantity(), row.getUnitPrice(), row.getAmount()
+            });
+            log.info("Exported {} invoice lines for company {} as {}", count, companyId, format);
+        }
+    }
+
+    private <T> long write(Format format, OutputStream out, String[] columns, Iterator<T> rows,
+                           Function<T, Object[]> values) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        if (format == Format.CSV) {
+            writeCsvLine(writer, columns);
+        }
+        while (rows.hasNext()) {
+            Object[] row = values.apply(rows.next());
+            if (format == Format.CSV) {
+                writeCsvLine(writer, row);
+            } else {
+                writeJsonLine(writer, columns, row);
+            }
+            // Push completed rows to the client instead of waiting for the buffer to fill
+            if (++count % FLUSH_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof String text) {
+                writer.write(csvEscape(guardFormula(text)));
+            } else if (values[i] != null) {
+                writer.write(csvEscape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Prefixes text that a spreadsheet would evaluate as a formula with a single quote, so a user
+     * supplied description or name is shown as typed when the CSV is opened.
+     * {@link TimeEntryImportService} removes the prefix again with {@link #unguardFormula}.
+     */
+    static String guardFormula(String value) {
+        return startsWithFormula(value, 0) ? "'" + value : value;
+    }
+
+    static String unguardFormula(String value) {
+        return value.startsWith("'") && startsWithFormula(value, 1) ? value.substring(1) : value;
+    }
+
+    private static boolean startsWithFormula(String value, int index) {
+        if (value.length() <= index) {
+            return false;
+        }
+        char c = value.charAt(index);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    private String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeJsonLine(Writer writer, String[] columns, Object[] values) throws IOException {
+        JsonGenerator json = JSON_FACTORY.createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            json.writeFieldName(columns[i]);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Boolean b) {
+                json.writeBoolean(b);
+            } else if (value instanceof Integer n) {
+                json.writeNumber(n);
+            } else if (value instanceof BigDecimal n) {
+                json.writeNumber(n);
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.flush();
+        writer.write('\n');
+    }
+}
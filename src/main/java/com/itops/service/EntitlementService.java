@@ -0,0 +1,96 @@
+package com.itops.service;
+
+import com.itops.domain.Plan;
+import com.itops.domain.Subscription;
+import com.itops.domain.Subscription.SubscriptionStatus;
+import com.itops.repository.PlanRepository;
+import com.itops.repository.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches what a company is entitled to: the plan definitions, which only change through Flyway
+ * seeds and are kept for the lifetime of the instance, and each company's subscription plan and
+ * status, which are kept for a short time and evicted whenever the subscription is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntitlementService {
+
+    private final PlanRepository planRepository;
+    private final SubscriptionRepository subscriptionRepository;
+
+    @Value("${entitlements.subscription-ttl-seconds:60}")
+    private long subscriptionTtlSeconds;
+
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedSubscription> subscriptions = new ConcurrentHashMap<>();
+
+    public Optional<Plan> findPlan(String planCode) {
+        if (planCode == null) {
+            return Optional.empty();
+        }
+        Plan plan = plans.get(planCode);
+        if (plan == null) {
+            plan = planRepository.findByCode(planCode).orElse(null);
+            if (plan != null) {
+                plans.put(planCode, plan);
+            }
+        }
+        return Optional.ofNullable(plan);
+    }
+
+    /**
+     * The company's current plan code and status, or empty if it has no subscription.
+     */
+    public Optional<SubscriptionState> findSubscription(UUID companyId) {
+        long now = System.currentTimeMillis();
+        CachedSubscription cached = subscriptions.get(companyId);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.ofNullable(cached.state());
+        }
+
+        SubscriptionState state = subscriptionRepository.findByCompanyIdAndDeletedAtIsNull(companyId)
+                .map(subscription -> new SubscriptionState(subscription.getPlanCode(), subscription.getStatus()))
+                .orElse(null);
+        subscriptions.put(companyId, new CachedSubscription(state, now + subscriptionTtlSeconds * 1000));
+        return Optional.ofNullable(state);
+    }
+
+    /**
+     * Forgets the company's subscription. Inside a transaction this is repeated after commit so a
+     * concurrent read cannot re-cache the row as it was before the write.
+     */
+    public void evictSubscription(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        subscriptions.remove(companyId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    subscriptions.remove(companyId);
+                }
+            });
+        }
+    }
+
+    public void evictSubscription(Subscription subscription) {
+        evictSubscription(subscription.getCompanyId());
+    }
+
+    public record SubscriptionState(String planCode, SubscriptionStatus status) {
+    }
+
+    private record CachedSubscription(SubscriptionState state, long expiresAt) {
+    }
+}
@@ -5,10 +5,13 @@ import com.itops.dto.*;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.exception.BusinessException;
 import com.itops.repository.*;
+import com.itops.repository.projection.EntryVersion;
+import com.itops.service.InvoicePreviewCache.PreparedPreview;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -29,25 +32,226 @@ public class InvoiceGenerationService {
     private final TaskRepository taskRepository;
     private final InvoiceRepository invoiceRepository;
     private final InvoiceItemRepository invoiceItemRepository;
+    private final InvoiceItemTimeEntryRepository invoiceItemTimeEntryRepository;
     private final InvoiceService invoiceService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final InvoicePreviewCache invoicePreviewCache;
+    private final TransactionTemplate transactionTemplate;
     
     private static final BigDecimal DEFAULT_TAX_RATE = new BigDecimal("18.00");
     private static final int MINUTES_PER_HOUR = 60;
     private static final int DEFAULT_DUE_DAYS = 15;
+    private static final UUID NO_TASK = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
     /**
-     * Preview invoice generation from unbilled time entries
+     * Preview invoice generation from unbilled time entries. A preview that can be generated
+     * carries a token which the generate call may pass back to skip recomputing it.
      */
     public InvoiceGenerationPreviewResponse previewFromTime(
             UUID companyId,
             UUID requesterUserId,
             InvoiceGenerationPreviewRequest request) {
         
+        PreparedPreview prepared = preparePreview(companyId, request);
+        InvoiceGenerationPreviewResponse preview = prepared.preview();
+        if (preview.getCanGenerate()) {
+            preview.setPreviewToken(invoicePreviewCache.put(companyId, request, prepared));
+        }
+        return preview;
+    }
+
+    /**
+     * Generate a DRAFT invoice from unbilled time entries
+     */
+    @Transactional
+    public InvoiceGenerateResponse generateDraftInvoiceFromTime(
+            UUID companyId,
+            UUID requesterUserId,
+            InvoiceGenerateRequest request) {
+        
+        log.info("Generating invoice for client: {}, from: {}, to: {}", 
+                 request.getClientId(), request.getFromDate(), request.getToDate());
+        
+        // Reuse the confirmed preview when the token still matches and none of its entries was
+        // edited since, otherwise compute it again
+        PreparedPreview prepared = invoicePreviewCache.take(companyId, request.getPreviewToken(), request)
+            .filter(this::isUnchanged)
+            .orElseGet(() -> preparePreview(companyId, request));
+        InvoiceGenerationPreviewResponse preview = prepared.preview();
+        
+        if (!preview.getCanGenerate()) {
+            throw new BusinessException(preview.getMessage());
+        }
+        
+        if (preview.getEntriesCount() == 0) {
+            throw new BusinessException("No unbilled entries found");
+        }
+        
+        if (!Boolean.TRUE.equals(request.getConfirmed())) {
+            throw new BusinessException("Invoice generation must be confirmed");
+        }
+        
+        // Use provided tax rate or default
+        BigDecimal taxRate = request.getTaxRate() != null ? request.getTaxRate() : preview.getTaxRate();
+        
+        // Recalculate with override tax rate if different
+        BigDecimal subtotal = preview.getSubtotal();
+        BigDecimal taxAmount = subtotal.multiply(taxRate).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        BigDecimal total = subtotal.add(taxAmount);
+        
+        // Create invoice
+        Invoice invoice = new Invoice();
+        invoice.setCompanyId(companyId);
+        invoice.setClientId(request.getClientId());
+        invoice.setProjectId(request.getProjectId());
+        invoice.setIssueDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(DEFAULT_DUE_DAYS));
+        invoice.setStatus("DRAFT");
+        invoice.setSubtotal(subtotal);
+        invoice.setTaxRate(taxRate);
+        invoice.setTaxAmount(taxAmount);
+        invoice.setTotal(total);
+        invoice.setNotes(request.getNotes());
+        invoice.setCreatedBy(requesterUserId);
+        
+        // Generate invoice number
+        String invoiceNumber = invoiceService.generateInvoiceNumber(companyId);
+        invoice.setInvoiceNumber(invoiceNumber);
+        
+        invoice = invoiceRepository.save(invoice);
+        
+        // Create invoice items from preview, linking each to the entries it bills. Items and
+        // links are written in JDBC batches when the persistence context is flushed below.
+        List<PreviewLineItem> lineItems = preview.getLineItems();
+        List<InvoiceItem> items = new ArrayList<>();
+        for (PreviewLineItem lineItem : lineItems) {
+            InvoiceItem item = new InvoiceItem();
+            item.setCompanyId(companyId);
+            item.setInvoiceId(invoice.getId());
+            item.setDescription(lineItem.getDescription());
+            item.setQuantity(lineItem.getQuantityHours().intValue()); // Store as hours
+            item.setUnitPrice(lineItem.getUnitPrice());
+            item.setAmount(lineItem.getAmount());
+            items.add(item);
+        }
+        items = invoiceItemRepository.saveAll(items);
+        
+        List<InvoiceItemTimeEntry> links = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            UUID itemId = items.get(i).getId();
+            prepared.lineEntryIds().get(i).forEach(entryId -> links.add(InvoiceItemTimeEntry.builder()
+                .companyId(companyId)
+                .invoiceItemId(itemId)
+                .timeEntryId(entryId)
+                .build()));
+        }
+        invoiceItemTimeEntryRepository.saveAll(links);
+        
+        // Flush once so the invoice and its items are persisted before updating time entries
+        invoiceRepository.flush();
+        analyticsRollupService.refreshInvoiceDays(companyId, invoice.getIssueDate());
+        log.info("Created invoice: {} with {} items", invoice.getInvoiceNumber(), items.size());
+        
+        // Link time entries to invoice
+        List<UUID> entryIds = prepared.entryIds();
+        
+        LocalDateTime billedAt = LocalDateTime.now();
+        int updatedCount = timeEntryRepository.updateInvoiceIdForEntries(entryIds, invoice.getId(), billedAt);
+        
+        if (updatedCount != entryIds.size()) {
+            throw new BusinessException(
+                "Billing conflict: Some entries were already billed. Expected " + 
+                entryIds.size() + " but updated " + updatedCount
+            );
+        }
+        
+        log.info("Linked {} time entries to invoice {}", updatedCount, invoice.getInvoiceNumber());
+        
+        return InvoiceGenerateResponse.builder()
+            .invoiceId(invoice.getId())
+            .invoiceNumber(invoice.getInvoiceNumber())
+            .clientId(invoice.getClientId())
+            .total(invoice.getTotal())
+            .billedEntriesCount(updatedCount)
+            .message("Invoice generated successfully in DRAFT status")
+            .build();
+    }
+
+    /**
+     * Generate DRAFT invoices for several clients in one call. Each client is generated in its
+     * own transaction, so a client that cannot be invoiced is reported as skipped, or as failed on
+     * an unexpected error, and does not undo or stop the others. Without client ids, every client with unbilled approved time in the period is used.
+     */
+    public InvoiceBulkGenerateResponse generateDraftInvoicesForClients(
+            UUID companyId,
+            UUID requesterUserId,
+            InvoiceBulkGenerateRequest request) {
+        
+        validateRequest(request.getFromDate(), request.getToDate());
+        if (!Boolean.TRUE.equals(request.getConfirmed())) {
+            throw new BusinessException("Invoice generation must be confirmed");
+        }
+        
+        List<UUID> clientIds = request.getClientIds() != null && !request.getClientIds().isEmpty()
+            ? request.getClientIds().stream().distinct().collect(Collectors.toList())
+            : timeEntryRepository.findClientIdsWithUnbilledEntries(
+                companyId, request.getFromDate(), request.getToDate(), request.getBillableOnly());
+        
+        log.info("Generating invoices for {} clients, from: {}, to: {}", 
+                 clientIds.size(), request.getFromDate(), request.getToDate());
+        
+        InvoiceBulkGenerateResponse response = InvoiceBulkGenerateResponse.builder().build();
+        for (UUID clientId : clientIds) {
+            InvoiceGenerateRequest clientRequest = clientRequest(request, clientId);
+            try {
+                response.getGenerated().add(transactionTemplate.execute(
+                    status -> generateDraftInvoiceFromTime(companyId, requesterUserId, clientRequest)));
+            } catch (BusinessException | ResourceNotFoundException | IllegalArgumentException e) {
+                log.warn("Skipped invoice generation for client {}: {}", clientId, e.getMessage());
+                response.getSkipped().add(InvoiceBulkGenerateSkip.builder()
+                    .clientId(clientId)
+                    .message(e.getMessage())
+                    .build());
+            } catch (Exception e) {
+                log.error("Invoice generation failed for client {}", clientId, e);
+                response.getFailed().add(InvoiceBulkGenerateSkip.builder()
+                    .clientId(clientId)
+                    .message("Invoice generation failed unexpectedly")
+                    .build());
+            }
+        }
+        
+        log.info("Generated {} invoices, skipped {} clients, {} failed", 
+                 response.getGenerated().size(), response.getSkipped().size(), response.getFailed().size());
+        return response;
+    }
+
+    // Helper methods
+    
+    /**
+     * The single-client request that bulk generation issues for {@code clientId}.
+     */
+    static InvoiceGenerateRequest clientRequest(InvoiceBulkGenerateRequest request, UUID clientId) {
+        InvoiceGenerateRequest clientRequest = new InvoiceGenerateRequest();
+        clientRequest.setClientId(clientId);
+        clientRequest.setFromDate(request.getFromDate());
+        clientRequest.setToDate(request.getToDate());
+        clientRequest.setBillableOnly(request.getBillableOnly());
+        clientRequest.setGroupBy(request.getGroupBy());
+        clientRequest.setIncludeDescriptions(request.getIncludeDescriptions());
+        clientRequest.setTaxRate(request.getTaxRate());
+        clientRequest.setNotes(request.getNotes());
+        clientRequest.setConfirmed(true);
+        return clientRequest;
+    }
+    
+    private PreparedPreview preparePreview(UUID companyId, InvoiceGenerationPreviewRequest request) {
+        
         log.info("Generating invoice preview for client: {}, from: {}, to: {}", 
                  request.getClientId(), request.getFromDate(), request.getToDate());
         
         // Validate request
-        validateRequest(request);
+        validateRequest(request.getFromDate(), request.getToDate());
         
         // Verify client exists and belongs to company
         Client client = clientRepository.findByIdAndCompanyIdAndDeletedAtIsNull(request.getClientId(), companyId)
@@ -57,7 +261,7 @@ public class InvoiceGenerationService {
         List<UUID> projectIds = getProjectIdsForClient(companyId, request.getClientId(), request.getProjectId());
         
         if (projectIds.isEmpty()) {
-            return buildEmptyPreview(request, client, "No projects found for this client");
+            return new PreparedPreview(buildEmptyPreview(request, client, "No projects found for this client"), List.of(), Map.of());
         }
         
         // Get project name if specific project requested
@@ -80,7 +284,8 @@ public class InvoiceGenerationService {
         );
         
         if (entries.isEmpty()) {
-            return buildEmptyPreview(request, client, "No unbilled time entries found for the specified period");
+            return new PreparedPreview(
+                buildEmptyPreview(request, client, "No unbilled time entries found for the specified period"), List.of(), Map.of());
         }
         
         log.info("Found {} unbilled entries", entries.size());
@@ -97,13 +302,24 @@ public class InvoiceGenerationService {
         List<MissingRateUser> missingRates = checkMissingRates(entries, usersMap);
         
         // Build line items based on grouping strategy
+        boolean groupByUser = request.getGroupBy() == InvoiceGenerationPreviewRequest.GroupBy.USER;
         List<PreviewLineItem> lineItems;
-        if (request.getGroupBy() == InvoiceGenerationPreviewRequest.GroupBy.USER) {
+        if (groupByUser) {
             lineItems = buildLineItemsByUser(entries, usersMap, request.getIncludeDescriptions());
         } else {
             lineItems = buildLineItemsByTask(entries, usersMap, request.getIncludeDescriptions());
         }
         
+        // Remember which entries each line item bills
+        Map<UUID, List<UUID>> entryIdsByLine = entries.stream()
+            .collect(Collectors.groupingBy(
+                e -> lineKey(groupByUser, e.getUserId(), e.getTaskId()),
+                Collectors.mapping(TimeEntry::getId, Collectors.toList())
+            ));
+        List<List<UUID>> lineEntryIds = lineItems.stream()
+            .map(line -> entryIdsByLine.getOrDefault(lineKey(groupByUser, line.getUserId(), line.getTaskId()), List.of()))
+            .collect(Collectors.toList());
+        
         // Calculate totals
         BigDecimal subtotal = lineItems.stream()
             .map(PreviewLineItem::getAmount)
@@ -125,7 +341,7 @@ public class InvoiceGenerationService {
             "Ready to generate invoice" : 
             "Cannot generate: " + missingRates.size() + " user(s) missing hourly rate";
         
-        return InvoiceGenerationPreviewResponse.builder()
+        InvoiceGenerationPreviewResponse preview = InvoiceGenerationPreviewResponse.builder()
             .clientId(client.getId())
             .clientName(client.getName())
             .projectId(request.getProjectId())
@@ -144,120 +360,34 @@ public class InvoiceGenerationService {
             .canGenerate(canGenerate)
             .message(message)
             .build();
+        Map<UUID, LocalDateTime> entryVersions = new HashMap<>();
+        entries.forEach(entry -> entryVersions.put(entry.getId(), entry.getUpdatedAt()));
+        return new PreparedPreview(preview, lineEntryIds, entryVersions);
     }
-
+    
     /**
-     * Generate a DRAFT invoice from unbilled time entries
+     * Whether every entry of the preview is still unbilled and unmodified, so the amounts it
+     * shows are the ones that would be invoiced now.
      */
-    @Transactional
-    public InvoiceGenerateResponse generateDraftInvoiceFromTime(
-            UUID companyId,
-            UUID requesterUserId,
-            InvoiceGenerateRequest request) {
-        
-        log.info("Generating invoice for client: {}, from: {}, to: {}", 
-                 request.getClientId(), request.getFromDate(), request.getToDate());
-        
-        // First get preview to validate
-        InvoiceGenerationPreviewResponse preview = previewFromTime(companyId, requesterUserId, request);
-        
-        if (!preview.getCanGenerate()) {
-            throw new BusinessException(preview.getMessage());
-        }
-        
-        if (preview.getEntriesCount() == 0) {
-            throw new BusinessException("No unbilled entries found");
-        }
-        
-        if (!Boolean.TRUE.equals(request.getConfirmed())) {
-            throw new BusinessException("Invoice generation must be confirmed");
-        }
-        
-        // Get projects for client to fetch entry IDs
-        List<UUID> projectIds = getProjectIdsForClient(companyId, request.getClientId(), request.getProjectId());
-        
-        List<TimeEntry> entries = timeEntryRepository.findUnbilledEntriesForProjects(
-            companyId,
-            projectIds,
-            request.getFromDate(),
-            request.getToDate(),
-            request.getBillableOnly()
-        );
-        
-        // Use provided tax rate or default
-        BigDecimal taxRate = request.getTaxRate() != null ? request.getTaxRate() : preview.getTaxRate();
-        
-        // Recalculate with override tax rate if different
-        BigDecimal subtotal = preview.getSubtotal();
-        BigDecimal taxAmount = subtotal.multiply(taxRate).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-        BigDecimal total = subtotal.add(taxAmount);
-        
-        // Create invoice
-        Invoice invoice = new Invoice();
-        invoice.setCompanyId(companyId);
-        invoice.setClientId(request.getClientId());
-        invoice.setProjectId(request.getProjectId());
-        invoice.setIssueDate(LocalDate.now());
-        invoice.setDueDate(LocalDate.now().plusDays(DEFAULT_DUE_DAYS));
-        invoice.setStatus("DRAFT");
-        invoice.setSubtotal(subtotal);
-        invoice.setTaxRate(taxRate);
-        invoice.setTaxAmount(taxAmount);
-        invoice.setTotal(total);
-        invoice.setNotes(request.getNotes());
-        invoice.setCreatedBy(requesterUserId);
-        
-        // Generate invoice number
-        String invoiceNumber = invoiceService.generateInvoiceNumber(companyId);
-        invoice.setInvoiceNumber(invoiceNumber);
-        
-        invoice = invoiceRepository.save(invoice);
-        // Flush to ensure invoice is persisted before updating time entries
-        invoiceRepository.flush();
-        log.info("Created invoice: {}", invoice.getInvoiceNumber());
-        
-        // Create invoice items from preview
-        for (PreviewLineItem lineItem : preview.getLineItems()) {
-            InvoiceItem item = new InvoiceItem();
-            item.setCompanyId(companyId);
-            item.setInvoiceId(invoice.getId());
-            item.setDescription(lineItem.getDescription());
-            item.setQuantity(lineItem.getQuantityHours().intValue()); // Store as hours
-            item.setUnitPrice(lineItem.getUnitPrice());
-            item.setAmount(lineItem.getAmount());
-            invoiceItemRepository.save(item);
+    private boolean isUnchanged(PreparedPreview prepared) {
+        Map<UUID, LocalDateTime> versions = prepared.entryVersions();
+        if (versions.isEmpty()) {
+            return true;
         }
-        
-        // Link time entries to invoice
-        List<UUID> entryIds = entries.stream()
-            .map(TimeEntry::getId)
-            .collect(Collectors.toList());
-        
-        LocalDateTime billedAt = LocalDateTime.now();
-        int updatedCount = timeEntryRepository.updateInvoiceIdForEntries(entryIds, invoice.getId(), billedAt);
-        
-        if (updatedCount != entryIds.size()) {
-            throw new BusinessException(
-                "Billing conflict: Some entries were already billed. Expected " + 
-                entryIds.size() + " but updated " + updatedCount
-            );
+        List<EntryVersion> current = timeEntryRepository.findUnbilledVersions(versions.keySet());
+        return current.size() == versions.size()
+            && current.stream().allMatch(entry -> Objects.equals(entry.getUpdatedAt(), versions.get(entry.getId())));
+    }
+    
+    private static UUID lineKey(boolean groupByUser, UUID userId, UUID taskId) {
+        if (groupByUser) {
+            return userId;
         }
-        
-        log.info("Linked {} time entries to invoice {}", updatedCount, invoice.getInvoiceNumber());
-        
-        return InvoiceGenerateResponse.builder()
-            .invoiceId(invoice.getId())
-            .invoiceNumber(invoice.getInvoiceNumber())
-            .total(invoice.getTotal())
-            .billedEntriesCount(updatedCount)
-            .message("Invoice generated successfully in DRAFT status")
-            .build();
+        return taskId != null ? taskId : NO_TASK;
     }
-
-    // Helper methods
     
-    private void validateRequest(InvoiceGenerationPreviewRequest request) {
-        if (request.getFromDate().isAfter(request.getToDate())) {
+    private void validateRequest(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
             throw new IllegalArgumentException("From date must be before or equal to to date");
         }
     }
@@ -381,7 +511,7 @@ public class InvoiceGenerationService {
         // Group by task (null tasks go together)
         Map<UUID, List<TimeEntry>> entriesByTask = entries.stream()
             .collect(Collectors.groupingBy(
-                e -> e.getTaskId() != null ? e.getTaskId() : UUID.fromString("00000000-0000-0000-0000-000000000000"),
+                e -> e.getTaskId() != null ? e.getTaskId() : NO_TASK,
                 LinkedHashMap::new,
                 Collectors.toList()
             ));
@@ -403,7 +533,7 @@ public class InvoiceGenerationService {
         return entriesByTask.entrySet().stream()
             .map(entry -> {
                 UUID taskId = entry.getKey();
-                boolean isNullTask = taskId.equals(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+                boolean isNullTask = taskId.equals(NO_TASK);
                 List<TimeEntry> taskEntries = entry.getValue();
                 
                 // Calculate total minutes
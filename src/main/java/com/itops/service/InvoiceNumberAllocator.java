@@ -0,0 +1,56 @@
+package com.itops.service;
+
+import com.itops.repository.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out invoice numbers from a per-company counter. Each node reserves a block of
+ * {@code invoice.number.block-size} numbers with one statement and serves them from memory,
+ * so creating many invoices costs one round trip per block. Numbers are unique within a
+ * company but not gap-free: a block left unused when a node stops is never handed out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceNumberAllocator {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final InvoiceRepository invoiceRepository;
+
+    @Value("${invoice.number.block-size:20}")
+    private int blockSize;
+
+    private final Map<UUID, Block> blocks = new ConcurrentHashMap<>();
+
+    public String next(UUID companyId) {
+        long sequence = nextSequence(companyId);
+        return "INV-" + LocalDate.now().format(DATE_FORMAT) + "-" + String.format("%06d", sequence);
+    }
+
+    private long nextSequence(UUID companyId) {
+        Block block = blocks.computeIfAbsent(companyId, id -> new Block());
+        synchronized (block) {
+            if (block.next >= block.end) {
+                block.end = invoiceRepository.reserveInvoiceNumbers(companyId, blockSize);
+                block.next = block.end - blockSize;
+                log.debug("Reserved invoice numbers {}-{} for company {}", block.next, block.end - 1, companyId);
+            }
+            return block.next++;
+        }
+    }
+
+    private static class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,90 @@
+package com.itops.service;
+
+import com.itops.dto.NotificationType;
+import com.itops.repository.InvoiceRepository;
+import com.itops.repository.projection.OverdueInvoiceRef;
+import com.itops.service.NotificationService.NotificationDraft;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Moves SENT invoices whose due date has passed to OVERDUE, so reports and filters can rely on
+ * the stored status. Each company is swept in batches: one statement updates up to
+ * {@code invoice.overdue.batch-size} invoices and records their transitions, then the creators
+ * are notified and the affected rollup days rebuilt in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceOverdueSweeper {
+
+    private final InvoiceRepository invoiceRepository;
+    private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${invoice.overdue.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${invoice.overdue.sweep-cron:0 5 0 * * *}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        for (UUID companyId : invoiceRepository.findCompanyIdsWithOverdueInvoices(today)) {
+            try {
+                total += sweepCompany(companyId, today);
+            } catch (Exception e) {
+                log.error("Overdue sweep failed for company {}", companyId, e);
+            }
+        }
+        if (total > 0) {
+            log.info("Marked {} invoices as overdue", total);
+        }
+    }
+
+    public int sweepCompany(UUID companyId, LocalDate today) {
+        int swept = 0;
+        int batch;
+        do {
+            Integer moved = transactionTemplate.execute(status -> sweepBatch(companyId, today));
+            batch = moved != null ? moved : 0;
+            swept += batch;
+        } while (batch == batchSize);
+        return swept;
+    }
+
+    private int sweepBatch(UUID companyId, LocalDate today) {
+        List<OverdueInvoiceRef> overdue = invoiceRepository.markOverdue(companyId, today, batchSize);
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+
+        notificationService.createNotifications(companyId, overdue.stream()
+                .filter(invoice -> invoice.getCreatedBy() != null)
+                .map(invoice -> new NotificationDraft(
+                        invoice.getCreatedBy(),
+                        NotificationType.INVOICE_OVERDUE,
+                        "Invoice Overdue",
+                        "Invoice " + invoice.getInvoiceNumber() + " is past its due date",
+                        "INVOICE",
+                        invoice.getInvoiceId(),
+                        null))
+                .toList());
+
+        analyticsRollupService.refreshInvoiceDays(companyId, overdue.stream()
+                .map(OverdueInvoiceRef::getIssueDate)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(LocalDate[]::new));
+        return overdue.size();
+    }
+}
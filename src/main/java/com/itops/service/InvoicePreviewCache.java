@@ -0,0 +1,96 @@
+package com.itops.service;
+
+import com.itops.dto.InvoiceGenerationPreviewRequest;
+import com.itops.dto.InvoiceGenerationPreviewResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Remembers recent generation previews so that confirming one does not recompute it. A preview is
+ * handed out under a random token and taken back at most once, by the same company and with the
+ * same parameters, within {@code invoice.generation.preview-ttl-seconds}. The preview records when
+ * each of its entries was last modified, so the caller can discard it if an entry was edited in the
+ * meantime; entries billed concurrently are still caught by the guarded update that links entries
+ * to the invoice.
+ */
+@Component
+public class InvoicePreviewCache {
+
+    @Value("${invoice.generation.preview-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${invoice.generation.preview-max-entries:1000}")
+    private int maxEntries;
+
+    private final Map<String, CachedPreview> previews = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPreview> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public String put(UUID companyId, InvoiceGenerationPreviewRequest request, PreparedPreview prepared) {
+        String token = UUID.randomUUID().toString();
+        CachedPreview cached = new CachedPreview(companyId, PreviewKey.of(request), prepared,
+                System.currentTimeMillis() + ttlSeconds * 1000);
+        synchronized (previews) {
+            previews.put(token, cached);
+        }
+        return token;
+    }
+
+    /**
+     * The preview stored under {@code token}, if it is still fresh and was computed for the same
+     * company and parameters. The token is consumed either way.
+     */
+    public Optional<PreparedPreview> take(UUID companyId, String token, InvoiceGenerationPreviewRequest request) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        CachedPreview cached;
+        synchronized (previews) {
+            cached = previews.remove(token);
+        }
+        if (cached == null
+                || cached.expiresAt() <= System.currentTimeMillis()
+                || !cached.companyId().equals(companyId)
+                || !cached.key().equals(PreviewKey.of(request))) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.prepared());
+    }
+
+    /**
+     * A computed preview together with the ids of the time entries behind each of its line items,
+     * in line item order, and the last modification time of each entry.
+     */
+    public record PreparedPreview(InvoiceGenerationPreviewResponse preview, List<List<UUID>> lineEntryIds,
+                                  Map<UUID, LocalDateTime> entryVersions) {
+
+        public List<UUID> entryIds() {
+            return lineEntryIds.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    private record PreviewKey(UUID clientId, UUID projectId, LocalDate fromDate, LocalDate toDate,
+                              Boolean billableOnly, InvoiceGenerationPreviewRequest.GroupBy groupBy,
+                              Boolean includeDescriptions) {
+
+        static PreviewKey of(InvoiceGenerationPreviewRequest request) {
+            return new PreviewKey(request.getClientId(), request.getProjectId(), request.getFromDate(),
+                    request.getToDate(), request.getBillableOnly(), request.getGroupBy(),
+                    request.getIncludeDescriptions());
+        }
+    }
+
+    private record CachedPreview(UUID companyId, PreviewKey key, PreparedPreview prepared, long expiresAt) {
+    }
+}
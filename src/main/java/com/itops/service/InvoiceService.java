@@ -1,9 +1,17 @@
 package com.itops.service;
 
+import com.itops.domain.Client;
 import com.itops.domain.Invoice;
 import com.itops.domain.InvoiceItem;
+import com.itops.domain.InvoiceItemTimeEntry;
+import com.itops.domain.InvoiceStatusTransition;
+import com.itops.domain.Project;
+import com.itops.domain.User;
 import com.itops.dto.*;
+import com.itops.exception.ResourceNotFoundException;
 import com.itops.repository.*;
+import com.itops.repository.projection.InvoiceItemTotals;
+import com.itops.repository.projection.KeyedCount;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.itops.dto.NotificationType;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -29,40 +37,38 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final InvoiceItemRepository invoiceItemRepository;
+    private final InvoiceItemTimeEntryRepository invoiceItemTimeEntryRepository;
+    private final InvoiceStatusTransitionRepository invoiceStatusTransitionRepository;
     private final ClientRepository clientRepository;
     private final ProjectRepository projectRepository;
     private final NotificationService notificationService;
     private final UserRepository userRepository;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
 
     private static final BigDecimal DEFAULT_TAX_RATE = new BigDecimal("18.00");
     private static final BigDecimal HUNDRED = new BigDecimal("100.00");
+    private static final int PDF_FLUSH_ROWS = 50;
 
+    /**
+     * Lists invoices with all filters applied in the query. Paged requests are ordered newest
+     * first by creation time; {@code sortBy} only applies to unpaged requests. Without
+     * {@code includeItems} the line items are left out and only their summary is returned.
+     */
     @Transactional(readOnly = true)
-    public java.util.List<InvoiceResponse> getAllInvoices(UUID companyId, UUID clientId, UUID projectId,
-                                                  String status, LocalDate fromIssueDate, LocalDate toIssueDate,
-                                                  Boolean overdueOnly, String sortBy) {
-        java.util.List<Invoice> invoices;
-
-        if (clientId != null || projectId != null || status != null || fromIssueDate != null || toIssueDate != null) {
-            invoices = invoiceRepository.findFilteredInvoices(companyId, clientId, projectId, status, fromIssueDate, toIssueDate);
-        } else {
-            invoices = invoiceRepository.findAllByCompanyIdAndDeletedAtIsNull(companyId);
+    public CursorPage<InvoiceResponse> getAllInvoices(UUID companyId, UUID clientId, UUID projectId,
+                                                      String status, LocalDate fromIssueDate, LocalDate toIssueDate,
+                                                      Boolean overdueOnly, String sortBy, boolean includeItems,
+                                                      CursorPageRequest page) {
+        LocalDate overdueBefore = Boolean.TRUE.equals(overdueOnly) ? LocalDate.now() : null;
+        java.util.List<Invoice> invoices = invoiceRepository.findPage(companyId, clientId, projectId, status,
+                fromIssueDate, toIssueDate, overdueBefore, page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+
+        if (!page.isPaged()) {
+            invoices = sortInvoices(invoices, sortBy);
         }
 
-        if (Boolean.TRUE.equals(overdueOnly)) {
-            LocalDate today = LocalDate.now();
-            invoices = invoices.stream()
-                    .filter(invoice -> invoice.getDueDate() != null &&
-                            invoice.getDueDate().isBefore(today) &&
-                            "SENT".equals(invoice.getStatus()))
-                    .collect(Collectors.toList());
-        }
-
-        invoices = sortInvoices(invoices, sortBy);
-
-        return invoices.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return page.sliceAll(invoices, Invoice::getCreatedAt, Invoice::getId, rows -> toResponses(rows, !includeItems));
     }
 
     @Transactional(readOnly = true)
@@ -110,6 +116,7 @@ public class InvoiceService {
 
         java.util.List<InvoiceItem> items = createInvoiceItems(request.getItems(), invoice.getId(), companyId);
         invoiceItemRepository.saveAll(items);
+        analyticsRollupService.refreshInvoiceDays(companyId, invoice.getIssueDate());
 
         // Notify admins/managers about new invoice
         notifyAdminsAboutInvoice(invoice, companyId, userId);
@@ -135,6 +142,7 @@ public class InvoiceService {
             throw new RuntimeException("Project not found");
         }
 
+        LocalDate previousIssueDate = invoice.getIssueDate();
         if (request.getClientId() != null) invoice.setClientId(request.getClientId());
         if (request.getProjectId() != null) invoice.setProjectId(request.getProjectId());
         if (request.getIssueDate() != null) invoice.setIssueDate(request.getIssueDate());
@@ -165,6 +173,7 @@ public class InvoiceService {
         }
 
         invoice = invoiceRepository.save(invoice);
+        analyticsRollupService.refreshInvoiceDays(companyId, previousIssueDate, invoice.getIssueDate());
         log.info("Updated invoice {} for company {}", invoice.getInvoiceNumber(), companyId);
         return toResponse(invoice);
     }
@@ -200,6 +209,16 @@ public class InvoiceService {
         }
         
         invoice = invoiceRepository.save(invoice);
+        analyticsRollupService.refreshInvoiceDays(companyId, invoice.getIssueDate());
+        if (!oldStatus.equals(newStatus)) {
+            invoiceStatusTransitionRepository.save(InvoiceStatusTransition.builder()
+                    .companyId(companyId)
+                    .invoiceId(invoice.getId())
+                    .fromStatus(oldStatus)
+                    .toStatus(newStatus)
+                    .changedBy(actorId)
+                    .build());
+        }
 
         // Send notifications based on status change
         notifyInvoiceStatusChange(invoice, oldStatus, newStatus, companyId, actorId);
@@ -225,25 +244,13 @@ public class InvoiceService {
             item.setDeletedAt(LocalDateTime.now());
             invoiceItemRepository.save(item);
         });
+        analyticsRollupService.refreshInvoiceDays(companyId, invoice.getIssueDate());
 
         log.info("Soft deleted invoice {} for company {}", invoice.getInvoiceNumber(), companyId);
     }
 
     public String generateInvoiceNumber(UUID companyId) {
-        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Random random = new Random();
-        int maxAttempts = 10;
-
-        for (int attempt = 0; attempt < maxAttempts; attempt++) {
-            int randomNum = 100000 + random.nextInt(900000);
-            String invoiceNumber = "INV-" + today + "-" + randomNum;
-
-            if (!invoiceRepository.existsByInvoiceNumberAndCompanyId(invoiceNumber, companyId)) {
-                return invoiceNumber;
-            }
-        }
-
-        throw new RuntimeException("Failed to generate unique invoice number after " + maxAttempts + " attempts");
+        return invoiceNumberAllocator.next(companyId);
     }
 
     private CalculatedTotals calculateTotals(java.util.List<InvoiceItemRequest> items, BigDecimal taxRate) {
@@ -343,54 +350,93 @@ public class InvoiceService {
     }
 
     private InvoiceResponse toResponse(Invoice invoice) {
-        java.util.List<InvoiceItem> items = invoiceItemRepository.findByInvoiceId(invoice.getId()).stream().filter(item -> item.getDeletedAt() == null).collect(Collectors.toList());
+        return toResponses(java.util.List.of(invoice), false).get(0);
+    }
+
+    /**
+     * Builds responses for a batch of invoices with one query for their line items (or, in
+     * summary-only mode, their aggregated totals) and one per referenced client, project and user.
+     */
+    private java.util.List<InvoiceResponse> toResponses(java.util.List<Invoice> invoices, boolean summaryOnly) {
+        if (invoices.isEmpty()) {
+            return new ArrayList<>();
+        }
+        java.util.List<UUID> invoiceIds = invoices.stream().map(Invoice::getId).toList();
+
+        Map<UUID, java.util.List<InvoiceItem>> itemsByInvoice = new HashMap<>();
+        Map<UUID, java.util.List<UUID>> entriesByItem = new HashMap<>();
+        Map<UUID, InvoiceItemTotals> totalsByInvoice = new HashMap<>();
+        Map<UUID, Long> entryCountByInvoice = new HashMap<>();
+        if (summaryOnly) {
+            for (InvoiceItemTotals totals : loadInChunks(invoiceIds, invoiceItemRepository::sumByInvoiceIds)) {
+                totalsByInvoice.put(totals.getInvoiceId(), totals);
+            }
+            for (KeyedCount count : loadInChunks(invoiceIds, invoiceItemTimeEntryRepository::countByInvoiceIds)) {
+                entryCountByInvoice.put(count.getKey(), count.getCount());
+            }
+        } else {
+            java.util.List<InvoiceItem> allItems = loadInChunks(invoiceIds, invoiceItemRepository::findByInvoiceIdInAndDeletedAtIsNull);
+            for (InvoiceItem item : allItems) {
+                itemsByInvoice.computeIfAbsent(item.getInvoiceId(), id -> new ArrayList<>()).add(item);
+            }
+            for (InvoiceItemTimeEntry link : loadInChunks(idsOf(allItems, InvoiceItem::getId), invoiceItemTimeEntryRepository::findByInvoiceItemIdIn)) {
+                entriesByItem.computeIfAbsent(link.getInvoiceItemId(), id -> new ArrayList<>()).add(link.getTimeEntryId());
+            }
+        }
+
+        Set<UUID> userIds = new HashSet<>();
+        invoices.forEach(invoice -> userIds.add(invoice.getCreatedBy()));
+        itemsByInvoice.values().forEach(items -> items.forEach(item -> userIds.add(item.getUserId())));
 
-        java.util.List<InvoiceItemResponse> itemResponses = items.stream()
-                .map(this::toItemResponse)
+        InvoiceLookups lookups = new InvoiceLookups(
+                byId(loadInChunks(idsOf(invoices, Invoice::getClientId), clientRepository::findAllById), Client::getId),
+                byId(loadInChunks(idsOf(invoices, Invoice::getProjectId), projectRepository::findAllById), Project::getId),
+                byId(loadInChunks(idsOf(userIds, id -> id), userRepository::findAllById), User::getId),
+                entriesByItem);
+
+        return invoices.stream()
+                .map(invoice -> {
+                    java.util.List<InvoiceItem> items = itemsByInvoice.getOrDefault(invoice.getId(), java.util.List.of());
+                    InvoiceSummary summary = summaryOnly
+                            ? toSummary(totalsByInvoice.get(invoice.getId()), entryCountByInvoice.get(invoice.getId()))
+                            : computeSummary(items, entriesByItem);
+                    java.util.List<InvoiceItemResponse> itemResponses = summaryOnly ? null : items.stream()
+                            .map(item -> toItemResponse(item, lookups))
+                            .collect(Collectors.toList());
+                    return buildResponse(invoice, itemResponses, summary, lookups);
+                })
                 .collect(Collectors.toList());
+    }
 
-        boolean isOverdue = invoice.getDueDate() != null &&
+    private InvoiceResponse buildResponse(Invoice invoice, java.util.List<InvoiceItemResponse> itemResponses,
+                                          InvoiceSummary summary, InvoiceLookups lookups) {
+        // SENT invoices past due count as overdue until the sweeper moves them to OVERDUE
+        boolean isOverdue = "OVERDUE".equals(invoice.getStatus()) ||
+                (invoice.getDueDate() != null &&
                 invoice.getDueDate().isBefore(LocalDate.now()) &&
-                "SENT".equals(invoice.getStatus());
+                "SENT".equals(invoice.getStatus()));
         
         // Build enriched client info
-        InvoiceClientInfo clientInfo = clientRepository.findById(invoice.getClientId())
-                .map(client -> InvoiceClientInfo.builder()
-                        .id(client.getId())
-                        .name(client.getName())
-                        .contactName(client.getContactName())
-                        .email(client.getEmail())
-                        .phone(client.getPhone())
-                        .address(client.getAddress())
-                        .build())
-                .orElse(null);
+        Client client = lookups.clients().get(invoice.getClientId());
+        InvoiceClientInfo clientInfo = client == null ? null : InvoiceClientInfo.builder()
+                .id(client.getId())
+                .name(client.getName())
+                .contactName(client.getContactName())
+                .email(client.getEmail())
+                .phone(client.getPhone())
+                .address(client.getAddress())
+                .build();
         
         // Build enriched project info
-        InvoiceProjectInfo projectInfo = null;
-        if (invoice.getProjectId() != null) {
-            projectInfo = projectRepository.findById(invoice.getProjectId())
-                    .map(project -> InvoiceProjectInfo.builder()
-                            .id(project.getId())
-                            .name(project.getName())
-                            .status(project.getStatus())
-                            .build())
-                    .orElse(null);
-        }
+        Project project = invoice.getProjectId() != null ? lookups.projects().get(invoice.getProjectId()) : null;
+        InvoiceProjectInfo projectInfo = project == null ? null : InvoiceProjectInfo.builder()
+                .id(project.getId())
+                .name(project.getName())
+                .status(project.getStatus())
+                .build();
         
         // Build enriched creator info
-        InvoiceUserInfo createdByInfo = null;
-        if (invoice.getCreatedBy() != null) {
-            createdByInfo = userRepository.findById(invoice.getCreatedBy())
-                    .map(user -> InvoiceUserInfo.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .email(user.getEmail())
-                            .build())
-                    .orElse(null);
-        }
-        
-        // Compute summary
-        InvoiceSummary summary = computeSummary(items);
+        InvoiceUserInfo createdByInfo = toUserInfo(invoice.getCreatedBy(), lookups);
 
         return InvoiceResponse.builder()
                 .id(invoice.getId())
@@ -424,34 +470,15 @@ public class InvoiceService {
                 .build();
     }
     
-    private InvoiceItemResponse toItemResponse(InvoiceItem item) {
+    private InvoiceItemResponse toItemResponse(InvoiceItem item, InvoiceLookups lookups) {
         // Build user info if userId exists
-        InvoiceUserInfo userInfo = null;
-        if (item.getUserId() != null) {
-            userInfo = userRepository.findById(item.getUserId())
-                    .map(user -> InvoiceUserInfo.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .email(user.getEmail())
-                            .build())
-                    .orElse(null);
-        }
+        InvoiceUserInfo userInfo = toUserInfo(item.getUserId(), lookups);
         
         // Build task info if taskId exists (skipped for now, can add TaskRepository injection later)
         InvoiceTaskInfo taskInfo = null;
         
-        // Parse source time entry IDs
-        java.util.List<UUID> sourceIds = new ArrayList<>();
-        if (item.getSourceTimeEntryIds() != null && !item.getSourceTimeEntryIds().isEmpty()) {
-            String[] ids = item.getSourceTimeEntryIds().split(",");
-            for (String id : ids) {
-                try {
-                    sourceIds.add(UUID.fromString(id.trim()));
-                } catch (IllegalArgumentException e) {
-                    // Skip invalid UUIDs
-                }
-            }
-        }
+        // Time entries billed by this line
+        java.util.List<UUID> sourceIds = new ArrayList<>(lookups.entriesByItem().getOrDefault(item.getId(), java.util.List.of()));
         
         return InvoiceItemResponse.builder()
                 .id(item.getId())
@@ -468,7 +495,68 @@ public class InvoiceService {
                 .build();
     }
     
-    private InvoiceSummary computeSummary(java.util.List<InvoiceItem> items) {
+    private InvoiceUserInfo toUserInfo(UUID userId, InvoiceLookups lookups) {
+        User user = userId != null ? lookups.users().get(userId) : null;
+        if (user == null) {
+            return null;
+        }
+        return InvoiceUserInfo.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private InvoiceSummary toSummary(InvoiceItemTotals totals, Long entryCount) {
+        if (totals == null) {
+            return computeSummary(java.util.List.of(), Map.of());
+        }
+        Integer totalMinutes = positiveOrNull(totals.getTotalMinutes());
+        return InvoiceSummary.builder()
+                .totalMinutes(totalMinutes)
+                .totalBillableMinutes(totalMinutes) // Assuming all are billable
+                .entryCount(positiveOrNull(entryCount))
+                .contributorsCount(positiveOrNull(totals.getContributorsCount()))
+                .tasksCount(positiveOrNull(totals.getTasksCount()))
+                .build();
+    }
+
+    private static Integer positiveOrNull(Long value) {
+        return value != null && value > 0 ? value.intValue() : null;
+    }
+
+    private static <E> Set<UUID> idsOf(Collection<E> rows, java.util.function.Function<E, UUID> id) {
+        Set<UUID> ids = new HashSet<>();
+        for (E row : rows) {
+            UUID value = id.apply(row);
+            if (value != null) {
+                ids.add(value);
+            }
+        }
+        return ids;
+    }
+
+    private static <T> java.util.List<T> loadInChunks(Collection<UUID> ids,
+                                                      java.util.function.Function<java.util.List<UUID>, java.util.List<T>> loader) {
+        java.util.List<UUID> distinct = new ArrayList<>(ids);
+        java.util.List<T> rows = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += ReportDimensionResolver.CHUNK_SIZE) {
+            rows.addAll(loader.apply(distinct.subList(from, Math.min(from + ReportDimensionResolver.CHUNK_SIZE, distinct.size()))));
+        }
+        return rows;
+    }
+
+    private static <T> Map<UUID, T> byId(java.util.List<T> rows, java.util.function.Function<T, UUID> id) {
+        Map<UUID, T> map = new HashMap<>();
+        rows.forEach(row -> map.put(id.apply(row), row));
+        return map;
+    }
+
+    private record InvoiceLookups(Map<UUID, Client> clients, Map<UUID, Project> projects, Map<UUID, User> users,
+                                  Map<UUID, java.util.List<UUID>> entriesByItem) {
+    }
+
+    private InvoiceSummary computeSummary(java.util.List<InvoiceItem> items, Map<UUID, java.util.List<UUID>> entriesByItem) {
         int totalMinutes = items.stream()
                 .filter(item -> "TIME".equals(item.getItemType()) && item.getMinutes() != null)
                 .mapToInt(InvoiceItem::getMinutes)
@@ -485,8 +573,7 @@ public class InvoiceService {
                 .collect(Collectors.toSet());
         
         int entryCount = items.stream()
-                .filter(item -> item.getSourceTimeEntryIds() != null && !item.getSourceTimeEntryIds().isEmpty())
-                .mapToInt(item -> item.getSourceTimeEntryIds().split(",").length)
+                .mapToInt(item -> entriesByItem.getOrDefault(item.getId(), java.util.List.of()).size())
                 .sum();
         
         return InvoiceSummary.builder()
@@ -571,15 +658,32 @@ public class InvoiceService {
         }
     }
     
-    public byte[] generateInvoicePDF(UUID invoiceId, UUID companyId) {
+    /**
+     * Loads what {@link #writeInvoicePDF} renders. Called before the response is committed, so
+     * a missing invoice is reported as 404 rather than failing in the middle of the stream.
+     */
+    @Transactional(readOnly = true)
+    public InvoicePdf loadInvoicePdf(UUID invoiceId, UUID companyId) {
         Invoice invoice = invoiceRepository.findByIdAndCompanyIdAndDeletedAtIsNull(invoiceId, companyId)
-            .orElseThrow(() -> new RuntimeException("Invoice not found"));
-        
-        java.util.List<InvoiceItem> items = invoiceItemRepository.findByInvoiceId(invoiceId);
+            .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+        return new InvoicePdf(invoice, invoiceItemRepository.findByInvoiceId(invoiceId));
+    }
+    
+    public record InvoicePdf(Invoice invoice, java.util.List<InvoiceItem> items) {
+    }
+    
+    /**
+     * Renders the invoice as PDF directly into {@code out}. Line items are flushed to the
+     * stream in chunks, so the output is not buffered in memory.
+     */
+    public void writeInvoicePDF(InvoicePdf pdf, OutputStream out) {
+        Invoice invoice = pdf.invoice();
+        java.util.List<InvoiceItem> items = pdf.items();
         
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        try {
             Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
             
             // Fonts
@@ -728,6 +832,8 @@ public class InvoiceService {
             PdfPTable itemsTable = new PdfPTable(4);
             itemsTable.setWidthPercentage(100);
             itemsTable.setWidths(new float[]{3, 1, 1.5f, 1.5f});
+            itemsTable.setHeaderRows(1);
+            itemsTable.setComplete(false);
             
             // Table Header
             PdfPCell headerCell;
@@ -741,6 +847,7 @@ public class InvoiceService {
             }
             
             // Table Rows
+            int pendingRows = 0;
             for (InvoiceItem item : items) {
                 PdfPCell descCell = new PdfPCell(new Phrase(item.getDescription(), normalFont));
                 descCell.setPadding(6);
@@ -764,6 +871,11 @@ public class InvoiceService {
                 amountCell.setPadding(6);
                 amountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
                 itemsTable.addCell(amountCell);
+                
+                if (++pendingRows == PDF_FLUSH_ROWS) {
+                    document.add(itemsTable);
+                    pendingRows = 0;
+                }
             }
             
             // Footer - Subtotal
@@ -822,6 +934,7 @@ public class InvoiceService {
             totalValue.setBackgroundColor(new Color(249, 250, 251));
             itemsTable.addCell(totalValue);
             
+            itemsTable.setComplete(true);
             document.add(itemsTable);
             document.add(new Paragraph(" "));
             
@@ -845,10 +958,9 @@ public class InvoiceService {
             }
             
             document.close();
-            return baos.toByteArray();
             
         } catch (Exception e) {
-            log.error("Error generating PDF for invoice {}", invoiceId, e);
+            log.error("Error generating PDF for invoice {}", invoice.getId(), e);
             throw new RuntimeException("Failed to generate PDF: " + e.getMessage());
         }
     }
@@ -25,6 +25,7 @@ public class LeaveService {
     private final UserRepository userRepository;
     private final OrgScopeService orgScopeService;
     private final NotificationService notificationService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
     /**
      * Get all leave requests for current user.
@@ -59,6 +60,7 @@ public class LeaveService {
                 .build();
         
         LeaveRequest saved = leaveRequestRepository.save(leaveRequest);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify approvers - only direct manager and TOP_USER
         User requestingUser = userRepository.findById(userId).orElse(null);
@@ -161,6 +163,7 @@ public class LeaveService {
             leaveRequest.setDecisionNote(request.getDecisionNote());
             leaveRequest.setDecidedAt(LocalDateTime.now());
             leaveRequestRepository.save(leaveRequest);
+            dashboardSnapshotCache.invalidateCompany(companyId);
             return toResponse(leaveRequest);
         }
         
@@ -185,6 +188,7 @@ public class LeaveService {
         leaveRequest.setDecidedAt(LocalDateTime.now());
         
         leaveRequestRepository.save(leaveRequest);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify the leave requester
         String notificationType = "APPROVED".equals(request.getStatus()) ? 
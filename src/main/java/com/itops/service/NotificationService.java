@@ -2,6 +2,8 @@ package com.itops.service;
 
 import com.itops.domain.Notification;
 import com.itops.domain.User;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.NotificationResponse;
 import com.itops.repository.NotificationRepository;
 import com.itops.repository.UserRepository;
@@ -88,13 +90,37 @@ public class NotificationService {
     }
     
     /**
-     * Get all notifications for a user
+     * Create many notifications with batched inserts. Recipients are referenced by id and not
+     * loaded, so this suits system events that notify many users at once.
      */
-    public List<NotificationResponse> getUserNotifications(UUID userId) {
-        return notificationRepository.findByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::toResponse)
+    @Transactional
+    public void createNotifications(UUID companyId, List<NotificationDraft> drafts) {
+        List<Notification> notifications = drafts.stream()
+                .map(draft -> {
+                    Notification notification = Notification.builder()
+                            .user(userRepository.getReferenceById(draft.userId()))
+                            .type(draft.type())
+                            .title(draft.title())
+                            .message(draft.message())
+                            .entityType(draft.entityType())
+                            .entityId(draft.entityId())
+                            .actor(draft.actorId() != null ? userRepository.getReferenceById(draft.actorId()) : null)
+                            .isRead(false)
+                            .build();
+                    notification.setCompanyId(companyId);
+                    return notification;
+                })
                 .toList();
+        notificationRepository.saveAll(notifications);
+    }
+    
+    /**
+     * Get all notifications for a user
+     */
+    public CursorPage<NotificationResponse> getUserNotifications(UUID userId, CursorPageRequest page) {
+        List<Notification> notifications = notificationRepository.findPage(
+                userId, page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+        return page.slice(notifications, Notification::getCreatedAt, Notification::getId, this::toResponse);
     }
     
     /**
@@ -175,4 +201,8 @@ public class NotificationService {
                 .updatedAt(notification.getUpdatedAt())
                 .build();
     }
+    
+    public record NotificationDraft(UUID userId, String type, String title, String message,
+                                    String entityType, UUID entityId, UUID actorId) {
+    }
 }
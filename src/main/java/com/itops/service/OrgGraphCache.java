@@ -0,0 +1,180 @@
+package com.itops.service;
+
+import com.itops.domain.User;
+import com.itops.repository.TeamRepository;
+import com.itops.repository.UserRepository;
+import com.itops.repository.projection.OrgTeamRef;
+import com.itops.repository.projection.OrgUserRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an in-memory picture of each company's organisation: the role and team of every user,
+ * who created which team and which user. A company's graph is loaded with two queries the first
+ * time it is needed and then answers scope questions without touching the database. User and team
+ * writes call {@link #invalidateCompany(UUID)}, which works like {@link DashboardSnapshotCache}:
+ * graphs built under an older generation are discarded.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgGraphCache {
+
+    private final UserRepository userRepository;
+    private final TeamRepository teamRepository;
+
+    @Value("${org.graph-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${org.graph-cache.max-companies:1000}")
+    private int maxCompanies;
+
+    private final Map<UUID, CachedGraph> graphs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedGraph> eldest) {
+            return size() > maxCompanies;
+        }
+    };
+
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public OrgGraph get(UUID companyId) {
+        OrgGraph cached = cached(companyId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generationOf(companyId).get();
+        OrgGraph graph = new OrgGraph(userRepository.findOrgRefs(companyId), teamRepository.findOrgRefs(companyId));
+        if (generationOf(companyId).get() == generation) {
+            synchronized (graphs) {
+                graphs.put(companyId, new CachedGraph(graph, generation, System.currentTimeMillis() + ttlSeconds * 1000));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Ids of every user created directly or indirectly by {@code creatorId}. Answered from the
+     * cached graph when the company is loaded, otherwise with a single recursive query so that a
+     * one-off lookup does not pay for building the whole graph.
+     */
+    public Set<UUID> descendantsOf(UUID companyId, UUID creatorId) {
+        OrgGraph cached = cached(companyId);
+        if (cached != null) {
+            return cached.descendantsOf(creatorId);
+        }
+        return new HashSet<>(userRepository.findDescendantIds(companyId, creatorId));
+    }
+
+    /**
+     * Drops the company's graph. Inside a transaction the generation is bumped again after commit,
+     * so a graph rebuilt concurrently cannot capture the organisation as it was before the write.
+     */
+    public void invalidateCompany(UUID companyId) {
+        if (companyId == null) {
+            return;
+        }
+        generationOf(companyId).incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generationOf(companyId).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private OrgGraph cached(UUID companyId) {
+        long generation = generationOf(companyId).get();
+        synchronized (graphs) {
+            CachedGraph cached = graphs.get(companyId);
+            if (cached != null && cached.generation() == generation && cached.expiresAt() > System.currentTimeMillis()) {
+                return cached.graph();
+            }
+        }
+        return null;
+    }
+
+    private AtomicLong generationOf(UUID companyId) {
+        return generations.computeIfAbsent(companyId, id -> new AtomicLong());
+    }
+
+    private record CachedGraph(OrgGraph graph, long generation, long expiresAt) {
+    }
+
+    /**
+     * Immutable snapshot of one company's active users and teams. Lookups return fresh sets that
+     * callers may modify.
+     */
+    public static class OrgGraph {
+        private final Map<UUID, User.UserRole> roles = new HashMap<>();
+        private final Map<UUID, UUID> teamOfUser = new HashMap<>();
+        private final Map<UUID, List<UUID>> membersByTeam = new HashMap<>();
+        private final Map<UUID, List<UUID>> teamsByCreator = new HashMap<>();
+        private final Map<UUID, List<UUID>> usersByCreator = new HashMap<>();
+
+        OrgGraph(List<OrgUserRef> users, List<OrgTeamRef> teams) {
+            for (OrgUserRef user : users) {
+                roles.put(user.getId(), user.getRole());
+                if (user.getTeamId() != null) {
+                    teamOfUser.put(user.getId(), user.getTeamId());
+                    membersByTeam.computeIfAbsent(user.getTeamId(), id -> new ArrayList<>()).add(user.getId());
+                }
+                if (user.getCreatedByUserId() != null) {
+                    usersByCreator.computeIfAbsent(user.getCreatedByUserId(), id -> new ArrayList<>()).add(user.getId());
+                }
+            }
+            for (OrgTeamRef team : teams) {
+                if (team.getCreatedByUserId() != null) {
+                    teamsByCreator.computeIfAbsent(team.getCreatedByUserId(), id -> new ArrayList<>()).add(team.getId());
+                }
+            }
+        }
+
+        public User.UserRole roleOf(UUID userId) {
+            return roles.get(userId);
+        }
+
+        public UUID teamOf(UUID userId) {
+            return teamOfUser.get(userId);
+        }
+
+        public Set<UUID> usersWithRoleOtherThan(User.UserRole excluded) {
+            Set<UUID> ids = new HashSet<>();
+            roles.forEach((id, role) -> {
+                if (role != excluded) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        }
+
+        public Set<UUID> membersOf(UUID teamId) {
+            return new HashSet<>(membersByTeam.getOrDefault(teamId, List.of()));
+        }
+
+        public List<UUID> teamsCreatedBy(UUID userId) {
+            return teamsByCreator.getOrDefault(userId, List.of());
+        }
+
+        public Set<UUID> descendantsOf(UUID creatorId) {
+            Set<UUID> result = new HashSet<>();
+            Deque<UUID> pending = new ArrayDeque<>(usersByCreator.getOrDefault(creatorId, List.of()));
+            while (!pending.isEmpty()) {
+                UUID userId = pending.poll();
+                if (result.add(userId)) {
+                    pending.addAll(usersByCreator.getOrDefault(userId, List.of()));
+                }
+            }
+            return result;
+        }
+    }
+}
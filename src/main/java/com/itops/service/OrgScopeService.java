@@ -1,14 +1,12 @@
 package com.itops.service;
 
-import com.itops.domain.Team;
 import com.itops.domain.User;
-import com.itops.repository.TeamRepository;
-import com.itops.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Service to determine which users a requester can view/manage based on their role.
@@ -22,8 +20,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class OrgScopeService {
-    private final UserRepository userRepository;
-    private final TeamRepository teamRepository;
+    private final OrgGraphCache orgGraphCache;
 
     /**
      * Get list of user IDs that the requester is allowed to access.
@@ -37,11 +34,7 @@ public class OrgScopeService {
         switch (requesterRole) {
             case "TOP_USER":
                 // TOP_USER can see all users in the company (except CLIENT role if desired)
-                return userRepository.findByCompanyIdAndDeletedAtIsNull(companyId)
-                        .stream()
-                        .filter(user -> user.getRole() != User.UserRole.CLIENT)
-                        .map(User::getId)
-                        .collect(Collectors.toSet());
+                return orgGraphCache.get(companyId).usersWithRoleOtherThan(User.UserRole.CLIENT);
 
             case "SUPER_USER":
                 // SUPER_USER can see users in teams they created
@@ -53,11 +46,11 @@ public class OrgScopeService {
 
             case "USER":
                 // USER can only see themselves
-                return Set.of(requesterId);
+                return new HashSet<>(Set.of(requesterId));
 
             default:
                 // CLIENT or unknown roles get empty set
-                return Collections.emptySet();
+                return new HashSet<>();
         }
     }
 
@@ -66,50 +59,21 @@ public class OrgScopeService {
      * SUPER_USER sees ADMIN and USER roles in their teams, but NOT other SUPER_USERs.
      */
     private Set<UUID> getUsersInSuperUserTeams(UUID superUserId, UUID companyId) {
-        // Find all teams created by this SUPER_USER
-        List<Team> teams = teamRepository.findByCreatedByUserIdAndDeletedAtIsNull(superUserId);
-        
-        System.out.println("=== SUPER_USER TEAM SCOPING DEBUG ===");
-        System.out.println("SUPER_USER ID: " + superUserId);
-        System.out.println("Teams created by this SUPER_USER: " + teams.size());
-        
+        OrgGraphCache.OrgGraph graph = orgGraphCache.get(companyId);
+
         Set<UUID> userIds = new HashSet<>();
         userIds.add(superUserId); // Include self
-        
-        for (Team team : teams) {
-            System.out.println("Team: " + team.getName() + " (ID: " + team.getId() + ")");
-            
-            // Get all users assigned to this team
-            List<User> teamMembers = userRepository.findByTeamIdAndDeletedAtIsNull(team.getId());
-            System.out.println("  Total team members: " + teamMembers.size());
-            
-            // First, show ALL team members and their roles
-            for (User user : teamMembers) {
-                System.out.println("    ALL MEMBERS - " + user.getName() + " (Role: " + user.getRole() + ", ID: " + user.getId() + ")");
-            }
-            
+
+        for (UUID teamId : graph.teamsCreatedBy(superUserId)) {
             // Add users who are ADMIN or USER (not other SUPER_USERs)
-            List<User> eligibleMembers = teamMembers.stream()
-                    .filter(user -> {
-                        User.UserRole role = user.getRole();
-                        System.out.println("      Checking role: " + role + " equals ADMIN? " + (role == User.UserRole.ADMIN) + ", equals USER? " + (role == User.UserRole.USER));
-                        return role == User.UserRole.ADMIN || role == User.UserRole.USER;
-                    })
-                    .toList();
-            
-            System.out.println("  Eligible members (ADMIN/USER): " + eligibleMembers.size());
-            for (User user : eligibleMembers) {
-                System.out.println("    ELIGIBLE - " + user.getName() + " (" + user.getRole() + ")");
+            for (UUID memberId : graph.membersOf(teamId)) {
+                User.UserRole role = graph.roleOf(memberId);
+                if (role == User.UserRole.ADMIN || role == User.UserRole.USER) {
+                    userIds.add(memberId);
+                }
             }
-            
-            eligibleMembers.stream()
-                    .map(User::getId)
-                    .forEach(userIds::add);
         }
-        
-        System.out.println("Total allowed user IDs (including self): " + userIds.size());
-        System.out.println("=====================================");
-        
+
         return userIds;
     }
 
@@ -117,22 +81,11 @@ public class OrgScopeService {
      * Get users in the same team as an ADMIN.
      */
     private Set<UUID> getUsersInAdminTeam(UUID adminId, UUID companyId) {
-        User admin = userRepository.findById(adminId).orElse(null);
-        if (admin == null || admin.getTeamId() == null) {
-            return Set.of(adminId); // Only themselves if no team
-        }
-        
-        // Get all users in the same team
-        List<User> teamMembers = userRepository.findByTeamIdAndDeletedAtIsNull(admin.getTeamId());
-        
-        Set<UUID> userIds = new HashSet<>();
-        userIds.add(adminId); // Include self
-        
-        // Add all team members (typically other ADMINs and USERs)
-        teamMembers.stream()
-                .map(User::getId)
-                .forEach(userIds::add);
-        
+        OrgGraphCache.OrgGraph graph = orgGraphCache.get(companyId);
+        UUID teamId = graph.teamOf(adminId);
+
+        Set<UUID> userIds = teamId != null ? graph.membersOf(teamId) : new HashSet<>();
+        userIds.add(adminId); // Include self, or only themselves if no team
         return userIds;
     }
 
@@ -30,6 +30,7 @@ public class ProjectMemberService {
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
     private final NotificationService notificationService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
     @Transactional(readOnly = true)
     public List<ProjectMemberResponse> getProjectMembers(UUID projectId, UUID companyId) {
@@ -85,6 +86,7 @@ public class ProjectMemberService {
         
         ProjectMember savedMember = projectMemberRepository.save(member);
         log.info("Successfully added member to project");
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify the new member
         notificationService.createNotification(
@@ -120,6 +122,7 @@ public class ProjectMemberService {
         // Soft delete by calling repository delete (triggers @SQLDelete)
         projectMemberRepository.delete(member);
         log.info("Successfully removed member from project");
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify the removed member
         notificationService.createNotification(
@@ -168,6 +171,7 @@ public class ProjectMemberService {
         
         projectMemberRepository.save(member);
         log.info("Successfully auto-added member to project");
+        dashboardSnapshotCache.invalidateCompany(companyId);
     }
     
     @Transactional
@@ -204,6 +208,7 @@ public class ProjectMemberService {
                             
                             projectMemberRepository.save(member);
                             addedCount++;
+                            dashboardSnapshotCache.invalidateCompany(companyId);
                             log.info("Auto-added member {} from existing task assignment", user.getId());
                         }
                     } catch (Exception e) {
@@ -6,6 +6,8 @@ import com.itops.domain.ProjectPhase;
 import com.itops.domain.Task;
 import com.itops.domain.TimeEntry;
 import com.itops.domain.User;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.NotificationType;
 import com.itops.dto.ProjectRequest;
 import com.itops.dto.ProjectResponse;
@@ -19,6 +21,7 @@ import com.itops.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDate;
@@ -29,7 +32,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -44,6 +46,8 @@ public class ProjectService {
     private final TimeEntryRepository timeEntryRepository;
     private final NotificationService notificationService;
     private final SubscriptionGuard subscriptionGuard;
+    private final UsageService usageService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
     public List<ProjectResponse> getAllProjects(UUID companyId) {
         return projectRepository.findByCompanyId(companyId)
@@ -52,7 +56,11 @@ public class ProjectService {
                 .collect(Collectors.toList());
     }
 
-    public List<ProjectResponse> getAllProjectsWithFilters(
+    /**
+     * Lists projects with all filters applied in the query. Paged requests are ordered newest
+     * first by creation time; {@code sortBy} only applies to unpaged requests.
+     */
+    public CursorPage<ProjectResponse> getAllProjectsWithFilters(
             UUID companyId,
             String status,
             String priority,
@@ -61,114 +69,58 @@ public class ProjectService {
             String sortBy,
             String userRole,
             UUID teamId,
-            UUID userId) {
+            UUID userId,
+            CursorPageRequest page) {
         
         log.info("Getting projects for companyId: {}, userRole: {}, userId: {}, teamId: {}", 
             companyId, userRole, userId, teamId);
         
-        // Get all projects for the company
-        Stream<Project> projectStream = projectRepository.findByCompanyId(companyId).stream();
-        List<Project> allProjects = projectStream.collect(Collectors.toList());
-        log.info("Total projects in company: {}", allProjects.size());
-        projectStream = allProjects.stream();
-        
-        // For ADMIN and USER roles: Filter to only show projects owned by their team members or manager
-        if (("ADMIN".equals(userRole) || "USER".equals(userRole)) && userId != null) {
-            // Get all users in the same team (if teamId exists)
-            Set<UUID> allowedOwnerIds = new HashSet<>();
-            Set<UUID> allowedProjectIds = new HashSet<>();
-            
-            if (teamId != null) {
-                List<UUID> teamMemberIds = userRepository.findByTeamId(teamId)
-                        .stream()
-                        .map(User::getId)
-                        .collect(Collectors.toList());
-                allowedOwnerIds.addAll(teamMemberIds);
-                
-                // Add projects with phases assigned to user's team
-                List<UUID> projectsWithTeamPhases = projectPhaseRepository.findProjectIdsByTeamId(teamId);
-                allowedProjectIds.addAll(projectsWithTeamPhases);
-            }
-            
-            // Get current user to find their manager (createdByUserId)
-            userRepository.findById(userId).ifPresent(currentUser -> {
-                if (currentUser.getCreatedByUserId() != null) {
-                    allowedOwnerIds.add(currentUser.getCreatedByUserId());
-                }
-            });
-            
-            // Also allow projects owned by the user themselves
-            allowedOwnerIds.add(userId);
-            
-            // Filter projects where:
-            // 1. Project has phases assigned to the team, OR
-            // 2. ProjectOwnerId is null (unassigned - visible to team), OR
-            // 3. ProjectOwnerId is in the allowed list (owned by team member or their manager)
-            final Set<UUID> finalAllowedOwnerIds = allowedOwnerIds;
-            final Set<UUID> finalAllowedProjectIds = allowedProjectIds;
-            projectStream = projectStream.filter(p -> 
-                finalAllowedProjectIds.contains(p.getId()) ||
-                p.getProjectOwnerId() == null ||
-                finalAllowedOwnerIds.contains(p.getProjectOwnerId())
-            );
-            
-            List<Project> filteredProjects = projectStream.collect(Collectors.toList());
-            log.info("After filtering for ADMIN/USER - Projects visible: {}", filteredProjects.size());
-            projectStream = filteredProjects.stream();
-        } else {
-            log.info("No filtering applied for role: {}", userRole);
-        }
-        
-        // Apply status filter
-        if (status != null && !status.isEmpty()) {
-            projectStream = projectStream.filter(p -> status.equalsIgnoreCase(p.getStatus()));
-        }
-        
-        // Apply priority filter
-        if (priority != null && !priority.isEmpty()) {
-            projectStream = projectStream.filter(p -> priority.equalsIgnoreCase(p.getPriority()));
-        }
+        // For ADMIN and USER roles: only projects that are unowned, owned by the user, their manager
+        // or a team member, or that have a phase assigned to the user's team
+        boolean restricted = ("ADMIN".equals(userRole) || "USER".equals(userRole)) && userId != null;
+        UUID managerId = restricted
+                ? userRepository.findById(userId).map(User::getCreatedByUserId).orElse(null)
+                : null;
         
-        // Apply client filter
+        UUID clientUUID = null;
         if (clientId != null && !clientId.isEmpty()) {
             try {
-                UUID clientUUID = UUID.fromString(clientId);
-                projectStream = projectStream.filter(p -> 
-                    p.getClientId() != null && p.getClientId().equals(clientUUID)
-                );
+                clientUUID = UUID.fromString(clientId);
             } catch (IllegalArgumentException e) {
                 // Invalid UUID, skip filter
             }
         }
         
-        // Apply search filter (name or description)
-        if (search != null && !search.isEmpty()) {
-            String searchLower = search.toLowerCase();
-            projectStream = projectStream.filter(p ->
-                p.getName().toLowerCase().contains(searchLower) ||
-                (p.getDescription() != null && p.getDescription().toLowerCase().contains(searchLower))
-            );
-        }
-        
-        // Apply sorting
-        Comparator<Project> comparator;
-        switch (sortBy != null ? sortBy : "updatedAt") {
-            case "name":
-                comparator = Comparator.comparing(Project::getName);
-                break;
-            case "deadline":
-                comparator = Comparator.comparing(Project::getEndDate, 
-                    Comparator.nullsLast(Comparator.naturalOrder()));
-                break;
-            default: // updatedAt
-                comparator = Comparator.comparing(Project::getUpdatedAt).reversed();
-                break;
+        // Case-insensitive "contains" on name or description
+        String searchPattern = search != null && !search.isEmpty()
+                ? "%" + search.toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%"
+                : null;
+        
+        List<Project> projects = projectRepository.findPage(companyId, restricted, userId, managerId, teamId,
+                status != null && !status.isEmpty() ? status : null,
+                priority != null && !priority.isEmpty() ? priority : null,
+                clientUUID, searchPattern,
+                page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+        log.info("Projects visible: {}", projects.size());
+        
+        if (!page.isPaged()) {
+            Comparator<Project> comparator;
+            switch (sortBy != null ? sortBy : "updatedAt") {
+                case "name":
+                    comparator = Comparator.comparing(Project::getName);
+                    break;
+                case "deadline":
+                    comparator = Comparator.comparing(Project::getEndDate, 
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                default: // updatedAt
+                    comparator = Comparator.comparing(Project::getUpdatedAt).reversed();
+                    break;
+            }
+            projects = projects.stream().sorted(comparator).collect(Collectors.toList());
         }
         
-        return projectStream
-                .sorted(comparator)
-                .map(this::toResponseWithOverview)
-                .collect(Collectors.toList());
+        return page.slice(projects, Project::getCreatedAt, Project::getId, this::toResponseWithOverview);
     }
 
     public ProjectResponse getProjectById(UUID id, UUID companyId) {
@@ -178,6 +130,7 @@ public class ProjectService {
         return toResponseWithOverview(project);
     }
 
+    @Transactional
     public ProjectResponse createProject(ProjectRequest request, UUID companyId, UUID actorId) {
         // Enforce subscription limits
         subscriptionGuard.enforceProjectCreation(companyId);
@@ -195,6 +148,7 @@ public class ProjectService {
         project.setCompanyId(companyId);
 
         Project saved = projectRepository.save(project);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify project owner and all project members
         notifyProjectCreated(saved, actorId);
@@ -225,6 +179,7 @@ public class ProjectService {
         log.info("Project projectOwnerId after setting: {}", project.getProjectOwnerId());
         
         Project updated = projectRepository.save(project);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         log.info("Project projectOwnerId after save: {}", updated.getProjectOwnerId());
         
@@ -241,11 +196,14 @@ public class ProjectService {
         return toResponse(updated);
     }
 
+    @Transactional
     public void deleteProject(UUID id, UUID companyId) {
         Project project = projectRepository.findById(id)
                 .filter(p -> p.getCompanyId().equals(companyId))
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
         projectRepository.delete(project);
+        usageService.releaseProject(companyId);
+        dashboardSnapshotCache.invalidateCompany(companyId);
     }
 
     private ProjectResponse toResponse(Project project) {
@@ -0,0 +1,57 @@
+package com.itops.service;
+
+import com.itops.repository.ClientRepository;
+import com.itops.repository.ProjectRepository;
+import com.itops.repository.TaskRepository;
+import com.itops.repository.UserRepository;
+import com.itops.repository.projection.NamedRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Resolves the display names of clients, projects, users and tasks referenced by report rows.
+ * All ids of one type are looked up together (in chunks of {@value #CHUNK_SIZE}), so labelling
+ * a report costs one query per dimension instead of one per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportDimensionResolver {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final ClientRepository clientRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+
+    public Map<UUID, String> clientNames(UUID companyId, Collection<UUID> ids) {
+        return resolve(ids, chunk -> clientRepository.findNamesByIds(companyId, chunk));
+    }
+
+    public Map<UUID, String> projectNames(UUID companyId, Collection<UUID> ids) {
+        return resolve(ids, chunk -> projectRepository.findNamesByIds(companyId, chunk));
+    }
+
+    public Map<UUID, String> userNames(UUID companyId, Collection<UUID> ids) {
+        return resolve(ids, chunk -> userRepository.findNamesByIds(companyId, chunk));
+    }
+
+    public Map<UUID, String> taskTitles(UUID companyId, Collection<UUID> ids) {
+        return resolve(ids, chunk -> taskRepository.findTitlesByIds(companyId, chunk));
+    }
+
+    private Map<UUID, String> resolve(Collection<UUID> ids, Function<List<UUID>, List<NamedRef>> loader) {
+        List<UUID> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<UUID, String> names = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size()));
+            for (NamedRef ref : loader.apply(chunk)) {
+                names.put(ref.getId(), ref.getName());
+            }
+        }
+        return names;
+    }
+}
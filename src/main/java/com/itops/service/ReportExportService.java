@@ -0,0 +1,325 @@
+package com.itops.service;
+
+import com.itops.domain.ReportJob;
+import com.itops.dto.ReportFilterDTO;
+import com.itops.dto.ReportJobRequest;
+import com.itops.dto.ReportJobResponse;
+import com.itops.exception.ResourceNotFoundException;
+import com.itops.exception.TooManyRequestsException;
+import com.itops.repository.ReportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Renders report PDFs in the background. Jobs are persisted in {@code report_jobs}, executed by
+ * a bounded worker pool, and their artifacts are written under the upload directory and removed
+ * once they expire. Each company may only have a limited number of jobs queued or running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportExportService {
+
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final Set<String> REPORT_TYPES = Set.of("REVENUE", "PROJECTS", "TIME", "TEAM");
+    private static final List<String> ACTIVE_STATUSES = List.of(QUEUED, RUNNING);
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportService reportService;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${report.export.pool-size:2}")
+    private int poolSize;
+
+    @Value("${report.export.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${report.export.max-active-per-company:2}")
+    private int maxActivePerCompany;
+
+    @Value("${report.export.artifact-ttl-hours:24}")
+    private long artifactTtlHours;
+
+    @Value("${report.export.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    // Jobs queued or running on this instance, whose heartbeat it refreshes
+    private final Set<UUID> heldJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void startWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        executor.shutdownNow();
+    }
+
+    @Transactional
+    public ReportJobResponse submit(UUID companyId, UUID userId, ReportJobRequest request) {
+        String reportType = request.getReportType() != null ? request.getReportType().toUpperCase(Locale.ROOT) : null;
+        if (!REPORT_TYPES.contains(reportType)) {
+            throw new IllegalArgumentException("Unsupported report type: " + request.getReportType());
+        }
+
+        reportJobRepository.lockCompany("report_jobs:" + companyId);
+        if (reportJobRepository.countByCompanyIdAndStatusIn(companyId, ACTIVE_STATUSES) >= maxActivePerCompany) {
+            throw new TooManyRequestsException("Too many report exports in progress, please wait for one to finish");
+        }
+
+        ReportFilterDTO filter = request.getFilter() != null ? request.getFilter() : new ReportFilterDTO();
+        ReportJob job = ReportJob.builder()
+                .requestedBy(userId)
+                .reportType(reportType)
+                .status(QUEUED)
+                .heartbeatAt(LocalDateTime.now())
+                .period(filter.getPeriod())
+                .startDate(filter.getStartDate())
+                .endDate(filter.getEndDate())
+                .clientId(filter.getClientId())
+                .projectId(filter.getProjectId())
+                .teamId(filter.getTeamId())
+                .userId(filter.getUserId())
+                .build();
+        job.setCompanyId(companyId);
+        job = reportJobRepository.save(job);
+
+        // Hand the job to a worker only once the row is visible to it
+        UUID jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(jobId);
+            }
+        });
+
+        log.info("Queued {} report export {} for company {}", reportType, jobId, companyId);
+        return toResponse(job);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportJobResponse getJob(UUID id, UUID companyId, UUID userId) {
+        return toResponse(findJob(id, companyId, userId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReportJobResponse> getRecentJobs(UUID companyId, UUID userId) {
+        return reportJobRepository.findTop20ByCompanyIdAndRequestedByAndDeletedAtIsNullOrderByCreatedAtDesc(companyId, userId)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Path getArtifact(UUID id, UUID companyId, UUID userId) {
+        ReportJob job = findJob(id, companyId, userId);
+        if (!COMPLETED.equals(job.getStatus())) {
+            throw new IllegalArgumentException("Report export is not ready (status " + job.getStatus() + ")");
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!Files.exists(file)) {
+            throw new ResourceNotFoundException("Report export has expired");
+        }
+        return file;
+    }
+
+    @Scheduled(fixedDelayString = "${report.export.cleanup-interval-ms:900000}")
+    public void cleanupExpired() {
+        List<ReportJob> expired = reportJobRepository.findByExpiresAtBefore(LocalDateTime.now());
+        for (ReportJob job : expired) {
+            deleteArtifact(job);
+            reportJobRepository.delete(job);
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired report exports", expired.size());
+        }
+    }
+
+    /**
+     * Keeps the jobs this instance holds alive, then fails jobs whose holder stopped refreshing
+     * them for {@code report.export.stale-after-seconds}, so they can be requested again. Jobs
+     * that another live instance is still rendering keep a fresh heartbeat and are left alone.
+     */
+    @Scheduled(fixedDelayString = "${report.export.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!heldJobs.isEmpty()) {
+            reportJobRepository.touchHeartbeat(List.copyOf(heldJobs), now);
+        }
+        int failed = reportJobRepository.failStale(now.minusSeconds(staleAfterSeconds),
+                "Interrupted by a server restart", now, now.plusHours(artifactTtlHours));
+        if (failed > 0) {
+            log.info("Failed {} report exports whose worker stopped", failed);
+        }
+    }
+
+    /**
+     * Workers do not survive a restart; jobs the previous process held are failed once their
+     * heartbeat is stale.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            log.warn("Could not reset interrupted report exports", e);
+        }
+    }
+
+    private void dispatch(UUID jobId) {
+        heldJobs.add(jobId);
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    heldJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            heldJobs.remove(jobId);
+            reportJobRepository.findById(jobId).ifPresent(job -> markFailed(job, "Export queue is full, please retry later"));
+        }
+    }
+
+    private void run(UUID jobId) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || !QUEUED.equals(job.getStatus())) {
+            return;
+        }
+        job.setStatus(RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setHeartbeatAt(job.getStartedAt());
+        job = reportJobRepository.save(job);
+
+        Path file = Paths.get(uploadDir, "report-exports", job.getCompanyId().toString(), job.getId() + ".pdf");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                render(job, out);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(COMPLETED);
+            job.setFilePath(file.toString());
+            job.setFileSize(Files.size(file));
+            job.setCompletedAt(now);
+            job.setExpiresAt(now.plusHours(artifactTtlHours));
+            reportJobRepository.save(job);
+            log.info("Completed report export {} ({} bytes)", job.getId(), job.getFileSize());
+        } catch (Exception e) {
+            log.error("Report export {} failed", job.getId(), e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Leftover file is removed with the job by the cleanup task
+            }
+            markFailed(job, e.getMessage());
+        }
+    }
+
+    private void render(ReportJob job, OutputStream out) {
+        ReportFilterDTO filter = new ReportFilterDTO();
+        filter.setPeriod(job.getPeriod());
+        filter.setStartDate(job.getStartDate());
+        filter.setEndDate(job.getEndDate());
+        filter.setClientId(job.getClientId());
+        filter.setProjectId(job.getProjectId());
+        filter.setTeamId(job.getTeamId());
+        filter.setUserId(job.getUserId());
+        String period = filter.getPeriod() != null ? filter.getPeriod() : "month";
+        UUID companyId = job.getCompanyId();
+
+        switch (job.getReportType()) {
+            case "REVENUE" -> reportService.writeRevenuePDF(reportService.getRevenueReport(companyId, filter), period, out);
+            case "PROJECTS" -> reportService.writeProjectPDF(reportService.getProjectReport(companyId, filter), period, out);
+            case "TIME" -> reportService.writeTimePDF(reportService.getTimeReport(companyId, filter), period, out);
+            case "TEAM" -> reportService.writeTeamPDF(reportService.getTeamReport(companyId, filter), period, out);
+            default -> throw new IllegalArgumentException("Unsupported report type: " + job.getReportType());
+        }
+    }
+
+    private void markFailed(ReportJob job, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(FAILED);
+        job.setErrorMessage(message);
+        job.setCompletedAt(now);
+        job.setExpiresAt(now.plusHours(artifactTtlHours));
+        reportJobRepository.save(job);
+    }
+
+    private void deleteArtifact(ReportJob job) {
+        if (job.getFilePath() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+        } catch (IOException e) {
+            log.warn("Could not delete report export artifact {}", job.getFilePath(), e);
+        }
+    }
+
+    // Jobs are private to the user who requested them, like the recent jobs list
+    private ReportJob findJob(UUID id, UUID companyId, UUID userId) {
+        return reportJobRepository.findByIdAndCompanyIdAndRequestedByAndDeletedAtIsNull(id, companyId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report export not found"));
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        return ReportJobResponse.builder()
+                .id(job.getId())
+                .reportType(job.getReportType())
+                .status(job.getStatus())
+                .errorMessage(job.getErrorMessage())
+                .fileSize(job.getFileSize())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+}
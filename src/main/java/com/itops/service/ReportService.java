@@ -3,6 +3,13 @@ package com.itops.service;
 import com.itops.domain.*;
 import com.itops.dto.*;
 import com.itops.repository.*;
+import com.itops.repository.projection.DailyTotal;
+import com.itops.repository.projection.DatedMinuteTotals;
+import com.itops.repository.projection.KeyedMinuteTotals;
+import com.itops.repository.projection.KeyedStatusCount;
+import com.itops.repository.projection.KeyedTotal;
+import com.itops.repository.projection.LabeledTotal;
+import com.itops.repository.projection.MinuteTotals;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
@@ -19,11 +26,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,111 +39,89 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReportService {
 
-    private final InvoiceRepository invoiceRepository;
     private final ProjectRepository projectRepository;
-    private final TaskRepository taskRepository;
     private final TimeEntryRepository timeEntryRepository;
     private final UserRepository userRepository;
-    private final ClientRepository clientRepository;
+    private final InvoiceDailyRollupRepository invoiceRollupRepository;
+    private final TimeDailyRollupRepository timeRollupRepository;
+    private final TaskStatusRollupRepository taskRollupRepository;
+    private final ReportDimensionResolver dimensionResolver;
+
+    private static final int PDF_FLUSH_ROWS = 50;
 
     @Transactional(readOnly = true)
     public RevenueReportDTO getRevenueReport(UUID companyId, ReportFilterDTO filter) {
         LocalDate[] dates = calculateDateRange(filter);
         LocalDate startDate = dates[0];
         LocalDate endDate = dates[1];
-
-        java.util.List<Invoice> invoices = invoiceRepository.findFilteredInvoices(
-            companyId, filter.getClientId(), filter.getProjectId(), 
-            null, startDate, endDate
-        );
+        UUID clientId = filter.getClientId();
+        UUID projectId = filter.getProjectId();
 
         BigDecimal totalRevenue = BigDecimal.ZERO;
         BigDecimal paidAmount = BigDecimal.ZERO;
         BigDecimal pendingAmount = BigDecimal.ZERO;
         BigDecimal overdueAmount = BigDecimal.ZERO;
-        int totalInvoices = invoices.size();
+        int totalInvoices = 0;
         int paidInvoices = 0;
         int pendingInvoices = 0;
         int overdueInvoices = 0;
 
-        for (Invoice inv : invoices) {
-            BigDecimal total = inv.getTotal();
+        for (LabeledTotal row : invoiceRollupRepository.sumByStatus(companyId, clientId, projectId, startDate, endDate)) {
+            BigDecimal total = row.getTotal();
+            int count = row.getCount().intValue();
             totalRevenue = totalRevenue.add(total);
+            totalInvoices += count;
 
-            if ("PAID".equals(inv.getStatus())) {
+            if ("PAID".equals(row.getLabel())) {
                 paidAmount = paidAmount.add(total);
-                paidInvoices++;
-            } else if ("OVERDUE".equals(inv.getStatus())) {
+                paidInvoices += count;
+            } else if ("OVERDUE".equals(row.getLabel())) {
                 overdueAmount = overdueAmount.add(total);
-                overdueInvoices++;
+                overdueInvoices += count;
             } else {
                 pendingAmount = pendingAmount.add(total);
-                pendingInvoices++;
+                pendingInvoices += count;
             }
         }
 
         java.util.List<RevenueReportDTO.DailyRevenue> dailyRevenue = new ArrayList<>();
-        Map<LocalDate, BigDecimal> revenueByDate = new HashMap<>();
-        Map<LocalDate, Integer> countByDate = new HashMap<>();
-        
-        for (Invoice inv : invoices) {
-            LocalDate date = inv.getIssueDate();
-            revenueByDate.merge(date, inv.getTotal(), BigDecimal::add);
-            countByDate.merge(date, 1, Integer::sum);
-        }
-        
-        for (Map.Entry<LocalDate, BigDecimal> entry : revenueByDate.entrySet()) {
+        for (DailyTotal row : invoiceRollupRepository.sumByDay(companyId, clientId, projectId, startDate, endDate)) {
             dailyRevenue.add(RevenueReportDTO.DailyRevenue.builder()
-                .date(entry.getKey())
-                .amount(entry.getValue())
-                .invoiceCount(countByDate.get(entry.getKey()))
+                .date(row.getDay())
+                .amount(row.getTotal())
+                .invoiceCount(row.getCount().intValue())
                 .build());
         }
-        dailyRevenue.sort(Comparator.comparing(RevenueReportDTO.DailyRevenue::getDate));
+
+        java.util.List<KeyedTotal> clientTotals = invoiceRollupRepository.sumByClient(companyId, clientId, projectId, startDate, endDate);
+        Map<UUID, String> clientNames = dimensionResolver.clientNames(companyId, keysOf(clientTotals));
 
         java.util.List<RevenueReportDTO.ClientRevenue> revenueByClient = new ArrayList<>();
-        Map<UUID, BigDecimal> clientRevenueMap = new HashMap<>();
-        Map<UUID, Integer> clientInvoiceCount = new HashMap<>();
-        
-        for (Invoice inv : invoices) {
-            if (inv.getClientId() != null) {
-                clientRevenueMap.merge(inv.getClientId(), inv.getTotal(), BigDecimal::add);
-                clientInvoiceCount.merge(inv.getClientId(), 1, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<UUID, BigDecimal> entry : clientRevenueMap.entrySet()) {
-            Optional<Client> clientOpt = clientRepository.findById(entry.getKey());
-            if (clientOpt.isPresent()) {
+        for (KeyedTotal row : clientTotals) {
+            String clientName = clientNames.get(row.getKey());
+            if (clientName != null) {
                 revenueByClient.add(RevenueReportDTO.ClientRevenue.builder()
-                    .clientId(entry.getKey().toString())
-                    .clientName(clientOpt.get().getName())
-                    .revenue(entry.getValue())
-                    .invoiceCount(clientInvoiceCount.get(entry.getKey()))
+                    .clientId(row.getKey().toString())
+                    .clientName(clientName)
+                    .revenue(row.getTotal())
+                    .invoiceCount(row.getCount().intValue())
                     .build());
             }
         }
         revenueByClient.sort(Comparator.comparing(RevenueReportDTO.ClientRevenue::getRevenue).reversed());
 
+        java.util.List<KeyedTotal> projectTotals = invoiceRollupRepository.sumByProject(companyId, clientId, projectId, startDate, endDate);
+        Map<UUID, String> projectNames = dimensionResolver.projectNames(companyId, keysOf(projectTotals));
+
         java.util.List<RevenueReportDTO.ProjectRevenue> revenueByProject = new ArrayList<>();
-        Map<UUID, BigDecimal> projectRevenueMap = new HashMap<>();
-        Map<UUID, Integer> projectInvoiceCount = new HashMap<>();
-        
-        for (Invoice inv : invoices) {
-            if (inv.getProjectId() != null) {
-                projectRevenueMap.merge(inv.getProjectId(), inv.getTotal(), BigDecimal::add);
-                projectInvoiceCount.merge(inv.getProjectId(), 1, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<UUID, BigDecimal> entry : projectRevenueMap.entrySet()) {
-            Optional<Project> projectOpt = projectRepository.findById(entry.getKey());
-            if (projectOpt.isPresent()) {
+        for (KeyedTotal row : projectTotals) {
+            String projectName = projectNames.get(row.getKey());
+            if (projectName != null) {
                 revenueByProject.add(RevenueReportDTO.ProjectRevenue.builder()
-                    .projectId(entry.getKey().toString())
-                    .projectName(projectOpt.get().getName())
-                    .revenue(entry.getValue())
-                    .invoiceCount(projectInvoiceCount.get(entry.getKey()))
+                    .projectId(row.getKey().toString())
+                    .projectName(projectName)
+                    .revenue(row.getTotal())
+                    .invoiceCount(row.getCount().intValue())
                     .build());
             }
         }
@@ -187,25 +173,34 @@ public class ReportService {
         int onHoldProjects = 0;
         double totalCompletionRate = 0.0;
 
+        // Task counts per project/status and logged minutes per project, one grouped query each
+        Map<UUID, Map<String, Long>> taskCountsByProject = new HashMap<>();
+        for (KeyedStatusCount row : taskRollupRepository.countByProjectAndStatus(companyId)) {
+            taskCountsByProject.computeIfAbsent(row.getKey(), k -> new HashMap<>())
+                .merge(row.getStatus(), row.getCount(), Long::sum);
+        }
+        Map<UUID, Long> minutesByProject = new HashMap<>();
+        for (KeyedMinuteTotals row : timeRollupRepository.sumByProject(companyId)) {
+            minutesByProject.put(row.getKey(), row.getTotalMinutes());
+        }
+
         java.util.List<ProjectReportDTO.ProjectStats> projectStats = new ArrayList<>();
+        Map<String, Integer> taskStatusCount = new HashMap<>();
         
         for (Project project : projects) {
             if ("ACTIVE".equals(project.getStatus())) activeProjects++;
             else if ("COMPLETED".equals(project.getStatus())) completedProjects++;
             else if ("ON_HOLD".equals(project.getStatus())) onHoldProjects++;
 
-            java.util.List<Task> tasks = taskRepository.findByProjectIdAndDeletedAtIsNull(project.getId());
-            int totalTasks = tasks.size();
-            long completedTasks = tasks.stream()
-                .filter(t -> "DONE".equals(t.getStatus()))
-                .count();
+            Map<String, Long> tasksByStatus = taskCountsByProject.getOrDefault(project.getId(), Collections.emptyMap());
+            tasksByStatus.forEach((status, count) -> taskStatusCount.merge(status, count.intValue(), Integer::sum));
+            int totalTasks = (int) tasksByStatus.values().stream().mapToLong(Long::longValue).sum();
+            long completedTasks = tasksByStatus.getOrDefault("DONE", 0L);
             
             double completion = totalTasks > 0 ? (completedTasks * 100.0 / totalTasks) : 0.0;
             totalCompletionRate += completion;
 
-            int totalHours = timeEntryRepository.findByProjectId(project.getId()).stream()
-                .mapToInt(TimeEntry::getHours)
-                .sum();
+            int totalHours = (int) (minutesByProject.getOrDefault(project.getId(), 0L) / 60);
 
             projectStats.add(ProjectReportDTO.ProjectStats.builder()
                 .projectId(project.getId().toString())
@@ -221,21 +216,10 @@ public class ReportService {
 
         Double avgCompletionRate = totalProjects > 0 ? totalCompletionRate / totalProjects : 0.0;
 
-        java.util.List<Task> allTasks = new ArrayList<>();
-        for (Project project : projects) {
-            allTasks.addAll(taskRepository.findByProjectIdAndDeletedAtIsNull(project.getId()));
-        }
-
-        int totalTasks = allTasks.size();
-        int completedTasks = (int) allTasks.stream().filter(t -> "DONE".equals(t.getStatus())).count();
-        int inProgressTasks = (int) allTasks.stream().filter(t -> "IN_PROGRESS".equals(t.getStatus())).count();
-        int todoTasks = (int) allTasks.stream().filter(t -> "TODO".equals(t.getStatus())).count();
-
-        Map<String, Integer> taskStatusCount = new HashMap<>();
-        for (Task task : allTasks) {
-            String status = task.getStatus();
-            taskStatusCount.merge(status, 1, Integer::sum);
-        }
+        int totalTasks = taskStatusCount.values().stream().mapToInt(Integer::intValue).sum();
+        int completedTasks = taskStatusCount.getOrDefault("DONE", 0);
+        int inProgressTasks = taskStatusCount.getOrDefault("IN_PROGRESS", 0);
+        int todoTasks = taskStatusCount.getOrDefault("TODO", 0);
 
         java.util.List<ProjectReportDTO.TaskStatusDistribution> taskDistribution = new ArrayList<>();
         for (Map.Entry<String, Integer> entry : taskStatusCount.entrySet()) {
@@ -267,131 +251,77 @@ public class ReportService {
         LocalDate[] dates = calculateDateRange(filter);
         LocalDate startDate = dates[0];
         LocalDate endDate = dates[1];
+        UUID projectId = filter.getProjectId();
+        UUID userId = filter.getUserId();
 
-        java.util.List<TimeEntry> timeEntries = timeEntryRepository.findByCompanyIdAndDeletedAtIsNull(companyId);
-        
-        timeEntries = timeEntries.stream()
-            .filter(te -> !te.getDate().isBefore(startDate) && !te.getDate().isAfter(endDate))
-            .filter(te -> filter.getProjectId() == null || te.getProjectId().equals(filter.getProjectId()))
-            .filter(te -> filter.getUserId() == null || te.getUserId().equals(filter.getUserId()))
-            .collect(Collectors.toList());
-
-        int totalMinutes = timeEntries.stream()
-            .mapToInt(te -> te.getHours() * 60)
-            .sum();
-        
-        int billableMinutes = timeEntries.stream()
-            .filter(te -> Boolean.TRUE.equals(te.getIsBillable()))
-            .mapToInt(te -> te.getHours() * 60)
-            .sum();
-        
-        int nonBillableMinutes = totalMinutes - billableMinutes;
-        int totalEntries = timeEntries.size();
+        // Filtering and grouping run in the database; only aggregate rows come back
+        MinuteTotals totals = timeEntryRepository.summarizeForReport(companyId, startDate, endDate, projectId, userId);
+        int totalMinutes = (int) totals.getTotalMinutes();
+        int billableMinutes = totals.getBillableMinutes().intValue();
+        int nonBillableMinutes = totals.getNonBillableMinutes().intValue();
+        int totalEntries = totals.getEntryCount().intValue();
 
         long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
         Double avgHoursPerDay = daysBetween > 0 ? totalMinutes / 60.0 / daysBetween : 0.0;
 
         java.util.List<TimeReportDTO.DailyTime> dailyTime = new ArrayList<>();
-        Map<LocalDate, Integer> totalByDate = new HashMap<>();
-        Map<LocalDate, Integer> billableByDate = new HashMap<>();
-        Map<LocalDate, Integer> countByDate = new HashMap<>();
-        
-        for (TimeEntry te : timeEntries) {
-            int minutes = te.getHours() * 60;
-            totalByDate.merge(te.getDate(), minutes, Integer::sum);
-            countByDate.merge(te.getDate(), 1, Integer::sum);
-            if (Boolean.TRUE.equals(te.getIsBillable())) {
-                billableByDate.merge(te.getDate(), minutes, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<LocalDate, Integer> entry : totalByDate.entrySet()) {
+        for (DatedMinuteTotals row : timeEntryRepository.sumByDateForReport(companyId, startDate, endDate, projectId, userId)) {
             dailyTime.add(TimeReportDTO.DailyTime.builder()
-                .date(entry.getKey())
-                .minutes(entry.getValue())
-                .billableMinutes(billableByDate.getOrDefault(entry.getKey(), 0))
-                .entryCount(countByDate.get(entry.getKey()))
+                .date(row.getDay())
+                .minutes((int) row.getTotalMinutes())
+                .billableMinutes(row.getBillableMinutes().intValue())
+                .entryCount(row.getEntryCount().intValue())
                 .build());
         }
-        dailyTime.sort(Comparator.comparing(TimeReportDTO.DailyTime::getDate));
+
+        java.util.List<KeyedMinuteTotals> userTotals = timeEntryRepository.sumByUserForReport(companyId, startDate, endDate, projectId, userId);
+        Map<UUID, String> userNames = dimensionResolver.userNames(companyId, minuteKeysOf(userTotals));
 
         java.util.List<TimeReportDTO.UserTime> timeByUser = new ArrayList<>();
-        Map<UUID, Integer> userTotalMap = new HashMap<>();
-        Map<UUID, Integer> userBillableMap = new HashMap<>();
-        Map<UUID, Integer> userEntryCount = new HashMap<>();
-        
-        for (TimeEntry te : timeEntries) {
-            int minutes = te.getHours() * 60;
-            userTotalMap.merge(te.getUserId(), minutes, Integer::sum);
-            userEntryCount.merge(te.getUserId(), 1, Integer::sum);
-            if (Boolean.TRUE.equals(te.getIsBillable())) {
-                userBillableMap.merge(te.getUserId(), minutes, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<UUID, Integer> entry : userTotalMap.entrySet()) {
-            Optional<User> userOpt = userRepository.findById(entry.getKey());
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
+        for (KeyedMinuteTotals row : userTotals) {
+            String userName = userNames.get(row.getKey());
+            if (userName != null) {
                 timeByUser.add(TimeReportDTO.UserTime.builder()
-                    .userId(entry.getKey().toString())
-                    .userName(user.getName())
-                    .totalMinutes(entry.getValue())
-                    .billableMinutes(userBillableMap.getOrDefault(entry.getKey(), 0))
-                    .entryCount(userEntryCount.get(entry.getKey()))
+                    .userId(row.getKey().toString())
+                    .userName(userName)
+                    .totalMinutes((int) row.getTotalMinutes())
+                    .billableMinutes(row.getBillableMinutes().intValue())
+                    .entryCount(row.getEntryCount().intValue())
                     .build());
             }
         }
         timeByUser.sort(Comparator.comparing(TimeReportDTO.UserTime::getTotalMinutes).reversed());
 
+        java.util.List<KeyedMinuteTotals> projectTotals = timeEntryRepository.sumByProjectForReport(companyId, startDate, endDate, projectId, userId);
+        Map<UUID, String> projectNames = dimensionResolver.projectNames(companyId, minuteKeysOf(projectTotals));
+
         java.util.List<TimeReportDTO.ProjectTime> timeByProject = new ArrayList<>();
-        Map<UUID, Integer> projectTotalMap = new HashMap<>();
-        Map<UUID, Integer> projectBillableMap = new HashMap<>();
-        Map<UUID, Integer> projectEntryCount = new HashMap<>();
-        
-        for (TimeEntry te : timeEntries) {
-            int minutes = te.getHours() * 60;
-            projectTotalMap.merge(te.getProjectId(), minutes, Integer::sum);
-            projectEntryCount.merge(te.getProjectId(), 1, Integer::sum);
-            if (Boolean.TRUE.equals(te.getIsBillable())) {
-                projectBillableMap.merge(te.getProjectId(), minutes, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<UUID, Integer> entry : projectTotalMap.entrySet()) {
-            Optional<Project> projectOpt = projectRepository.findById(entry.getKey());
-            if (projectOpt.isPresent()) {
+        for (KeyedMinuteTotals row : projectTotals) {
+            String projectName = projectNames.get(row.getKey());
+            if (projectName != null) {
                 timeByProject.add(TimeReportDTO.ProjectTime.builder()
-                    .projectId(entry.getKey().toString())
-                    .projectName(projectOpt.get().getName())
-                    .totalMinutes(entry.getValue())
-                    .billableMinutes(projectBillableMap.getOrDefault(entry.getKey(), 0))
-                    .entryCount(projectEntryCount.get(entry.getKey()))
+                    .projectId(row.getKey().toString())
+                    .projectName(projectName)
+                    .totalMinutes((int) row.getTotalMinutes())
+                    .billableMinutes(row.getBillableMinutes().intValue())
+                    .entryCount(row.getEntryCount().intValue())
                     .build());
             }
         }
         timeByProject.sort(Comparator.comparing(TimeReportDTO.ProjectTime::getTotalMinutes).reversed());
 
+        java.util.List<KeyedMinuteTotals> taskTotals = timeEntryRepository.sumByTaskForReport(companyId, startDate, endDate, projectId, userId);
+        Map<UUID, String> taskTitles = dimensionResolver.taskTitles(companyId, minuteKeysOf(taskTotals));
+
         java.util.List<TimeReportDTO.TaskTime> timeByTask = new ArrayList<>();
-        Map<UUID, Integer> taskTimeMap = new HashMap<>();
-        Map<UUID, Integer> taskEntryCount = new HashMap<>();
-        
-        for (TimeEntry te : timeEntries) {
-            if (te.getTaskId() != null) {
-                int minutes = te.getHours() * 60;
-                taskTimeMap.merge(te.getTaskId(), minutes, Integer::sum);
-                taskEntryCount.merge(te.getTaskId(), 1, Integer::sum);
-            }
-        }
-        
-        for (Map.Entry<UUID, Integer> entry : taskTimeMap.entrySet()) {
-            Optional<Task> taskOpt = taskRepository.findById(entry.getKey());
-            if (taskOpt.isPresent()) {
+        for (KeyedMinuteTotals row : taskTotals) {
+            String taskTitle = taskTitles.get(row.getKey());
+            if (taskTitle != null) {
                 timeByTask.add(TimeReportDTO.TaskTime.builder()
-                    .taskId(entry.getKey().toString())
-                    .taskTitle(taskOpt.get().getTitle())
-                    .totalMinutes(entry.getValue())
-                    .entryCount(taskEntryCount.get(entry.getKey()))
+                    .taskId(row.getKey().toString())
+                    .taskTitle(taskTitle)
+                    .totalMinutes((int) row.getTotalMinutes())
+                    .entryCount(row.getEntryCount().intValue())
                     .build());
             }
         }
@@ -429,12 +359,19 @@ public class ReportService {
             .filter(u -> Boolean.TRUE.equals(u.getIsActive()))
             .count();
 
-        java.util.List<Task> allTasks = taskRepository.findByCompanyId(companyId);
-        java.util.List<TimeEntry> allTimeEntries = timeEntryRepository.findByCompanyIdAndDeletedAtIsNull(companyId);
-        
-        allTimeEntries = allTimeEntries.stream()
-            .filter(te -> !te.getDate().isBefore(startDate) && !te.getDate().isAfter(endDate))
-            .collect(Collectors.toList());
+        // Task counts per assignee/status and logged minutes per user, one grouped query each
+        Map<UUID, Long> assignedByUser = new HashMap<>();
+        Map<UUID, Long> completedByUser = new HashMap<>();
+        for (KeyedStatusCount row : taskRollupRepository.countByAssigneeAndStatus(companyId)) {
+            assignedByUser.merge(row.getKey(), row.getCount(), Long::sum);
+            if ("DONE".equals(row.getStatus())) {
+                completedByUser.merge(row.getKey(), row.getCount(), Long::sum);
+            }
+        }
+        Map<UUID, Long> minutesByUser = new HashMap<>();
+        for (KeyedMinuteTotals row : timeRollupRepository.sumByUser(companyId, startDate, endDate)) {
+            minutesByUser.put(row.getKey(), row.getTotalMinutes());
+        }
 
         java.util.List<TeamReportDTO.MemberStats> memberStats = new ArrayList<>();
         int totalTasksAssigned = 0;
@@ -442,19 +379,9 @@ public class ReportService {
         int totalHoursLogged = 0;
         
         for (User user : users) {
-            long tasksAssigned = allTasks.stream()
-                .filter(t -> user.getId().equals(t.getAssignedTo()))
-                .count();
-            
-            long tasksCompleted = allTasks.stream()
-                .filter(t -> user.getId().equals(t.getAssignedTo()))
-                .filter(t -> "DONE".equals(t.getStatus()))
-                .count();
-            
-            int hoursLogged = allTimeEntries.stream()
-                .filter(te -> user.getId().equals(te.getUserId()))
-                .mapToInt(TimeEntry::getHours)
-                .sum();
+            long tasksAssigned = assignedByUser.getOrDefault(user.getId(), 0L);
+            long tasksCompleted = completedByUser.getOrDefault(user.getId(), 0L);
+            int hoursLogged = (int) (minutesByUser.getOrDefault(user.getId(), 0L) / 60);
             
             double completionRate = tasksAssigned > 0 ? (tasksCompleted * 100.0 / tasksAssigned) : 0.0;
             double productivityScore = calculateProductivityScore(tasksCompleted, hoursLogged);
@@ -509,12 +436,11 @@ public class ReportService {
     }
 
     // PDF Generation Methods
+    // Documents are written straight to the caller's stream. Tables are added in chunks of
+    // PDF_FLUSH_ROWS rows, so finished pages leave the heap while later rows are rendered.
     
-    public byte[] generateRevenuePDF(RevenueReportDTO report, String period) throws DocumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
-        document.open();
+    public void writeRevenuePDF(RevenueReportDTO report, String period, OutputStream out) throws DocumentException {
+        Document document = openDocument(out);
 
         Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
         Paragraph title = new Paragraph("Revenue Report", titleFont);
@@ -549,27 +475,18 @@ public class ReportService {
             clientTable.setWidths(new float[]{3, 2, 2});
             
             addTableHeader(clientTable, new String[]{"Client", "Revenue", "Invoices"});
-            
-            for (RevenueReportDTO.ClientRevenue cr : report.getRevenueByClient()) {
-                addTableRow(clientTable, new String[]{
-                    cr.getClientName(),
-                    formatCurrency(cr.getRevenue()),
-                    String.valueOf(cr.getInvoiceCount())
-                });
-            }
-            
-            document.add(clientTable);
+            addStreamedRows(document, clientTable, report.getRevenueByClient(), cr -> new String[]{
+                cr.getClientName(),
+                formatCurrency(cr.getRevenue()),
+                String.valueOf(cr.getInvoiceCount())
+            });
         }
 
         document.close();
-        return baos.toByteArray();
     }
 
-    public byte[] generateProjectPDF(ProjectReportDTO report, String period) throws DocumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
-        document.open();
+    public void writeProjectPDF(ProjectReportDTO report, String period, OutputStream out) throws DocumentException {
+        Document document = openDocument(out);
 
         Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
         Paragraph title = new Paragraph("Project Report", titleFont);
@@ -604,29 +521,20 @@ public class ReportService {
             statsTable.setWidths(new float[]{3, 2, 2, 2, 2});
             
             addTableHeader(statsTable, new String[]{"Project", "Status", "Total Tasks", "Completed", "Completion %"});
-            
-            for (ProjectReportDTO.ProjectStats ps : report.getProjectStats()) {
-                addTableRow(statsTable, new String[]{
-                    ps.getProjectName(),
-                    ps.getStatus(),
-                    String.valueOf(ps.getTotalTasks()),
-                    String.valueOf(ps.getCompletedTasks()),
-                    String.format("%.1f%%", ps.getCompletionRate())
-                });
-            }
-            
-            document.add(statsTable);
+            addStreamedRows(document, statsTable, report.getProjectStats(), ps -> new String[]{
+                ps.getProjectName(),
+                ps.getStatus(),
+                String.valueOf(ps.getTotalTasks()),
+                String.valueOf(ps.getCompletedTasks()),
+                String.format("%.1f%%", ps.getCompletionRate())
+            });
         }
 
         document.close();
-        return baos.toByteArray();
     }
 
-    public byte[] generateTimePDF(TimeReportDTO report, String period) throws DocumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
-        document.open();
+    public void writeTimePDF(TimeReportDTO report, String period, OutputStream out) throws DocumentException {
+        Document document = openDocument(out);
 
         Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
         Paragraph title = new Paragraph("Time Tracking Report", titleFont);
@@ -660,27 +568,18 @@ public class ReportService {
             userTable.setWidths(new float[]{3, 2, 2});
             
             addTableHeader(userTable, new String[]{"User", "Hours", "Entries"});
-            
-            for (TimeReportDTO.UserTime ut : report.getTimeByUser()) {
-                addTableRow(userTable, new String[]{
-                    ut.getUserName(),
-                    formatHours(ut.getTotalMinutes()),
-                    String.valueOf(ut.getEntryCount())
-                });
-            }
-            
-            document.add(userTable);
+            addStreamedRows(document, userTable, report.getTimeByUser(), ut -> new String[]{
+                ut.getUserName(),
+                formatHours(ut.getTotalMinutes()),
+                String.valueOf(ut.getEntryCount())
+            });
         }
 
         document.close();
-        return baos.toByteArray();
     }
 
-    public byte[] generateTeamPDF(TeamReportDTO report, String period) throws DocumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
-        document.open();
+    public void writeTeamPDF(TeamReportDTO report, String period, OutputStream out) throws DocumentException {
+        Document document = openDocument(out);
 
         Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
         Paragraph title = new Paragraph("Team Productivity Report", titleFont);
@@ -714,27 +613,21 @@ public class ReportService {
             memberTable.setWidths(new float[]{3, 2, 2, 2, 2});
             
             addTableHeader(memberTable, new String[]{"Member", "Assigned", "Completed", "Hours", "Productivity"});
-            
-            for (TeamReportDTO.MemberStats ms : report.getMemberStats()) {
-                addTableRow(memberTable, new String[]{
-                    ms.getUserName(),
-                    String.valueOf(ms.getTasksAssigned()),
-                    String.valueOf(ms.getTasksCompleted()),
-                    String.valueOf(ms.getHoursLogged()),
-                    String.format("%.1f", ms.getProductivityScore())
-                });
-            }
-            
-            document.add(memberTable);
+            addStreamedRows(document, memberTable, report.getMemberStats(), ms -> new String[]{
+                ms.getUserName(),
+                String.valueOf(ms.getTasksAssigned()),
+                String.valueOf(ms.getTasksCompleted()),
+                String.valueOf(ms.getHoursLogged()),
+                String.format("%.1f", ms.getProductivityScore())
+            });
         }
 
         document.close();
-        return baos.toByteArray();
     }
 
     // Helper Methods
     
-    private LocalDate[] calculateDateRange(ReportFilterDTO filter) {
+    static LocalDate[] calculateDateRange(ReportFilterDTO filter) {
         if (filter.getStartDate() != null && filter.getEndDate() != null) {
             return new LocalDate[]{filter.getStartDate(), filter.getEndDate()};
         }
@@ -768,11 +661,43 @@ public class ReportService {
         return new LocalDate[]{startDate, endDate};
     }
 
+    private java.util.List<UUID> keysOf(java.util.List<KeyedTotal> rows) {
+        return rows.stream().map(KeyedTotal::getKey).collect(Collectors.toList());
+    }
+
+    private java.util.List<UUID> minuteKeysOf(java.util.List<KeyedMinuteTotals> rows) {
+        return rows.stream().map(KeyedMinuteTotals::getKey).collect(Collectors.toList());
+    }
+
     private double calculateProductivityScore(long tasksCompleted, int hoursLogged) {
         if (hoursLogged == 0) return 0.0;
         return (tasksCompleted * 10.0) / (hoursLogged / 8.0);
     }
 
+    private Document openDocument(OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        return document;
+    }
+
+    private <T> void addStreamedRows(Document document, PdfPTable table, java.util.List<T> rows,
+                                     Function<T, String[]> toCells) throws DocumentException {
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        int pending = 0;
+        for (T row : rows) {
+            addTableRow(table, toCells.apply(row));
+            if (++pending == PDF_FLUSH_ROWS) {
+                document.add(table);
+                pending = 0;
+            }
+        }
+        table.setComplete(true);
+        document.add(table);
+    }
+
     private void addSummaryCard(PdfPTable table, String label, String value) {
         PdfPCell cell = new PdfPCell();
         cell.setPadding(10);
@@ -1,16 +1,12 @@
 package com.itops.service;
 
 import com.itops.domain.Plan;
-import com.itops.domain.Subscription;
 import com.itops.domain.Subscription.SubscriptionStatus;
-import com.itops.exception.SubscriptionLimitException;
 import com.itops.exception.SubscriptionRequiredException;
-import com.itops.repository.PlanRepository;
-import com.itops.repository.SubscriptionRepository;
+import com.itops.service.EntitlementService.SubscriptionState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
@@ -19,46 +15,34 @@ import java.util.UUID;
 @Slf4j
 public class SubscriptionGuard {
     
-    private final SubscriptionRepository subscriptionRepository;
-    private final PlanRepository planRepository;
+    private final EntitlementService entitlementService;
     private final UsageService usageService;
     
-    @Transactional(readOnly = true)
+    /**
+     * Takes one of the company's user slots, failing if the plan limit is reached. The slot is
+     * returned automatically if the surrounding transaction rolls back.
+     */
     public void enforceUserCreation(UUID companyId) {
-        Subscription subscription = getActiveSubscription(companyId);
-        Plan plan = getPlan(subscription.getPlanCode());
-        
-        int currentUsers = usageService.countActiveUsers(companyId);
-        
-        if (currentUsers >= plan.getMaxUsers()) {
-            throw new SubscriptionLimitException(
-                "User limit reached. Current plan allows " + plan.getMaxUsers() + " users. Upgrade required."
-            );
-        }
+        Plan plan = getPlan(getActiveSubscription(companyId).planCode());
+        usageService.reserveUser(companyId, plan.getMaxUsers());
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Takes one of the company's project slots, failing if the plan limit is reached.
+     */
     public void enforceProjectCreation(UUID companyId) {
-        Subscription subscription = getActiveSubscription(companyId);
-        Plan plan = getPlan(subscription.getPlanCode());
-        
-        int currentProjects = usageService.countActiveProjects(companyId);
-        
-        if (currentProjects >= plan.getMaxProjects()) {
-            throw new SubscriptionLimitException(
-                "Project limit reached. Current plan allows " + plan.getMaxProjects() + " projects. Upgrade required."
-            );
-        }
+        Plan plan = getPlan(getActiveSubscription(companyId).planCode());
+        usageService.reserveProject(companyId, plan.getMaxProjects());
     }
     
-    private Subscription getActiveSubscription(UUID companyId) {
-        Subscription subscription = subscriptionRepository.findByCompanyIdAndDeletedAtIsNull(companyId)
+    private SubscriptionState getActiveSubscription(UUID companyId) {
+        SubscriptionState subscription = entitlementService.findSubscription(companyId)
             .orElseThrow(() -> new SubscriptionRequiredException("No subscription found. Please subscribe to a plan."));
         
-        if (subscription.getStatus() != SubscriptionStatus.ACTIVE && 
-            subscription.getStatus() != SubscriptionStatus.TRIALING) {
+        if (subscription.status() != SubscriptionStatus.ACTIVE && 
+            subscription.status() != SubscriptionStatus.TRIALING) {
             throw new SubscriptionRequiredException(
-                "Subscription is not active. Current status: " + subscription.getStatus() + ". Please update your payment method."
+                "Subscription is not active. Current status: " + subscription.status() + ". Please update your payment method."
             );
         }
         
@@ -66,7 +50,7 @@ public class SubscriptionGuard {
     }
     
     private Plan getPlan(String planCode) {
-        return planRepository.findByCode(planCode)
+        return entitlementService.findPlan(planCode)
             .orElseThrow(() -> new RuntimeException("Plan not found: " + planCode));
     }
 }
@@ -28,13 +28,13 @@ import java.util.*;
 public class SubscriptionService {
     
     private final SubscriptionRepository subscriptionRepository;
-    private final PlanRepository planRepository;
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
     private final BillingEventRepository billingEventRepository;
     private final RazorpayClient razorpayClient;
     private final RazorpayConfig razorpayConfig;
     private final UsageService usageService;
+    private final EntitlementService entitlementService;
     
     @Transactional
     public SubscriptionResponse getCompanySubscription(UUID companyId) {
@@ -45,7 +45,7 @@ public class SubscriptionService {
                 return createOrUpdateTrial(companyId, "STARTER");
             });
         
-        Plan plan = planRepository.findByCode(subscription.getPlanCode())
+        Plan plan = entitlementService.findPlan(subscription.getPlanCode())
             .orElseThrow(() -> new RuntimeException("Plan not found: " + subscription.getPlanCode()));
         
         int currentUsers = usageService.countActiveUsers(companyId);
@@ -92,7 +92,7 @@ public class SubscriptionService {
         }
         
         // Validate plan exists
-        planRepository.findByCode(planCode)
+        entitlementService.findPlan(planCode)
             .orElseThrow(() -> new RuntimeException("Invalid plan code: " + planCode));
         
         // Create trial subscription on selected plan (14 days free trial)
@@ -106,6 +106,7 @@ public class SubscriptionService {
             .cancelAtPeriodEnd(false)
             .build();
         
+        entitlementService.evictSubscription(companyId);
         return subscriptionRepository.save(subscription);
     }
     
@@ -113,7 +114,7 @@ public class SubscriptionService {
     public CheckoutResponse createCheckout(UUID companyId, String planCode, String billingCycle, 
                                           String userEmail, String userName) {
         // Validate plan
-        Plan plan = planRepository.findByCode(planCode)
+        Plan plan = entitlementService.findPlan(planCode)
             .orElseThrow(() -> new RuntimeException("Invalid plan code: " + planCode));
         
         if (!plan.getIsActive()) {
@@ -176,6 +177,7 @@ public class SubscriptionService {
         subscription.setCancelAtPeriodEnd(false);
         
         subscriptionRepository.save(subscription);
+        entitlementService.evictSubscription(companyId);
         
         return CheckoutResponse.builder()
             .keyId(razorpayConfig.getKeyId())
@@ -307,6 +309,7 @@ public class SubscriptionService {
         
         subscription.setLastEventId(event.getEventId());
         subscriptionRepository.save(subscription);
+        entitlementService.evictSubscription(subscription);
         
         // Update event
         event.setProcessedAt(LocalDateTime.now());
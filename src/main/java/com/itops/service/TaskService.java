@@ -1,14 +1,14 @@
 package com.itops.service;
 
 import com.itops.domain.Task;
-import com.itops.domain.Team;
 import com.itops.domain.ProjectPhase;
 import com.itops.dto.NotificationType;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.TaskRequest;
 import com.itops.dto.TaskResponse;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.repository.TaskRepository;
-import com.itops.repository.TeamRepository;
 import com.itops.repository.ProjectPhaseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,10 +25,11 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final TaskRepository taskRepository;
-    private final TeamRepository teamRepository;
     private final ProjectPhaseRepository projectPhaseRepository;
     private final ProjectMemberService projectMemberService;
     private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
     public List<TaskResponse> getAllTasks(UUID companyId) {
         return taskRepository.findByCompanyId(companyId)
@@ -49,65 +50,23 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
-    public List<TaskResponse> getTasksWithFilters(UUID companyId, UUID userId, String userRole, 
-                                                   UUID projectId, UUID phaseId, UUID teamId, UUID assignedTo) {
+    public CursorPage<TaskResponse> getTasksWithFilters(UUID companyId, UUID userId, String userRole, 
+                                                   UUID projectId, UUID phaseId, UUID teamId, UUID assignedTo,
+                                                   CursorPageRequest page) {
         log.info("getTasksWithFilters - userId: {}, role: {}, companyId: {}, projectId: {}, phaseId: {}, teamId: {}, assignedTo: {}", 
             userId, userRole, companyId, projectId, phaseId, teamId, assignedTo);
-            
-        List<Task> tasks;
         
-        // Start with base query - project or company level
-        if (projectId != null && phaseId != null) {
-            tasks = taskRepository.findByProjectIdAndPhaseId(projectId, phaseId);
-            log.info("Found {} tasks by projectId and phaseId", tasks.size());
-        } else if (projectId != null) {
-            tasks = taskRepository.findByProjectId(projectId);
-            log.info("Found {} tasks by projectId", tasks.size());
-        } else {
-            tasks = taskRepository.findByCompanyId(companyId);
-            log.info("Found {} tasks by companyId", tasks.size());
-        }
+        // Phase only narrows a project-level query
+        UUID effectivePhaseId = projectId != null ? phaseId : null;
         
-        // Apply role-based filtering for SUPER_USER
-        if ("SUPER_USER".equals(userRole) && teamId == null) {
-            // SUPER_USER without team filter should only see tasks from their own teams
-            List<Team> userTeams = teamRepository.findByCreatedByUserId(userId);
-            List<UUID> userTeamIds = userTeams.stream()
-                    .map(Team::getId)
-                    .collect(Collectors.toList());
-            
-            log.info("SUPER_USER has {} teams: {}", userTeamIds.size(), userTeamIds);
-            
-            int beforeFilter = tasks.size();
-            tasks = tasks.stream()
-                    .filter(task -> userTeamIds.contains(task.getTeamId()))
-                    .collect(Collectors.toList());
-            log.info("After SUPER_USER team filter: {} tasks (was {})", tasks.size(), beforeFilter);
-        }
+        // SUPER_USER without team filter should only see tasks from the teams they created
+        UUID teamCreatorId = "SUPER_USER".equals(userRole) && teamId == null ? userId : null;
         
-        // Apply teamId filter if provided (explicit team selection)
-        if (teamId != null) {
-            final UUID finalTeamId = teamId;
-            int beforeFilter = tasks.size();
-            tasks = tasks.stream()
-                    .filter(task -> finalTeamId.equals(task.getTeamId()))
-                    .collect(Collectors.toList());
-            log.info("After teamId filter: {} tasks (was {})", tasks.size(), beforeFilter);
-        }
-        
-        // Apply assignedTo filter if provided
-        if (assignedTo != null) {
-            final UUID finalAssignedTo = assignedTo;
-            int beforeFilter = tasks.size();
-            tasks = tasks.stream()
-                    .filter(task -> finalAssignedTo.equals(task.getAssignedTo()))
-                    .collect(Collectors.toList());
-            log.info("After assignedTo filter: {} tasks (was {})", tasks.size(), beforeFilter);
-        }
+        List<Task> tasks = taskRepository.findPage(companyId, projectId, effectivePhaseId, teamId, assignedTo, teamCreatorId,
+                page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+        log.info("Found {} tasks", tasks.size());
         
-        return tasks.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return page.slice(tasks, Task::getCreatedAt, Task::getId, this::toResponse);
     }
 
     public TaskResponse getTaskById(UUID id, UUID companyId) {
@@ -138,6 +97,8 @@ public class TaskService {
         task.setCompanyId(companyId);
 
         Task saved = taskRepository.save(task);
+        analyticsRollupService.refreshTaskProjects(companyId, saved.getProjectId());
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Auto-add member to project if assigned
         if (saved.getAssignedTo() != null && saved.getProjectId() != null) {
@@ -173,6 +134,7 @@ public class TaskService {
         // Track changes for notifications
         String oldStatus = task.getStatus();
         UUID oldAssignee = task.getAssignedTo();
+        UUID oldProjectId = task.getProjectId();
         
         // Resolve team: use explicit teamId or get from phase
         UUID resolvedTeamId = resolveTeamId(request.getTeamId(), request.getPhaseId());
@@ -190,6 +152,8 @@ public class TaskService {
         task.setStoryPoints(request.getStoryPoints());
 
         Task updated = taskRepository.save(task);
+        analyticsRollupService.refreshTaskProjects(companyId, oldProjectId, updated.getProjectId());
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Auto-add member to project if assigned
         if (updated.getAssignedTo() != null && updated.getProjectId() != null) {
@@ -278,6 +242,7 @@ public class TaskService {
 
         // Track old values for notifications
         UUID oldAssignee = task.getAssignedTo();
+        UUID oldProjectId = task.getProjectId();
 
         // Only update fields that are provided
         if (request.getTitle() != null) {
@@ -324,6 +289,8 @@ public class TaskService {
         }
 
         Task updated = taskRepository.save(task);
+        analyticsRollupService.refreshTaskProjects(companyId, oldProjectId, updated.getProjectId());
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Auto-add member to project if assigned
         if (updated.getAssignedTo() != null && updated.getProjectId() != null) {
@@ -397,6 +364,8 @@ public class TaskService {
                 .filter(t -> t.getCompanyId().equals(companyId))
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
         taskRepository.delete(task);
+        analyticsRollupService.refreshTaskProjects(companyId, task.getProjectId());
+        dashboardSnapshotCache.invalidateCompany(companyId);
     }
 
     /**
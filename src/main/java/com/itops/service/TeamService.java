@@ -7,6 +7,7 @@ import com.itops.dto.TeamRequest;
 import com.itops.dto.TeamResponse;
 import com.itops.repository.TeamRepository;
 import com.itops.repository.UserRepository;
+import com.itops.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +22,8 @@ public class TeamService {
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final OrgGraphCache orgGraphCache;
 
     public List<TeamResponse> getAllTeams(UUID companyId, UUID currentUserId) {
         User currentUser = userRepository.findById(currentUserId)
@@ -76,6 +79,7 @@ public class TeamService {
         team.setCompanyId(companyId);
 
         Team saved = teamRepository.save(team);
+        orgGraphCache.invalidateCompany(companyId);
 
         // If a team lead is specified, assign them to this team
         if (request.getLeadUserId() != null) {
@@ -83,6 +87,7 @@ public class TeamService {
                     .orElseThrow(() -> new RuntimeException("Team lead user not found"));
             leadUser.setTeamId(saved.getId());
             userRepository.save(leadUser);
+            userPrincipalCache.evict(leadUser.getId());
             
             // Notify team lead
             notificationService.createNotification(
@@ -126,6 +131,7 @@ public class TeamService {
         team.setLeadUserId(newLeadId);
 
         Team updated = teamRepository.save(team);
+        orgGraphCache.invalidateCompany(companyId);
 
         // If team lead changed, update user assignments
         if (newLeadId != null && !newLeadId.equals(oldLeadId)) {
@@ -133,6 +139,7 @@ public class TeamService {
                     .orElseThrow(() -> new RuntimeException("Team lead user not found"));
             newLead.setTeamId(teamId);
             userRepository.save(newLead);
+            userPrincipalCache.evict(newLeadId);
             
             // Notify new team lead
             notificationService.createNotification(
@@ -186,6 +193,7 @@ public class TeamService {
         teamMembers.forEach(user -> {
             user.setTeamId(null);
             userRepository.save(user);
+            userPrincipalCache.evict(user.getId());
             
             // Notify member they were removed from team
             notificationService.createNotification(
@@ -201,6 +209,7 @@ public class TeamService {
         });
 
         teamRepository.delete(team);
+        orgGraphCache.invalidateCompany(companyId);
     }
 
     private TeamResponse toResponse(Team team) {
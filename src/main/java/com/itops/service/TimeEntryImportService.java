@@ -0,0 +1,446 @@
+package com.itops.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.itops.domain.TimeEntry;
+import com.itops.dto.TimeEntryImportError;
+import com.itops.dto.TimeEntryImportResponse;
+import com.itops.repository.ProjectRepository;
+import com.itops.repository.TaskRepository;
+import com.itops.repository.TimeEntryRepository;
+import com.itops.repository.UserRepository;
+import com.itops.repository.projection.TaskProjectRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Imports time entries from CSV or NDJSON (a JSON array is accepted as well). The upload is read
+ * as a stream and handled in chunks of {@code time-entry.import.chunk-size} rows: the projects,
+ * tasks and users a chunk refers to are validated with one set lookup each, and its valid rows are
+ * inserted with JDBC batching in their own transaction. Rows that fail validation are reported
+ * with their position and do not stop the import. Rollups and timesheet totals are refreshed once
+ * at the end for every affected user and week.
+ *
+ * <p>Columns use the names of the time entry export, so an export can be imported again:
+ * {@code date}, {@code projectId}, {@code taskId}, {@code hours}, {@code billable},
+ * {@code description} and {@code userId}. Other columns are ignored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimeEntryImportService {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final TimesheetTotalsService timesheetTotalsService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${time-entry.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${time-entry.import.max-rows:10000}")
+    private int maxRows;
+
+    /**
+     * Imports the entries in {@code in}. Entries without a {@code userId} belong to the requester;
+     * only when {@code allowOtherUsers} is set may rows name another user of the company.
+     */
+    public TimeEntryImportResponse importEntries(UUID companyId, UUID requesterId, boolean allowOtherUsers,
+                                                 DataExportService.Format format, InputStream in) {
+        Import run = new Import(companyId, requesterId, allowOtherUsers);
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        try {
+            RowSource source = format == DataExportService.Format.CSV ? new CsvRowSource(reader) : new JsonRowSource(reader);
+            Map<String, String> fields;
+            while ((fields = source.next()) != null) {
+                long rowNumber = run.received + 1;
+                if (rowNumber > maxRows) {
+                    run.errors.add(error(rowNumber, "Import is limited to " + maxRows + " rows; the rest was not read"));
+                    break;
+                }
+                run.received = rowNumber;
+                ParsedRow row = parse(rowNumber, fields, run);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            run.errors.add(error(run.received + 1, "Could not read the upload: " + e.getMessage()));
+        }
+        // Rows read before the end of the upload, or before a read error, are still imported
+        importChunk(chunk, run);
+
+        refreshTotals(run);
+        run.errors.sort(Comparator.comparingLong(TimeEntryImportError::getRow));
+        log.info("Imported {} of {} time entries for company {}", run.imported, run.received, companyId);
+        return TimeEntryImportResponse.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .errors(run.errors)
+                .build();
+    }
+
+    private ParsedRow parse(long rowNumber, Map<String, String> fields, Import run) {
+        try {
+            LocalDate date = LocalDate.parse(required(fields, "date"));
+            UUID projectId = UUID.fromString(required(fields, "projectId"));
+            String task = optional(fields, "taskId");
+            String user = optional(fields, "userId");
+            int hours = Integer.parseInt(required(fields, "hours"));
+            if (hours < 0) {
+                throw new IllegalArgumentException("hours must be positive");
+            }
+            String billable = optional(fields, "billable");
+            if (billable != null && !billable.equalsIgnoreCase("true") && !billable.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("billable must be true or false");
+            }
+            UUID userId = user != null ? UUID.fromString(user) : run.requesterId;
+            if (!run.allowOtherUsers && !userId.equals(run.requesterId)) {
+                throw new IllegalArgumentException("You can only import your own time entries");
+            }
+            return new ParsedRow(rowNumber, userId, projectId, task != null ? UUID.fromString(task) : null, date, hours,
+                    billable == null || Boolean.parseBoolean(billable), optional(fields, "description"));
+        } catch (DateTimeParseException e) {
+            run.errors.add(error(rowNumber, "date must be an ISO date (yyyy-MM-dd)"));
+        } catch (NumberFormatException e) {
+            run.errors.add(error(rowNumber, "hours must be a whole number"));
+        } catch (IllegalArgumentException e) {
+            // UUID.fromString reports malformed ids with a message naming the input
+            run.errors.add(error(rowNumber, e.getMessage()));
+        }
+        return null;
+    }
+
+    private void importChunk(List<ParsedRow> chunk, Import run) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        resolveReferences(chunk, run);
+
+        List<TimeEntry> entries = new ArrayList<>(chunk.size());
+        List<ParsedRow> accepted = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            String problem = validate(row, run);
+            if (problem != null) {
+                run.errors.add(error(row.rowNumber(), problem));
+                continue;
+            }
+            TimeEntry entry = TimeEntry.builder()
+                    .userId(row.userId())
+                    .projectId(row.projectId())
+                    .taskId(row.taskId())
+                    .date(row.date())
+                    .hours(row.hours())
+                    .description(row.description())
+                    .isBillable(row.billable())
+                    .isActive(false)
+                    .build();
+            entry.setCompanyId(run.companyId);
+            entries.add(entry);
+            accepted.add(row);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                timeEntryRepository.saveAll(entries);
+                timeEntryRepository.flush();
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Time entry import chunk failed for company {}", run.companyId, e);
+            accepted.forEach(row -> run.errors.add(error(row.rowNumber(), "Could not be saved")));
+            return;
+        }
+        run.imported += accepted.size();
+        for (ParsedRow row : accepted) {
+            run.affectedDays.computeIfAbsent(row.userId(), id -> new HashSet<>()).add(row.date());
+        }
+    }
+
+    /**
+     * Looks up the projects, tasks and users of the chunk that earlier chunks have not already
+     * resolved, with one query each.
+     */
+    private void resolveReferences(List<ParsedRow> chunk, Import run) {
+        Set<UUID> projectIds = new HashSet<>();
+        Set<UUID> taskIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (ParsedRow row : chunk) {
+            if (!run.checkedProjects.contains(row.projectId())) {
+                projectIds.add(row.projectId());
+            }
+            if (row.taskId() != null && !run.checkedTasks.contains(row.taskId())) {
+                taskIds.add(row.taskId());
+            }
+            if (!run.checkedUsers.contains(row.userId())) {
+                userIds.add(row.userId());
+            }
+        }
+        if (!projectIds.isEmpty()) {
+            run.projects.addAll(projectRepository.findActiveIds(run.companyId, projectIds));
+            run.checkedProjects.addAll(projectIds);
+        }
+        if (!taskIds.isEmpty()) {
+            for (TaskProjectRef task : taskRepository.findActiveProjectRefs(run.companyId, taskIds)) {
+                run.taskProjects.put(task.getId(), task.getProjectId());
+            }
+            run.checkedTasks.addAll(taskIds);
+        }
+        if (!userIds.isEmpty()) {
+            run.users.addAll(userRepository.findActiveIds(run.companyId, userIds));
+            run.checkedUsers.addAll(userIds);
+        }
+    }
+
+    private String validate(ParsedRow row, Import run) {
+        if (!run.projects.contains(row.projectId())) {
+            return "Project not found";
+        }
+        if (row.taskId() != null && !row.projectId().equals(run.taskProjects.get(row.taskId()))) {
+            return "Task not found";
+        }
+        if (!run.users.contains(row.userId())) {
+            return "User not found";
+        }
+        return null;
+    }
+
+    private void refreshTotals(Import run) {
+        if (run.affectedDays.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            analyticsRollupService.refreshTimeDays(run.companyId, run.affectedDays.values().stream()
+                    .flatMap(Set::stream)
+                    .distinct()
+                    .toArray(LocalDate[]::new));
+            run.affectedDays.forEach((userId, days) ->
+                    timesheetTotalsService.recalculateWeeks(run.companyId, userId, days.toArray(LocalDate[]::new)));
+            dashboardSnapshotCache.invalidateCompany(run.companyId);
+        });
+    }
+
+    private static String required(Map<String, String> fields, String column) {
+        String value = optional(fields, column);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String column) {
+        String value = fields.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static TimeEntryImportError error(long row, String message) {
+        return TimeEntryImportError.builder().row(row).message(message).build();
+    }
+
+    private record ParsedRow(long rowNumber, UUID userId, UUID projectId, UUID taskId, LocalDate date, int hours,
+                             boolean billable, String description) {
+    }
+
+    /**
+     * State of one import: counters, errors, the references resolved so far and the days each
+     * user has new entries on.
+     */
+    private static class Import {
+        private final UUID companyId;
+        private final UUID requesterId;
+        private final boolean allowOtherUsers;
+        private long received;
+        private long imported;
+        private final List<TimeEntryImportError> errors = new ArrayList<>();
+        private final Set<UUID> checkedProjects = new HashSet<>();
+        private final Set<UUID> projects = new HashSet<>();
+        private final Set<UUID> checkedTasks = new HashSet<>();
+        private final Map<UUID, UUID> taskProjects = new HashMap<>();
+        private final Set<UUID> checkedUsers = new HashSet<>();
+        private final Set<UUID> users = new HashSet<>();
+        private final Map<UUID, Set<LocalDate>> affectedDays = new HashMap<>();
+
+        Import(UUID companyId, UUID requesterId, boolean allowOtherUsers) {
+            this.companyId = companyId;
+            this.requesterId = requesterId;
+            this.allowOtherUsers = allowOtherUsers;
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * The next row as column name to value, or null at the end of the upload.
+         */
+        Map<String, String> next() throws IOException;
+    }
+
+    /**
+     * Reads RFC 4180 CSV as written by {@link DataExportService}: the first record names the
+     * columns, fields may be quoted with doubled quotes inside, and blank lines are skipped. The
+     * quote the export puts in front of formula-like text is removed.
+     */
+    private static class CsvRowSource implements RowSource {
+        private final Reader reader;
+        private List<String> header;
+        private int pending = -2;
+
+        CsvRowSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+                header.replaceAll(String::trim);
+            }
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty());
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                row.put(header.get(i), DataExportService.unguardFormula(values.get(i)));
+            }
+            return row;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pending = next;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+
+    /**
+     * Reads a sequence of JSON objects, either one per line or wrapped in a single array. Nested
+     * values are ignored.
+     */
+    private static class JsonRowSource implements RowSource {
+        private final JsonParser parser;
+        private boolean started;
+        private boolean inArray;
+
+        JsonRowSource(Reader reader) throws IOException {
+            this.parser = JSON_FACTORY.createParser(reader);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_ARRAY) {
+                    inArray = true;
+                    token = parser.nextToken();
+                }
+            }
+            if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("expected a JSON object but found " + token);
+            }
+
+            Map<String, String> row = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                } else if (value != JsonToken.VALUE_NULL) {
+                    row.put(name, parser.getText());
+                }
+            }
+            return row;
+        }
+    }
+}
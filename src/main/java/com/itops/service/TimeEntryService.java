@@ -1,7 +1,10 @@
 package com.itops.service;
 
 import com.itops.domain.TimeEntry;
+import com.itops.dto.ActiveTimerResponse;
 import com.itops.dto.CreateManualTimeEntryRequest;
+import com.itops.dto.CursorPage;
+import com.itops.dto.CursorPageRequest;
 import com.itops.dto.StartTimerRequest;
 import com.itops.dto.TimeEntryResponse;
 import com.itops.dto.UpdateTimeEntryRequest;
@@ -9,8 +12,10 @@ import com.itops.repository.ProjectRepository;
 import com.itops.repository.TaskRepository;
 import com.itops.repository.TimeEntryRepository;
 import com.itops.repository.UserRepository;
+import com.itops.repository.projection.TimeEntryRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +25,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -31,19 +35,19 @@ public class TimeEntryService {
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final TimesheetTotalsService timesheetTotalsService;
+    private final ActiveTimerRegistry activeTimerRegistry;
 
-    public List<TimeEntryResponse> getAllTimeEntries(UUID companyId, UUID projectId, UUID userId, LocalDate fromDate, LocalDate toDate, Boolean billable) {
+    private static final String ACTIVE_TIMER_INDEX = "uq_time_entries_user_active";
+
+    public CursorPage<TimeEntryResponse> getAllTimeEntries(UUID companyId, UUID projectId, UUID userId, LocalDate fromDate, LocalDate toDate,
+                                                           Boolean billable, CursorPageRequest page) {
         log.info("Getting time entries for companyId: {}, projectId: {}, userId: {}", companyId, projectId, userId);
-        List<TimeEntry> entries = timeEntryRepository.findByCompanyId(companyId);
-        return entries.stream()
-                .filter(e -> e.getDeletedAt() == null)
-                .filter(e -> projectId == null || e.getProjectId().equals(projectId))
-                .filter(e -> userId == null || e.getUserId().equals(userId))
-                .filter(e -> fromDate == null || !e.getDate().isBefore(fromDate))
-                .filter(e -> toDate == null || !e.getDate().isAfter(toDate))
-                .filter(e -> billable == null || e.getIsBillable().equals(billable))
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        List<TimeEntryRow> rows = timeEntryRepository.search(companyId, projectId, userId, fromDate, toDate, billable,
+                page.getCursorCreatedAt(), page.getCursorId(), page.toPageable());
+        return page.slice(rows, TimeEntryRow::createdAt, TimeEntryRow::id, this::toResponse);
     }
 
     public Optional<TimeEntryResponse> getActiveTimer(UUID userId) {
@@ -52,13 +56,27 @@ public class TimeEntryService {
                 .map(this::toResponse);
     }
 
+    public List<ActiveTimerResponse> getActiveTimers(UUID companyId) {
+        LocalDateTime now = LocalDateTime.now();
+        return activeTimerRegistry.activeTimers(companyId).stream()
+                .map(timer -> ActiveTimerResponse.builder()
+                        .timeEntryId(timer.getTimeEntryId())
+                        .userId(timer.getUserId())
+                        .userName(timer.getUserName())
+                        .projectId(timer.getProjectId())
+                        .projectName(timer.getProjectName())
+                        .taskId(timer.getTaskId())
+                        .taskName(timer.getTaskName())
+                        .startTime(timer.getStartTime())
+                        .runningMinutes(timer.getStartTime() != null
+                                ? (int) Duration.between(timer.getStartTime(), now).toMinutes()
+                                : null)
+                        .build())
+                .toList();
+    }
+
     @Transactional
     public TimeEntryResponse startTimer(StartTimerRequest request, UUID userId, UUID companyId) {
-        Optional<TimeEntry> existingTimer = timeEntryRepository.findByUserIdAndIsActiveTrue(userId)
-                .filter(e -> e.getDeletedAt() == null);
-        if (existingTimer.isPresent()) {
-            throw new RuntimeException("You already have an active timer running");
-        }
         validateProjectBelongsToCompany(request.getProjectId(), companyId);
         if (request.getTaskId() != null) {
             validateTaskBelongsToProject(request.getTaskId(), request.getProjectId(), companyId);
@@ -75,21 +93,31 @@ public class TimeEntryService {
                 .isActive(true)
                 .build();
         entry.setCompanyId(companyId);
-        return toResponse(timeEntryRepository.save(entry));
+        TimeEntry saved;
+        try {
+            // The unique index on running timers turns a second concurrent start into a conflict
+            saved = timeEntryRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMessage() != null && e.getMessage().contains(ACTIVE_TIMER_INDEX)) {
+                throw new RuntimeException("You already have an active timer running");
+            }
+            throw e;
+        }
+        analyticsRollupService.refreshTimeDays(companyId, saved.getDate());
+        dashboardSnapshotCache.invalidateCompany(companyId);
+        activeTimerRegistry.invalidateCompany(companyId);
+        return toResponse(saved);
     }
 
     @Transactional
     public TimeEntryResponse stopTimer(UUID userId, UUID companyId) {
-        TimeEntry entry = timeEntryRepository.findByUserIdAndIsActiveTrue(userId)
-                .filter(e -> e.getDeletedAt() == null && e.getCompanyId().equals(companyId))
+        TimeEntry saved = timeEntryRepository.stopActiveTimer(userId, companyId, LocalDateTime.now())
                 .orElseThrow(() -> new RuntimeException("No active timer found"));
-        entry.setEndTime(LocalDateTime.now());
-        entry.setIsActive(false);
-        if (entry.getStartTime() != null && entry.getEndTime() != null) {
-            long minutes = Duration.between(entry.getStartTime(), entry.getEndTime()).toMinutes();
-            entry.setHours(minutes > 0 ? Math.max(1, (int) Math.round(minutes / 60.0)) : 0);
-        }
-        return toResponse(timeEntryRepository.save(entry));
+        analyticsRollupService.refreshTimeDays(companyId, saved.getDate());
+        timesheetTotalsService.recalculateWeeks(companyId, saved.getUserId(), saved.getDate());
+        dashboardSnapshotCache.invalidateCompany(companyId);
+        activeTimerRegistry.invalidateCompany(companyId);
+        return toResponse(saved);
     }
 
     @Transactional
@@ -109,7 +137,11 @@ public class TimeEntryService {
                 .isActive(false)
                 .build();
         entry.setCompanyId(companyId);
-        return toResponse(timeEntryRepository.save(entry));
+        TimeEntry saved = timeEntryRepository.save(entry);
+        analyticsRollupService.refreshTimeDays(companyId, saved.getDate());
+        timesheetTotalsService.recalculateWeeks(companyId, saved.getUserId(), saved.getDate());
+        dashboardSnapshotCache.invalidateCompany(companyId);
+        return toResponse(saved);
     }
 
     @Transactional
@@ -123,6 +155,7 @@ public class TimeEntryService {
         if (entry.getIsActive()) {
             throw new RuntimeException("Cannot edit an active timer");
         }
+        LocalDate previousDate = entry.getDate();
         if (request.getProjectId() != null) {
             validateProjectBelongsToCompany(request.getProjectId(), companyId);
             entry.setProjectId(request.getProjectId());
@@ -136,7 +169,11 @@ public class TimeEntryService {
         if (request.getHours() != null) entry.setHours(request.getHours());
         if (request.getIsBillable() != null) entry.setIsBillable(request.getIsBillable());
         if (request.getNotes() != null) entry.setDescription(request.getNotes());
-        return toResponse(timeEntryRepository.save(entry));
+        TimeEntry saved = timeEntryRepository.save(entry);
+        analyticsRollupService.refreshTimeDays(companyId, previousDate, saved.getDate());
+        timesheetTotalsService.recalculateWeeks(companyId, saved.getUserId(), previousDate, saved.getDate());
+        dashboardSnapshotCache.invalidateCompany(companyId);
+        return toResponse(saved);
     }
 
     @Transactional
@@ -152,6 +189,9 @@ public class TimeEntryService {
         }
         entry.setDeletedAt(LocalDateTime.now());
         timeEntryRepository.save(entry);
+        analyticsRollupService.refreshTimeDays(companyId, entry.getDate());
+        timesheetTotalsService.recalculateWeeks(companyId, entry.getUserId(), entry.getDate());
+        dashboardSnapshotCache.invalidateCompany(companyId);
     }
 
     private TimeEntryResponse toResponse(TimeEntry entry) {
@@ -172,25 +212,31 @@ public class TimeEntryService {
                         .orElse(null)
                 : null;
         
+        return toResponse(new TimeEntryRow(entry.getId(), entry.getUserId(), userName, entry.getProjectId(), projectName,
+                entry.getTaskId(), taskName, entry.getDate(), entry.getHours(), entry.getDescription(),
+                entry.getIsBillable(), entry.getCreatedAt(), entry.getStartTime(), entry.getEndTime(), entry.getIsActive()));
+    }
+
+    private TimeEntryResponse toResponse(TimeEntryRow row) {
         TimeEntryResponse.TimeEntryResponseBuilder builder = TimeEntryResponse.builder()
-                .id(entry.getId())
-                .userId(entry.getUserId())
-                .userName(userName)
-                .projectId(entry.getProjectId())
-                .projectName(projectName)
-                .taskId(entry.getTaskId())
-                .taskName(taskName)
-                .date(entry.getDate() != null ? entry.getDate().toString() : null)
-                .hours(entry.getHours())
-                .description(entry.getDescription())
-                .isBillable(entry.getIsBillable())
-                .createdAt(entry.getCreatedAt())
-                .startTime(entry.getStartTime())
-                .endTime(entry.getEndTime())
-                .isActive(entry.getIsActive());
-        if (entry.getStartTime() != null) {
-            LocalDateTime endTime = entry.getEndTime() != null ? entry.getEndTime() : LocalDateTime.now();
-            long minutes = Duration.between(entry.getStartTime(), endTime).toMinutes();
+                .id(row.id())
+                .userId(row.userId())
+                .userName(row.userName())
+                .projectId(row.projectId())
+                .projectName(row.projectName())
+                .taskId(row.taskId())
+                .taskName(row.taskName())
+                .date(row.date() != null ? row.date().toString() : null)
+                .hours(row.hours())
+                .description(row.description())
+                .isBillable(row.isBillable())
+                .createdAt(row.createdAt())
+                .startTime(row.startTime())
+                .endTime(row.endTime())
+                .isActive(row.isActive());
+        if (row.startTime() != null) {
+            LocalDateTime endTime = row.endTime() != null ? row.endTime() : LocalDateTime.now();
+            long minutes = Duration.between(row.startTime(), endTime).toMinutes();
             builder.durationMinutes((int) minutes);
         }
         return builder.build();
@@ -1,17 +1,16 @@
 package com.itops.service;
 
 import com.itops.domain.Timesheet;
-import com.itops.domain.TimeEntry;
 import com.itops.domain.User;
-import com.itops.domain.Project;
 import com.itops.dto.NotificationType;
 import com.itops.dto.TimesheetResponse;
 import com.itops.dto.ReviewTimesheetRequest;
+import com.itops.dto.ReviewTimesheetsRequest;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.repository.TimesheetRepository;
-import com.itops.repository.TimeEntryRepository;
 import com.itops.repository.UserRepository;
-import com.itops.repository.ProjectRepository;
+import com.itops.service.NotificationService.NotificationDraft;
+import com.itops.service.TimesheetTotalsService.WeekTotals;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,11 +24,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TimesheetService {
     private final TimesheetRepository timesheetRepository;
-    private final TimeEntryRepository timeEntryRepository;
     private final UserRepository userRepository;
-    private final ProjectRepository projectRepository;
+    private final TimesheetTotalsService timesheetTotalsService;
     private final OrgScopeService orgScopeService;
     private final NotificationService notificationService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
 
     /**
      * Get or create timesheet for a user and week.
@@ -43,11 +42,7 @@ public class TimesheetService {
         Timesheet timesheet = timesheetRepository.findByUserIdAndWeekStartAndDeletedAtIsNull(userId, monday)
                 .orElseGet(() -> createTimesheetForWeek(userId, monday, companyId));
         
-        // Recalculate totals from time_entries
-        updateTimesheetTotals(timesheet);
-        timesheetRepository.save(timesheet);
-        
-        return toResponse(timesheet);
+        return toFreshResponse(timesheet);
     }
 
     /**
@@ -71,6 +66,7 @@ public class TimesheetService {
         timesheet.setStatus("SUBMITTED");
         timesheet.setSubmittedAt(LocalDateTime.now());
         timesheetRepository.save(timesheet);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify approvers - only direct manager and TOP_USER
         User user = userRepository.findById(userId).orElse(null);
@@ -137,6 +133,7 @@ public class TimesheetService {
         }
         
         timesheetRepository.save(timesheet);
+        dashboardSnapshotCache.invalidateCompany(companyId);
         
         // Notify the timesheet owner
         String notificationType = "APPROVED".equals(request.getStatus()) ? 
@@ -162,6 +159,80 @@ public class TimesheetService {
         return toResponse(timesheet);
     }
 
+    /**
+     * Review (approve/reject) many timesheets at once with a single UPDATE.
+     * Either every timesheet is reviewed or, if any is out of scope or no longer
+     * SUBMITTED, none is.
+     */
+    @Transactional
+    public List<TimesheetResponse> reviewTimesheets(ReviewTimesheetsRequest request, UUID reviewerId,
+                                                    String reviewerRole, UUID companyId) {
+        List<UUID> ids = request.getTimesheetIds().stream().distinct().collect(Collectors.toList());
+        List<Timesheet> timesheets = timesheetRepository.findAllById(ids);
+        if (timesheets.size() != ids.size()) {
+            throw new ResourceNotFoundException("Timesheet not found");
+        }
+        
+        Set<UUID> allowedUserIds = orgScopeService.getAllowedUserIdsForApprovals(reviewerId, reviewerRole, companyId);
+        for (Timesheet timesheet : timesheets) {
+            if (!timesheet.getCompanyId().equals(companyId)) {
+                throw new IllegalArgumentException("Timesheet not found in your company");
+            }
+            if (!allowedUserIds.contains(timesheet.getUserId())) {
+                throw new IllegalArgumentException("You do not have permission to review this timesheet");
+            }
+            if (!"SUBMITTED".equals(timesheet.getStatus())) {
+                throw new IllegalStateException("Only submitted timesheets can be reviewed");
+            }
+        }
+        
+        boolean approved = "APPROVED".equals(request.getStatus());
+        String rejectionReason = approved ? null : request.getRejectionReason();
+        int updated = timesheetRepository.reviewSubmitted(companyId, ids, request.getStatus(), reviewerId,
+                LocalDateTime.now(), rejectionReason);
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Some timesheets were reviewed by someone else, please reload");
+        }
+        dashboardSnapshotCache.invalidateCompany(companyId);
+        
+        notificationService.createNotifications(companyId, timesheets.stream()
+                .map(timesheet -> new NotificationDraft(
+                        timesheet.getUserId(),
+                        approved ? NotificationType.TIMESHEET_APPROVED : NotificationType.TIMESHEET_REJECTED,
+                        approved ? "Timesheet Approved" : "Timesheet Rejected",
+                        approved ?
+                                "Your timesheet for week " + timesheet.getWeekStart() + " has been approved" :
+                                "Your timesheet for week " + timesheet.getWeekStart() + " has been rejected" +
+                                (rejectionReason != null ? ": " + rejectionReason : ""),
+                        "TIMESHEET",
+                        timesheet.getId(),
+                        reviewerId))
+                .toList());
+        
+        return toResponses(companyId, timesheetRepository.findAllById(ids));
+    }
+
+    /**
+     * Submitted timesheets waiting for the requester's review, oldest week first.
+     * Filtered in the query by the requester's approval scope.
+     */
+    public List<TimesheetResponse> getApprovalQueue(UUID requesterId, String requesterRole, UUID companyId,
+                                                    LocalDate weekStart) {
+        List<UUID> allowedUserIds = new ArrayList<>(
+                orgScopeService.getAllowedUserIdsForApprovals(requesterId, requesterRole, companyId));
+        LocalDate monday = weekStart != null ? weekStart.minusDays(weekStart.getDayOfWeek().getValue() - 1) : null;
+        
+        List<Timesheet> queue = new ArrayList<>();
+        for (int from = 0; from < allowedUserIds.size(); from += ReportDimensionResolver.CHUNK_SIZE) {
+            List<UUID> chunk = allowedUserIds.subList(from, Math.min(from + ReportDimensionResolver.CHUNK_SIZE, allowedUserIds.size()));
+            queue.addAll(timesheetRepository.findQueue(companyId, chunk, "SUBMITTED", monday));
+        }
+        queue.sort(Comparator.comparing(Timesheet::getWeekStart)
+                .thenComparing(Timesheet::getSubmittedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+        
+        return toResponses(companyId, queue);
+    }
+
     /**
      * Get all timesheets for allowed users.
      * Filtered by role-based scope.
@@ -171,12 +242,6 @@ public class TimesheetService {
         // Get allowed user IDs based on role (excluding requester for approvals)
         Set<UUID> allowedUserIds = orgScopeService.getAllowedUserIdsForApprovals(requesterId, requesterRole, companyId);
         
-        System.out.println("=== TIMESHEET APPROVALS DEBUG ===");
-        System.out.println("Requester ID: " + requesterId + ", Role: " + requesterRole);
-        System.out.println("Allowed User IDs for Approvals: " + allowedUserIds);
-        System.out.println("Status filter: " + status);
-        System.out.println("UserId filter: " + userId);
-        
         if (allowedUserIds.isEmpty()) {
             return Collections.emptyList();
         }
@@ -206,18 +271,12 @@ public class TimesheetService {
             timesheets = timesheetRepository.findByCompanyIdAndUserIdIn(companyId, new ArrayList<>(finalAllowedUserIds));
         }
         
-        System.out.println("Found " + timesheets.size() + " timesheets before filtering");
-        
         // Filter by allowed user IDs
-        List<TimesheetResponse> result = timesheets.stream()
+        List<Timesheet> visible = timesheets.stream()
                 .filter(t -> finalAllowedUserIds.contains(t.getUserId()))
-                .map(this::toResponse)
                 .collect(Collectors.toList());
         
-        System.out.println("Returning " + result.size() + " timesheets after filtering");
-        System.out.println("=====================================");
-        
-        return result;
+        return toResponses(companyId, visible);
     }
 
     /**
@@ -241,11 +300,7 @@ public class TimesheetService {
             }
         }
         
-        // Recalculate totals to ensure fresh data
-        updateTimesheetTotals(timesheet);
-        timesheetRepository.save(timesheet);
-        
-        return toResponse(timesheet);
+        return toFreshResponse(timesheet);
     }
 
     /**
@@ -268,137 +323,66 @@ public class TimesheetService {
     }
 
     /**
-     * Update timesheet totals from time_entries.
+     * Convert a single timesheet, storing its recalculated totals if time entries changed
+     * without going through the write-through path.
      */
-    private void updateTimesheetTotals(Timesheet timesheet) {
-        LocalDate weekEnd = timesheet.getWeekStart().plusDays(6);
-        
-        // Get all time entries for this week
-        List<TimeEntry> entries = timeEntryRepository.findByUserIdAndDateRange(
-                timesheet.getUserId(),
-                timesheet.getWeekStart(),
-                weekEnd
-        );
-        
-        System.out.println("=== TIMESHEET CALCULATION DEBUG ===");
-        System.out.println("User ID: " + timesheet.getUserId());
-        System.out.println("Week Start: " + timesheet.getWeekStart());
-        System.out.println("Week End: " + weekEnd);
-        System.out.println("Found " + entries.size() + " time entries");
-        
-        int totalMinutes = 0;
-        int billableMinutes = 0;
-        
-        for (TimeEntry entry : entries) {
-            int minutes = calculateEntryMinutes(entry);
-            System.out.println("Entry: date=" + entry.getDate() + ", hours=" + entry.getHours() + ", minutes=" + minutes + ", billable=" + entry.getIsBillable());
-            totalMinutes += minutes;
-            if (Boolean.TRUE.equals(entry.getIsBillable())) {
-                billableMinutes += minutes;
-            }
+    private TimesheetResponse toFreshResponse(Timesheet timesheet) {
+        WeekTotals totals = timesheetTotalsService.totalsFor(timesheet);
+        if (timesheetTotalsService.apply(timesheet, totals)) {
+            timesheetRepository.save(timesheet);
         }
-        
-        System.out.println("Total Minutes: " + totalMinutes);
-        System.out.println("Billable Minutes: " + billableMinutes);
-        System.out.println("===================================");
-        
-        timesheet.setTotalMinutes(totalMinutes);
-        timesheet.setBillableMinutes(billableMinutes);
-        timesheet.setNonBillableMinutes(totalMinutes - billableMinutes);
+        return toResponse(timesheet, totals, userNames(List.of(timesheet)));
+    }
+
+    private TimesheetResponse toResponse(Timesheet timesheet) {
+        return toResponse(timesheet, timesheetTotalsService.totalsFor(timesheet), userNames(List.of(timesheet)));
     }
 
     /**
-     * Calculate minutes from a time entry.
+     * Convert timesheets with one totals query and one user lookup for the whole list.
      */
-    private int calculateEntryMinutes(TimeEntry entry) {
-        if (entry.getHours() != null && entry.getHours() > 0) {
-            return entry.getHours() * 60;
+    private List<TimesheetResponse> toResponses(UUID companyId, List<Timesheet> timesheets) {
+        Map<UUID, WeekTotals> totals = timesheetTotalsService.totalsFor(companyId, timesheets);
+        Map<UUID, String> names = userNames(timesheets);
+        return timesheets.stream()
+                .map(timesheet -> toResponse(timesheet, totals.get(timesheet.getId()), names))
+                .collect(Collectors.toList());
+    }
+
+    private Map<UUID, String> userNames(List<Timesheet> timesheets) {
+        Set<UUID> userIds = new HashSet<>();
+        for (Timesheet timesheet : timesheets) {
+            userIds.add(timesheet.getUserId());
+            if (timesheet.getApprovedBy() != null) {
+                userIds.add(timesheet.getApprovedBy());
+            }
         }
-        return 0;
+        Map<UUID, String> names = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> names.put(user.getId(), user.getName()));
+        return names;
     }
 
     /**
      * Convert Timesheet entity to response DTO.
      */
-    private TimesheetResponse toResponse(Timesheet timesheet) {
-        String userName = userRepository.findById(timesheet.getUserId())
-                .map(User::getName)
-                .orElse(null);
-        
-        // Calculate daily breakdown
-        List<TimesheetResponse.DailyBreakdown> dailyBreakdown = calculateDailyBreakdown(timesheet);
-        
-        String approvedByName = null;
-        if (timesheet.getApprovedBy() != null) {
-            approvedByName = userRepository.findById(timesheet.getApprovedBy())
-                    .map(User::getName)
-                    .orElse(null);
-        }
-        
+    private TimesheetResponse toResponse(Timesheet timesheet, WeekTotals totals, Map<UUID, String> userNames) {
         return TimesheetResponse.builder()
                 .id(timesheet.getId())
                 .userId(timesheet.getUserId())
-                .userName(userName)
+                .userName(userNames.get(timesheet.getUserId()))
                 .weekStart(timesheet.getWeekStart())
                 .status(timesheet.getStatus())
                 .submittedAt(timesheet.getSubmittedAt())
                 .approvedAt(timesheet.getApprovedAt())
                 .approvedBy(timesheet.getApprovedBy())
-                .approvedByName(approvedByName)
+                .approvedByName(timesheet.getApprovedBy() != null ? userNames.get(timesheet.getApprovedBy()) : null)
                 .rejectionReason(timesheet.getRejectionReason())
-                .totalMinutes(timesheet.getTotalMinutes())
-                .billableMinutes(timesheet.getBillableMinutes())
-                .nonBillableMinutes(timesheet.getNonBillableMinutes())
-                .dailyBreakdown(dailyBreakdown)
+                .totalMinutes(totals.totalMinutes())
+                .billableMinutes(totals.billableMinutes())
+                .nonBillableMinutes(totals.nonBillableMinutes())
+                .dailyBreakdown(totals.days())
                 .createdAt(timesheet.getCreatedAt())
                 .updatedAt(timesheet.getUpdatedAt())
                 .build();
     }
-    
-    /**
-     * Calculate daily breakdown from time entries for the week.
-     */
-    private List<TimesheetResponse.DailyBreakdown> calculateDailyBreakdown(Timesheet timesheet) {
-        LocalDate weekEnd = timesheet.getWeekStart().plusDays(6);
-        
-        // Get all time entries for this week
-        List<TimeEntry> entries = timeEntryRepository.findByUserIdAndDateRange(
-                timesheet.getUserId(),
-                timesheet.getWeekStart(),
-                weekEnd
-        );
-        
-        // Group entries by date
-        Map<LocalDate, List<TimeEntry>> entriesByDate = new HashMap<>();
-        for (TimeEntry entry : entries) {
-            entriesByDate.computeIfAbsent(entry.getDate(), k -> new ArrayList<>()).add(entry);
-        }
-        
-        // Create breakdown for each day of the week
-        List<TimesheetResponse.DailyBreakdown> breakdown = new ArrayList<>();
-        for (int i = 0; i < 7; i++) {
-            LocalDate date = timesheet.getWeekStart().plusDays(i);
-            List<TimeEntry> dayEntries = entriesByDate.getOrDefault(date, List.of());
-            
-            int totalMinutes = 0;
-            int billableMinutes = 0;
-            
-            for (TimeEntry entry : dayEntries) {
-                int minutes = calculateEntryMinutes(entry);
-                totalMinutes += minutes;
-                if (Boolean.TRUE.equals(entry.getIsBillable())) {
-                    billableMinutes += minutes;
-                }
-            }
-            
-            breakdown.add(TimesheetResponse.DailyBreakdown.builder()
-                    .date(date)
-                    .totalMinutes(totalMinutes)
-                    .billableMinutes(billableMinutes)
-                    .nonBillableMinutes(totalMinutes - billableMinutes)
-                    .build());
-        }
-        
-        return breakdown;
-    }
 }
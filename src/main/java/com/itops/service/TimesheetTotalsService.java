@@ -0,0 +1,120 @@
+package com.itops.service;
+
+import com.itops.domain.Timesheet;
+import com.itops.dto.TimesheetResponse.DailyBreakdown;
+import com.itops.repository.TimeEntryRepository;
+import com.itops.repository.TimesheetRepository;
+import com.itops.repository.projection.UserDatedMinuteTotals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Computes timesheet totals and daily breakdowns from time entries with one grouped query per
+ * batch of timesheets instead of loading every entry. Time entry writes call
+ * {@link #recalculateWeeks} so the totals stored on the timesheet follow the entries.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimesheetTotalsService {
+
+    private final TimeEntryRepository timeEntryRepository;
+    private final TimesheetRepository timesheetRepository;
+
+    /**
+     * Totals of each timesheet of the company, keyed by timesheet id.
+     */
+    public Map<UUID, WeekTotals> totalsFor(UUID companyId, Collection<Timesheet> timesheets) {
+        if (timesheets.isEmpty()) {
+            return Map.of();
+        }
+        LocalDate fromDate = timesheets.stream().map(Timesheet::getWeekStart).min(Comparator.naturalOrder()).get();
+        LocalDate toDate = timesheets.stream().map(Timesheet::getWeekStart).max(Comparator.naturalOrder()).get().plusDays(6);
+        List<UUID> userIds = timesheets.stream().map(Timesheet::getUserId).distinct().toList();
+
+        Map<UUID, Map<LocalDate, UserDatedMinuteTotals>> byUserAndDay = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += ReportDimensionResolver.CHUNK_SIZE) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + ReportDimensionResolver.CHUNK_SIZE, userIds.size()));
+            for (UserDatedMinuteTotals row : timeEntryRepository.sumByUserAndDate(companyId, chunk, fromDate, toDate)) {
+                byUserAndDay.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getDay(), row);
+            }
+        }
+
+        Map<UUID, WeekTotals> result = new HashMap<>();
+        for (Timesheet timesheet : timesheets) {
+            Map<LocalDate, UserDatedMinuteTotals> days = byUserAndDay.getOrDefault(timesheet.getUserId(), Map.of());
+            result.put(timesheet.getId(), WeekTotals.of(timesheet.getWeekStart(), days));
+        }
+        return result;
+    }
+
+    public WeekTotals totalsFor(Timesheet timesheet) {
+        return totalsFor(timesheet.getCompanyId(), List.of(timesheet)).get(timesheet.getId());
+    }
+
+    /**
+     * Stores fresh totals on the user's timesheets for the weeks containing {@code dates}.
+     * Weeks without a timesheet are skipped; their totals are computed when it is created.
+     */
+    @Transactional
+    public void recalculateWeeks(UUID companyId, UUID userId, LocalDate... dates) {
+        Arrays.stream(dates)
+                .filter(Objects::nonNull)
+                .map(date -> date.minusDays(date.getDayOfWeek().getValue() - 1))
+                .distinct()
+                .forEach(monday -> timesheetRepository.findByUserIdAndWeekStartAndDeletedAtIsNull(userId, monday)
+                        .filter(timesheet -> timesheet.getCompanyId().equals(companyId))
+                        .ifPresent(timesheet -> {
+                            if (apply(timesheet, totalsFor(timesheet))) {
+                                timesheetRepository.save(timesheet);
+                            }
+                        }));
+    }
+
+    /**
+     * Copies {@code totals} onto the timesheet and reports whether anything changed.
+     */
+    public boolean apply(Timesheet timesheet, WeekTotals totals) {
+        boolean changed = !Objects.equals(timesheet.getTotalMinutes(), totals.totalMinutes())
+                || !Objects.equals(timesheet.getBillableMinutes(), totals.billableMinutes())
+                || !Objects.equals(timesheet.getNonBillableMinutes(), totals.nonBillableMinutes());
+        timesheet.setTotalMinutes(totals.totalMinutes());
+        timesheet.setBillableMinutes(totals.billableMinutes());
+        timesheet.setNonBillableMinutes(totals.nonBillableMinutes());
+        return changed;
+    }
+
+    /**
+     * Minutes of one timesheet week, with a breakdown for each of its seven days.
+     */
+    public record WeekTotals(List<DailyBreakdown> days, int totalMinutes, int billableMinutes) {
+
+        public int nonBillableMinutes() {
+            return totalMinutes - billableMinutes;
+        }
+
+        static WeekTotals of(LocalDate weekStart, Map<LocalDate, UserDatedMinuteTotals> totalsByDay) {
+            List<DailyBreakdown> days = new ArrayList<>();
+            int total = 0;
+            int billable = 0;
+            for (int i = 0; i < 7; i++) {
+                LocalDate date = weekStart.plusDays(i);
+                UserDatedMinuteTotals day = totalsByDay.get(date);
+                int dayTotal = day != null ? (int) day.getTotalMinutes() : 0;
+                int dayBillable = day != null && day.getBillableMinutes() != null ? day.getBillableMinutes().intValue() : 0;
+                days.add(DailyBreakdown.builder()
+                        .date(date)
+                        .totalMinutes(dayTotal)
+                        .billableMinutes(dayBillable)
+                        .nonBillableMinutes(dayTotal - dayBillable)
+                        .build());
+                total += dayTotal;
+                billable += dayBillable;
+            }
+            return new WeekTotals(days, total, billable);
+        }
+    }
+}
@@ -1,33 +1,87 @@
 package com.itops.service;
 
+import com.itops.domain.CompanyUsage;
+import com.itops.exception.SubscriptionLimitException;
+import com.itops.repository.CompanyUsageRepository;
 import com.itops.repository.ProjectRepository;
 import com.itops.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 
+/**
+ * Tracks how many active users and projects each company has in {@code company_usage}, so
+ * plan-limit checks never scan the tables. Creating takes a slot with a conditional
+ * {@code UPDATE ... WHERE count < limit} in the caller's transaction: the row lock serializes
+ * concurrent creates on every instance, and a rolled back create gives its slot back with the
+ * rest of the transaction. The row is created from COUNT queries the first time a company is
+ * seen, and a periodic reconciliation resets drifted counters from the tables.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UsageService {
     
+    private final CompanyUsageRepository companyUsageRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     
-    @Transactional(readOnly = true)
     public int countActiveUsers(UUID companyId) {
-        return (int) userRepository.findByCompanyIdAndDeletedAtIsNull(companyId)
-            .stream()
-            .filter(user -> user.getIsActive() != null && user.getIsActive())
-            .count();
+        return companyUsageRepository.findByCompanyId(companyId)
+                .map(CompanyUsage::getActiveUsers)
+                .orElseGet(() -> (int) userRepository.countByCompanyIdAndIsActiveTrueAndDeletedAtIsNull(companyId));
     }
     
-    @Transactional(readOnly = true)
     public int countActiveProjects(UUID companyId) {
-        return (int) projectRepository.findByCompanyIdAndDeletedAtIsNull(companyId)
-            .size();
+        return companyUsageRepository.findByCompanyId(companyId)
+                .map(CompanyUsage::getActiveProjects)
+                .orElseGet(() -> (int) projectRepository.countByCompanyIdAndDeletedAtIsNull(companyId));
+    }
+    
+    @Transactional
+    public void reserveUser(UUID companyId, int maxUsers) {
+        reserve(companyId, id -> companyUsageRepository.reserveUser(id, maxUsers),
+                "User limit reached. Current plan allows " + maxUsers + " users. Upgrade required.");
+    }
+    
+    @Transactional
+    public void reserveProject(UUID companyId, int maxProjects) {
+        reserve(companyId, id -> companyUsageRepository.reserveProject(id, maxProjects),
+                "Project limit reached. Current plan allows " + maxProjects + " projects. Upgrade required.");
+    }
+    
+    @Transactional
+    public void releaseUser(UUID companyId) {
+        companyUsageRepository.releaseUser(companyId);
+    }
+    
+    @Transactional
+    public void releaseProject(UUID companyId) {
+        companyUsageRepository.releaseProject(companyId);
+    }
+    
+    @Scheduled(fixedDelayString = "${entitlements.usage-reconcile-interval-ms:600000}")
+    @Transactional
+    public void reconcile() {
+        int corrected = companyUsageRepository.reconcile();
+        if (corrected > 0) {
+            log.info("Corrected usage counters for {} companies", corrected);
+        }
+    }
+    
+    private void reserve(UUID companyId, ToIntFunction<UUID> takeSlot, String limitMessage) {
+        if (takeSlot.applyAsInt(companyId) == 1) {
+            return;
+        }
+        // No slot taken: either the limit is reached or the company has no counters yet
+        companyUsageRepository.createIfMissing(companyId);
+        if (takeSlot.applyAsInt(companyId) == 0) {
+            throw new SubscriptionLimitException(limitMessage);
+        }
     }
 }
@@ -6,13 +6,13 @@ import com.itops.dto.UserResponse;
 import com.itops.exception.ResourceNotFoundException;
 import com.itops.repository.UserRepository;
 import com.itops.repository.TeamRepository;
+import com.itops.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -26,6 +26,9 @@ public class UserService {
     private final TeamRepository teamRepository;
     private final PasswordEncoder passwordEncoder;
     private final SubscriptionGuard subscriptionGuard;
+    private final UserPrincipalCache userPrincipalCache;
+    private final OrgGraphCache orgGraphCache;
+    private final UsageService usageService;
 
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers(UUID companyId, UUID currentUserId) {
@@ -42,7 +45,7 @@ public class UserService {
                 
             case SUPER_USER:
                 // SUPER_USER sees users they created + users in their team
-                users = getVisibleUsersForSuperUser(currentUserId, currentUser.getTeamId());
+                users = getVisibleUsersForSuperUser(companyId, currentUserId);
                 break;
 
             case ADMIN:
@@ -94,7 +97,7 @@ public class UserService {
                 
             case SUPER_USER:
                 // SUPER_USER sees users they created + users in their team
-                users = getVisibleUsersForSuperUser(currentUserId, currentUser.getTeamId());
+                users = getVisibleUsersForSuperUser(companyId, currentUserId);
                 break;
 
             case ADMIN:
@@ -131,21 +134,10 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
-    private List<User> getVisibleUsersForSuperUser(UUID superUserId, UUID teamId) {
+    private List<User> getVisibleUsersForSuperUser(UUID companyId, UUID superUserId) {
         // SUPER_USER sees all users in their hierarchy (recursively)
-        Set<User> visibleUsers = new HashSet<>();
-        collectUsersRecursively(superUserId, visibleUsers);
-        return new ArrayList<>(visibleUsers);
-    }
-
-    private void collectUsersRecursively(UUID creatorId, Set<User> result) {
-        List<User> directChildren = userRepository.findByCreatedByUserId(creatorId);
-        for (User child : directChildren) {
-            if (result.add(child)) {
-                // Recursively collect users created by this child
-                collectUsersRecursively(child.getId(), result);
-            }
-        }
+        Set<UUID> visibleUserIds = orgGraphCache.descendantsOf(companyId, superUserId);
+        return visibleUserIds.isEmpty() ? new ArrayList<>() : userRepository.findAllById(visibleUserIds);
     }
 
     public List<UserResponse> getUsersForMentions(UUID companyId, UUID currentUserId) {
@@ -209,6 +201,7 @@ public class UserService {
         user.setCompanyId(companyId);
         
         User saved = userRepository.save(user);
+        orgGraphCache.invalidateCompany(companyId);
         return mapToResponse(saved);
     }
 
@@ -283,6 +276,8 @@ public class UserService {
         user.setHourlyRate(request.getHourlyRate());
 
         User updated = userRepository.save(user);
+        userPrincipalCache.evict(id);
+        orgGraphCache.invalidateCompany(companyId);
         return mapToResponse(updated);
     }
 
@@ -293,6 +288,11 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         userRepository.delete(user);
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            usageService.releaseUser(companyId);
+        }
+        userPrincipalCache.evict(id);
+        orgGraphCache.invalidateCompany(companyId);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,77 @@
+-- V38: Per-company rollup tables for analytics, reports and dashboard
+-- Each table is partitioned logically by (company_id, day) or (company_id, project_id).
+-- Partitions are rebuilt from the source rows whenever a write touches them, and a
+-- background reconciler rebuilds any partition that has drifted.
+
+-- Invoice revenue per day, status, client and project
+CREATE TABLE rollup_invoice_daily (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    client_id UUID NOT NULL,
+    project_id UUID NULL,
+    invoice_count INTEGER NOT NULL DEFAULT 0,
+    total_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_rollup_invoice_daily_company_day ON rollup_invoice_daily(company_id, day);
+
+-- Logged minutes per day, user and project
+CREATE TABLE rollup_time_daily (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    user_id UUID NOT NULL,
+    project_id UUID NOT NULL,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    billable_minutes BIGINT NOT NULL DEFAULT 0,
+    non_billable_minutes BIGINT NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_rollup_time_daily_company_day ON rollup_time_daily(company_id, day);
+CREATE INDEX idx_rollup_time_daily_company_user ON rollup_time_daily(company_id, user_id, day);
+
+-- Task counts per project, assignee and status (current state, not time-partitioned)
+CREATE TABLE rollup_task_status (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    project_id UUID NOT NULL,
+    assigned_to UUID NULL,
+    status VARCHAR(50) NOT NULL,
+    task_count INTEGER NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_rollup_task_status_company_project ON rollup_task_status(company_id, project_id);
+CREATE INDEX idx_rollup_task_status_company_assignee ON rollup_task_status(company_id, assigned_to);
+
+-- Supports rebuilding a single (company, day) invoice partition
+CREATE INDEX idx_invoices_company_issue_date ON invoices(company_id, issue_date) WHERE deleted_at IS NULL;
+
+-- Backfill from existing data
+INSERT INTO rollup_invoice_daily (company_id, day, status, client_id, project_id, invoice_count, total_amount)
+SELECT company_id, issue_date, status, client_id, project_id, COUNT(*), SUM(total)
+FROM invoices
+WHERE deleted_at IS NULL
+GROUP BY company_id, issue_date, status, client_id, project_id;
+
+INSERT INTO rollup_time_daily (company_id, day, user_id, project_id, entry_count, billable_minutes, non_billable_minutes)
+SELECT company_id, date, user_id, project_id, COUNT(*),
+       SUM(CASE WHEN is_billable THEN hours * 60 ELSE 0 END),
+       SUM(CASE WHEN is_billable THEN 0 ELSE hours * 60 END)
+FROM time_entries
+WHERE deleted_at IS NULL
+GROUP BY company_id, date, user_id, project_id;
+
+INSERT INTO rollup_task_status (company_id, project_id, assigned_to, status, task_count)
+SELECT company_id, project_id, assigned_to, status, COUNT(*)
+FROM tasks
+WHERE deleted_at IS NULL
+GROUP BY company_id, project_id, assigned_to, status;
+
+COMMENT ON TABLE rollup_invoice_daily IS 'Invoice counts and totals per company/day/status/client/project';
+COMMENT ON TABLE rollup_time_daily IS 'Billable and non-billable minutes per company/day/user/project';
+COMMENT ON TABLE rollup_task_status IS 'Task counts per company/project/assignee/status';
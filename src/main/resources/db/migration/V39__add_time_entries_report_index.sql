@@ -0,0 +1,8 @@
+-- V39: Covering index for the time report aggregates
+-- Every report query filters on company and date range; including the grouping and
+-- summed columns lets Postgres answer them with an index-only scan.
+
+CREATE INDEX idx_time_entries_company_date
+ON time_entries(company_id, date)
+INCLUDE (user_id, project_id, task_id, hours, is_billable)
+WHERE deleted_at IS NULL;
@@ -0,0 +1,38 @@
+-- V40: Asynchronous report export jobs
+-- A job is queued by the API, rendered by a background worker and its PDF artifact is
+-- kept on local disk until expires_at, after which the cleanup task removes both.
+
+CREATE TABLE report_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    requested_by UUID NOT NULL,
+    report_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    period VARCHAR(20),
+    start_date DATE,
+    end_date DATE,
+    client_id UUID,
+    project_id UUID,
+    team_id UUID,
+    user_id UUID,
+    file_path VARCHAR(500),
+    file_size BIGINT,
+    error_message TEXT,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    CONSTRAINT chk_report_job_type CHECK (report_type IN ('REVENUE', 'PROJECTS', 'TIME', 'TEAM')),
+    CONSTRAINT chk_report_job_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Per-tenant concurrency check counts queued/running jobs
+CREATE INDEX idx_report_jobs_company_status ON report_jobs(company_id, status);
+
+-- Cleanup scans for expired artifacts
+CREATE INDEX idx_report_jobs_expires_at ON report_jobs(expires_at) WHERE expires_at IS NOT NULL;
+
+COMMENT ON TABLE report_jobs IS 'Queued and finished asynchronous report exports';
+COMMENT ON COLUMN report_jobs.file_path IS 'Location of the rendered PDF under the upload directory';
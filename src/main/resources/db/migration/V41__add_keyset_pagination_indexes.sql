@@ -0,0 +1,11 @@
+-- V41: Indexes backing keyset pagination of list endpoints
+-- Lists are ordered by (created_at, id) within their scope, so each page is a range scan
+-- starting right after the cursor instead of an OFFSET over the whole tenant.
+
+CREATE INDEX idx_tasks_company_created ON tasks(company_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_projects_company_created ON projects(company_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_time_entries_company_created ON time_entries(company_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_invoices_company_created ON invoices(company_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_notifications_user_created ON notifications(user_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_comments_entity_created ON comments(company_id, entity_type, entity_id, created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_client_crm_created ON client_crm(created_at DESC, id DESC);
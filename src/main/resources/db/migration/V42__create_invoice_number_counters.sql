@@ -0,0 +1,15 @@
+-- V42: Per-company invoice number counters
+-- Application nodes reserve blocks of numbers by advancing next_value, so numbers are unique
+-- within a company without a lookup per invoice. Blocks a node did not use are skipped.
+
+CREATE TABLE invoice_number_counters (
+    company_id UUID PRIMARY KEY REFERENCES companies(id) ON DELETE CASCADE,
+    next_value BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Sequential numbers repeat across companies, so uniqueness is now enforced per company
+ALTER TABLE invoices DROP CONSTRAINT IF EXISTS invoices_invoice_number_key;
+CREATE UNIQUE INDEX uq_invoices_company_invoice_number ON invoices(company_id, invoice_number);
+
+COMMENT ON TABLE invoice_number_counters IS 'Next unreserved invoice sequence number per company';
@@ -0,0 +1,40 @@
+-- V43: Link invoice line items to the time entries they bill
+-- Replaces the comma-separated invoice_items.source_time_entry_ids column, which could not be
+-- indexed or joined. The old column is kept but no longer written.
+
+CREATE TABLE invoice_item_time_entries (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    invoice_item_id UUID NOT NULL REFERENCES invoice_items(id) ON DELETE CASCADE,
+    time_entry_id UUID NOT NULL REFERENCES time_entries(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_invoice_item_time_entry UNIQUE (invoice_item_id, time_entry_id)
+);
+
+-- The unique constraint serves item -> entries lookups; this one serves entry -> items
+CREATE INDEX idx_invoice_item_time_entries_entry ON invoice_item_time_entries(time_entry_id);
+
+-- Backfill from the comma-separated column, skipping malformed, dangling or cross-tenant ids.
+-- The CASE only casts values that passed the format check, so a malformed legacy id yields NULL
+-- (and no link) instead of aborting the migration, whatever join the planner picks.
+INSERT INTO invoice_item_time_entries (company_id, invoice_item_id, time_entry_id)
+SELECT DISTINCT ii.company_id, ii.id, te.id
+FROM invoice_items ii
+CROSS JOIN LATERAL (
+    SELECT CASE
+               WHEN s.raw_id ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+               THEN CAST(s.raw_id AS UUID)
+           END AS entry_id
+    FROM (
+        SELECT trim(raw_id) AS raw_id
+        FROM unnest(string_to_array(ii.source_time_entry_ids, ',')) AS raw_id
+    ) s
+) src
+JOIN time_entries te
+  ON te.id = src.entry_id
+ AND te.company_id = ii.company_id
+WHERE ii.source_time_entry_ids IS NOT NULL AND ii.source_time_entry_ids <> ''
+ON CONFLICT (invoice_item_id, time_entry_id) DO NOTHING;
+
+COMMENT ON TABLE invoice_item_time_entries IS 'Time entries billed by each invoice line item';
+COMMENT ON COLUMN invoice_items.source_time_entry_ids IS 'Deprecated: superseded by invoice_item_time_entries';
@@ -0,0 +1,46 @@
+-- V44: Ledger for scheduled auto-billing runs
+-- One run per company and billing period; each client with unbilled approved time in the
+-- period gets a ledger row. A client's row is marked INVOICED in the same transaction that
+-- creates its draft invoice, so a run interrupted by a restart resumes without double billing.
+
+CREATE TABLE billing_runs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    period_start DATE NOT NULL,
+    period_end DATE NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    clients_total INTEGER NOT NULL DEFAULT 0,
+    clients_invoiced INTEGER NOT NULL DEFAULT 0,
+    clients_skipped INTEGER NOT NULL DEFAULT 0,
+    clients_failed INTEGER NOT NULL DEFAULT 0,
+    invoiced_total DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    CONSTRAINT uq_billing_run_period UNIQUE (company_id, period_start, period_end),
+    CONSTRAINT chk_billing_run_status CHECK (status IN ('RUNNING', 'COMPLETED'))
+);
+
+CREATE TABLE billing_run_clients (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    run_id UUID NOT NULL REFERENCES billing_runs(id) ON DELETE CASCADE,
+    client_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    invoice_id UUID,
+    message TEXT,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    CONSTRAINT uq_billing_run_client UNIQUE (run_id, client_id),
+    CONSTRAINT chk_billing_run_client_status CHECK (status IN ('PENDING', 'INVOICED', 'SKIPPED', 'FAILED'))
+);
+
+-- Resuming after a restart looks for unfinished runs
+CREATE INDEX idx_billing_runs_status ON billing_runs(status) WHERE status = 'RUNNING';
+
+COMMENT ON TABLE billing_runs IS 'Scheduled auto-billing runs, one per company and period';
+COMMENT ON TABLE billing_run_clients IS 'Outcome of each client within an auto-billing run';
@@ -0,0 +1,20 @@
+-- V45: Scheduled overdue sweep and invoice status history
+-- The sweeper moves SENT invoices past their due date to OVERDUE company by company; the
+-- partial index keeps each scan limited to invoices that are still waiting for payment.
+
+CREATE INDEX idx_invoices_sent_due ON invoices(company_id, due_date)
+    WHERE status = 'SENT' AND deleted_at IS NULL;
+
+CREATE TABLE invoice_status_transitions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    invoice_id UUID NOT NULL REFERENCES invoices(id) ON DELETE CASCADE,
+    from_status VARCHAR(20) NOT NULL,
+    to_status VARCHAR(20) NOT NULL,
+    changed_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_invoice_status_transitions_invoice ON invoice_status_transitions(invoice_id, created_at);
+
+COMMENT ON TABLE invoice_status_transitions IS 'Status changes of invoices; changed_by is NULL for the overdue sweeper';
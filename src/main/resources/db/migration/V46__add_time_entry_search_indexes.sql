@@ -0,0 +1,5 @@
+-- V46: Composite indexes for the time entry list filtered by user or project
+-- Both keep the keyset order so a filtered page is read straight off the index.
+
+CREATE INDEX idx_time_entries_company_user_created ON time_entries(company_id, user_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
+CREATE INDEX idx_time_entries_company_project_created ON time_entries(company_id, project_id, created_at DESC, id DESC) WHERE deleted_at IS NULL;
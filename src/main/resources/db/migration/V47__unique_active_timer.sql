@@ -0,0 +1,16 @@
+-- V47: At most one running timer per user, enforced by the database
+-- Older duplicates are stopped first, keeping each user's most recently started timer.
+
+UPDATE time_entries t
+SET is_active = FALSE,
+    end_time = COALESCE(t.end_time, CURRENT_TIMESTAMP),
+    updated_at = CURRENT_TIMESTAMP
+WHERE t.is_active = TRUE
+  AND (t.deleted_at IS NOT NULL
+       OR EXISTS (SELECT 1 FROM time_entries n
+                  WHERE n.user_id = t.user_id AND n.is_active = TRUE AND n.deleted_at IS NULL
+                    AND (COALESCE(n.start_time, n.created_at) > COALESCE(t.start_time, t.created_at)
+                         OR (COALESCE(n.start_time, n.created_at) = COALESCE(t.start_time, t.created_at) AND n.id > t.id))));
+
+DROP INDEX IF EXISTS idx_time_entries_user_active;
+CREATE UNIQUE INDEX uq_time_entries_user_active ON time_entries(user_id) WHERE is_active = TRUE;
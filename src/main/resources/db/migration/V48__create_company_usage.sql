@@ -0,0 +1,20 @@
+-- V48: Per-company usage counters checked against plan limits
+-- Creating a user or project takes a slot with a conditional UPDATE on this row, so the plan
+-- limit holds across every application instance and a rolled back create returns its slot.
+
+CREATE TABLE company_usage (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    active_users INTEGER NOT NULL DEFAULT 0,
+    active_projects INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    CONSTRAINT uq_company_usage_company UNIQUE (company_id)
+);
+
+INSERT INTO company_usage (company_id, active_users, active_projects)
+SELECT c.id,
+       (SELECT COUNT(*) FROM users u WHERE u.company_id = c.id AND u.is_active = TRUE AND u.deleted_at IS NULL),
+       (SELECT COUNT(*) FROM projects p WHERE p.company_id = c.id AND p.deleted_at IS NULL)
+FROM companies c;
@@ -0,0 +1,8 @@
+-- V49: Heartbeat for report export jobs
+-- The instance holding a queued or running job refreshes heartbeat_at periodically. Only jobs
+-- whose heartbeat has gone stale are failed as interrupted, so a restarting instance no longer
+-- fails jobs that another live instance is still rendering.
+
+ALTER TABLE report_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+
+CREATE INDEX idx_report_jobs_active_heartbeat ON report_jobs(heartbeat_at) WHERE status IN ('QUEUED', 'RUNNING');
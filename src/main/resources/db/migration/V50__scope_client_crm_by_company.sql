@@ -0,0 +1,12 @@
+-- V50: Scope client_crm by tenant
+-- The CRM list is read per company, newest first. client_crm only had client_id, so the keyset
+-- index could not be led by the tenant; company_id is copied from the client and leads it now.
+
+ALTER TABLE client_crm ADD COLUMN company_id UUID REFERENCES companies(id) ON DELETE CASCADE;
+
+UPDATE client_crm crm SET company_id = c.company_id FROM clients c WHERE c.id = crm.client_id;
+
+ALTER TABLE client_crm ALTER COLUMN company_id SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_client_crm_created;
+CREATE INDEX idx_client_crm_company_created ON client_crm(company_id, created_at DESC, id DESC);